@@ -10,23 +10,28 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerCallGuardFactory;
+import ru.practicum.shareit.client.ServerWireFormat;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ServerCallGuardFactory guards, ServerWireFormat wireFormat) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                guards.forClient("bookings"),
+                wireFormat
         );
     }
 
-    public ResponseEntity<Object> addBooking(Long userId, BookingAddDto bookingAddDto) {
-        return post("", userId, bookingAddDto);
+    public ResponseEntity<Object> addBooking(Long userId, BookingAddDto bookingAddDto, String idempotencyKey) {
+        return post("", userId, bookingAddDto, idempotencyKey);
     }
 
     public ResponseEntity<Object> updateBookingStatus(Long userId, Boolean approved, Long bookingId) {
@@ -38,13 +43,19 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserBookings(BookingStatus status, Long userId, int from, int size) {
-        String path = "?state=" + status.name() + "&from=" + from + "&size=" + size;
+    public ResponseEntity<Object> getAllUserBookings(BookingStatus status, Long userId, int from, int size,
+                                                     String fields) {
+        String path = "?state=" + status.name() + "&from=" + from + "&size=" + size + fieldsParam(fields);
         return get(path, userId, null);
     }
 
-    public ResponseEntity<Object> getAllItemBookingsUser(Long userId, BookingStatus status, int from, int size) {
-        String path = "/owner?state=" + status.name() + "&from=" + from + "&size=" + size;
+    public ResponseEntity<Object> getAllItemBookingsUser(Long userId, BookingStatus status, int from, int size,
+                                                         String fields) {
+        String path = "/owner?state=" + status.name() + "&from=" + from + "&size=" + size + fieldsParam(fields);
         return get(path, userId, null);
     }
+
+    private static String fieldsParam(String fields) {
+        return fields == null ? "" : "&fields=" + fields;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.exception.ServerResponseException;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+import ru.practicum.shareit.tracing.RequestTrace;
+import ru.practicum.shareit.tracing.TraceContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Проксирование SSE-потока событий бронирований с сервера. RestTemplate читает ответ целиком,
+// поэтому поток читается через java.net.http.HttpClient: синхронно ждём только заголовки ответа,
+// дальше строки пересылаются клиенту по мере поступления без отдельного потока на подписчика.
+// Вызов идёт мимо ServerCallGuard: долгоживущее соединение занимало бы разрешение bulkhead.
+@Slf4j
+@Service
+public class BookingEventStreamClient {
+    private static final String OWNER_HEADER = "X-Sharer-User-Id";
+    // JSON нужен, чтобы сервер смог вернуть тело ошибки при отказе в подписке
+    private static final String ACCEPT = "text/event-stream, application/json";
+
+    private final HttpClient httpClient;
+    private final URI streamUri;
+    private final Duration handshakeTimeout;
+    private final long timeoutMs;
+
+    public BookingEventStreamClient(@Value("${shareit-server.url}") String serverUrl,
+                                    ServerClientProperties properties,
+                                    @Value("${shareit-server.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        this.streamUri = URI.create(serverUrl + "/bookings/owner/stream");
+        this.handshakeTimeout = properties.getReadTimeout();
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(streamUri)
+                .header(OWNER_HEADER, String.valueOf(userId))
+                .header(HttpHeaders.ACCEPT, ACCEPT);
+        String traceparent = RequestTrace.outgoingTraceparent();
+        if (traceparent != null) {
+            builder.header(TraceContext.HEADER, traceparent);
+        }
+        HttpRequest request = builder.GET().build();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        EventRelay relay = new EventRelay(emitter, userId);
+        CompletableFuture<Integer> status = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request, info -> {
+            status.complete(info.statusCode());
+            return info.statusCode() == HttpStatus.OK.value()
+                    ? HttpResponse.BodySubscribers.fromLineSubscriber(relay, r -> "", StandardCharsets.UTF_8, null)
+                    : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        });
+        exchange.whenComplete((response, e) -> {
+            if (e != null) {
+                status.completeExceptionally(e);
+            }
+        });
+
+        int statusCode = await(status, exchange);
+        if (statusCode != HttpStatus.OK.value()) {
+            throw new ServerResponseException(statusCode, await(exchange, exchange).body());
+        }
+        emitter.onCompletion(relay::cancel);
+        emitter.onTimeout(relay::cancel);
+        emitter.onError(e -> relay.cancel());
+        log.debug("Открыт поток событий бронирований для пользователя {}", userId);
+        return emitter;
+    }
+
+    private <T> T await(CompletableFuture<T> future, CompletableFuture<?> exchange) {
+        try {
+            return future.get(handshakeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new ServerUnavailableException("Сервер не ответил на подписку на события бронирований");
+        } catch (ExecutionException e) {
+            throw new ServerUnavailableException("Сервер недоступен: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.cancel(true);
+            throw new ServerUnavailableException("Подписка на события бронирований прервана");
+        }
+    }
+
+    // Собирает строки SSE (event, id, data; прочие поля отбрасываются) в событие, отправляет по пустой строке.
+    // Строки запрашиваются по одной: медленный клиент притормаживает чтение с сервера, а не копит буфер.
+    private static class EventRelay implements Flow.Subscriber<String> {
+        private final SseEmitter emitter;
+        private final Long userId;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private SseEmitter.SseEventBuilder event;
+
+        EventRelay(SseEmitter emitter, Long userId) {
+            this.emitter = emitter;
+            this.userId = userId;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                relay(line);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Клиент потока событий пользователя {} отключился: {}", userId, e.getMessage());
+                cancel();
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!cancelled) {
+                log.debug("Поток событий пользователя {} с сервера оборвался: {}", userId, throwable.getMessage());
+            }
+            emitter.complete();
+        }
+
+        // сервер закрыл поток (таймаут подписки, остановка) - клиент переподключится сам
+        @Override
+        public void onComplete() {
+            emitter.complete();
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private void relay(String line) throws IOException {
+            if (line.isEmpty()) {
+                if (event != null) {
+                    emitter.send(event);
+                    event = null;
+                }
+                return;
+            }
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            if (field.isEmpty()) {
+                // комментарий (heartbeat сервера) пересылается сразу и проверяет соединение с клиентом
+                emitter.send(SseEmitter.event().comment(value));
+                return;
+            }
+            if (event == null) {
+                event = SseEmitter.event();
+            }
+            switch (field) {
+                case "event":
+                    event.name(value);
+                    break;
+                case "id":
+                    event.id(value);
+                    break;
+                case "data":
+                    event.data(value);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingEventStreamClient;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -20,18 +25,26 @@ import javax.validation.constraints.NotNull;
 @Slf4j
 public class BookingController {
     private final BookingClient bookingClient;
+    private final BookingEventStreamClient bookingEventStreamClient;
     private static final String OWNER_HEADER = "X-Sharer-User-Id";
+    // список вложенных частей ответа через запятую, например fields=booker,item
+    private static final String FIELDS_PATTERN = "^[a-zA-Z.,]*$";
+    // например UUID, сгенерированный клиентом на одну попытку создания
+    private static final String IDEMPOTENCY_KEY_PATTERN = "^[a-zA-Z0-9_-]{1,64}$";
 
-    public BookingController(BookingClient bookingClient) {
+    public BookingController(BookingClient bookingClient, BookingEventStreamClient bookingEventStreamClient) {
         this.bookingClient = bookingClient;
+        this.bookingEventStreamClient = bookingEventStreamClient;
     }
 
     @PostMapping
     public ResponseEntity<Object> addBooking(@RequestHeader(OWNER_HEADER) Long userId,
+                                             @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                             @Pattern(regexp = IDEMPOTENCY_KEY_PATTERN) String idempotencyKey,
                                              @Valid @RequestBody BookingAddDto bookingAddDto) {
         log.debug("Поступил запрос на создание бронирования item с id {} для ползователя с id {}.",
                 bookingAddDto.getItemId(), userId);
-        return bookingClient.addBooking(userId, bookingAddDto);
+        return bookingClient.addBooking(userId, bookingAddDto, idempotencyKey);
     }
 
     @PatchMapping("/{bookingId}")
@@ -53,18 +66,26 @@ public class BookingController {
     public ResponseEntity<Object> getAllUserBookings(@RequestParam(defaultValue = "ALL") String state,
                                                   @RequestHeader(OWNER_HEADER) Long userId,
                                                   @Valid @RequestParam(defaultValue = "0") @Min(value = 0) int from,
-                                                  @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size) {
+                                                  @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size,
+                                                  @RequestParam(required = false) @Pattern(regexp = FIELDS_PATTERN) String fields) {
         log.debug("Поступил запрос на получение всех бронирований пользователя {} со статусом {}", userId, state);
-        return bookingClient.getAllUserBookings(getBookingStatusFromString(state), userId, from, size);
+        return bookingClient.getAllUserBookings(getBookingStatusFromString(state), userId, from, size, fields);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllItemBookingsUser(@RequestHeader(OWNER_HEADER) Long userId,
                                                       @RequestParam(defaultValue = "ALL") String state,
                                                       @Valid @RequestParam(defaultValue = "0") @Min(value = 0) int from,
-                                                      @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size) {
+                                                      @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size,
+                                                      @RequestParam(required = false) @Pattern(regexp = FIELDS_PATTERN) String fields) {
         log.debug("Поступил запрос на получение всех бронировании от пользователя {} со статусом {}", userId, state);
-        return bookingClient.getAllItemBookingsUser(userId, getBookingStatusFromString(state), from, size);
+        return bookingClient.getAllItemBookingsUser(userId, getBookingStatusFromString(state), from, size, fields);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamItemBookingsUser(@RequestHeader(OWNER_HEADER) Long userId) {
+        log.debug("Поступил запрос на подписку на события бронирований вещей пользователя {}", userId);
+        return bookingEventStreamClient.subscribe(userId);
     }
 
     private static BookingStatus getBookingStatusFromString(String value) {
@@ -5,6 +5,7 @@ public enum BookingStatus {
     APPROVED("APPROVED"),
     REJECTED("REJECTED"),
     CANCELED("CANCELED"),
+    EXPIRED("EXPIRED"),
     CURRENT("CURRENT"),
     PAST("PAST"),
     ALL("ALL"),
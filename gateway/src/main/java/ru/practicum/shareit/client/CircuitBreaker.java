@@ -0,0 +1,168 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Автомат CLOSED -> OPEN -> HALF_OPEN -> CLOSED по доле ошибок в окне из последних N вызовов.
+// В HALF_OPEN пропускается ограниченное число пробных вызовов: одна ошибка снова открывает цепь.
+// Разрешение на вызов - номер поколения состояния: исход вызова, начатого до смены состояния
+// (например, успех в CLOSED, завершившийся после размыкания), не засчитывается новому состоянию.
+@Slf4j
+class CircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    static final long REJECTED = -1;
+
+    interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenPermittedCalls;
+    private final LongSupplier nanoClock;
+    private final TransitionListener listener;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+    private volatile State state = State.CLOSED;
+    private volatile long generation;
+    private int halfOpenPermits;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private int halfOpenSuccesses;
+    private long openedAt;
+
+    CircuitBreaker(String name, ServerClientProperties.CircuitBreaker properties, LongSupplier nanoClock,
+                   TransitionListener listener) {
+        this.name = name;
+        this.window = new boolean[properties.getSlidingWindowSize()];
+        this.minimumCalls = properties.getMinimumCalls();
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenPermittedCalls = properties.getHalfOpenPermittedCalls();
+        this.nanoClock = nanoClock;
+        this.listener = listener;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    // поколение для onSuccess/onFailure/onIgnored или REJECTED; в CLOSED - без блокировки
+    long tryAcquirePermission() {
+        long current = generation;
+        if (state == State.CLOSED) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.CLOSED) {
+                return generation;
+            }
+            if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+                return generation;
+            }
+            return REJECTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess(long permission) {
+        lock.lock();
+        try {
+            if (permission != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (++halfOpenSuccesses >= halfOpenPermittedCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onFailure(long permission) {
+        lock.lock();
+        try {
+            if (permission != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                transitionTo(State.OPEN);
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+                    transitionTo(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // вызов завершился без ответа о состоянии сервиса: пробное разрешение возвращается
+    void onIgnored(long permission) {
+        lock.lock();
+        try {
+            if (permission == generation && state == State.HALF_OPEN) {
+                halfOpenPermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State target) {
+        State previous = state;
+        switch (target) {
+            case OPEN:
+                openedAt = nanoClock.getAsLong();
+                break;
+            case HALF_OPEN:
+                halfOpenSuccesses = 0;
+                halfOpenPermits = halfOpenPermittedCalls;
+                break;
+            case CLOSED:
+                windowIndex = 0;
+                windowCalls = 0;
+                windowFailures = 0;
+                break;
+        }
+        state = target;
+        generation++;
+        log.warn("Circuit breaker клиента {}: {} -> {}", name, previous, target);
+        listener.onTransition(previous, target);
+    }
+}
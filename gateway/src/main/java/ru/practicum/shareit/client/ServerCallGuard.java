@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Изоляция вызовов сервера для одного клиента: bulkhead (семафор), circuit breaker
+// и повтор GET и POST с Idempotency-Key с экспоненциальной задержкой и случайным разбросом.
+@Slf4j
+public class ServerCallGuard {
+    private final String name;
+    private final Semaphore bulkhead;
+    private final long bulkheadMaxWaitNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final ServerClientProperties.Retry retry;
+    private final Counter rejectedByBulkhead;
+    private final Counter rejectedByCircuitBreaker;
+
+    ServerCallGuard(String name, ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        this.bulkheadMaxWaitNanos = properties.getBulkhead().getMaxWait().toNanos();
+        this.retry = properties.getRetry();
+        this.circuitBreaker = new CircuitBreaker(name, properties.getCircuitBreaker(), System::nanoTime,
+                (from, to) -> Counter.builder("shareit.gateway.circuit_breaker.transitions")
+                        .tag("client", name)
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry)
+                        .increment());
+        this.rejectedByBulkhead = Counter.builder("shareit.gateway.server_calls.rejected")
+                .tag("client", name)
+                .tag("reason", "bulkhead")
+                .register(meterRegistry);
+        this.rejectedByCircuitBreaker = Counter.builder("shareit.gateway.server_calls.rejected")
+                .tag("client", name)
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.circuit_breaker.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .tag("client", name)
+                .description("0 - CLOSED, 1 - OPEN, 2 - HALF_OPEN")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(HttpMethod method, Supplier<T> call) {
+        return execute(method, false, call);
+    }
+
+    // idempotent - запрос с Idempotency-Key: сервер вернёт тот же ответ, повтор безопасен
+    public <T> T execute(HttpMethod method, boolean idempotent, Supplier<T> call) {
+        if (!acquireBulkhead()) {
+            rejectedByBulkhead.increment();
+            throw new ServerUnavailableException("Превышено число одновременных запросов к сервису " + name);
+        }
+        try {
+            int maxAttempts = retry.isEnabled() && (method == HttpMethod.GET || idempotent) ?
+                    retry.getMaxAttempts() : 1;
+            for (int attempt = 1; ; attempt++) {
+                long permission = circuitBreaker.tryAcquirePermission();
+                if (permission == CircuitBreaker.REJECTED) {
+                    rejectedByCircuitBreaker.increment();
+                    throw new ServerUnavailableException("Сервис " + name + " временно недоступен");
+                }
+                try {
+                    T result = call.get();
+                    circuitBreaker.onSuccess(permission);
+                    return result;
+                } catch (HttpServerErrorException | ResourceAccessException e) {
+                    circuitBreaker.onFailure(permission);
+                    if (attempt >= maxAttempts) {
+                        if (e instanceof HttpServerErrorException) {
+                            throw e;
+                        }
+                        throw new ServerUnavailableException("Сервис " + name + " не отвечает: " + e.getMessage());
+                    }
+                    log.debug("Повтор {} запроса к сервису {} после ошибки: {}", attempt, name, e.getMessage());
+                    backoff(attempt);
+                } catch (HttpStatusCodeException e) {
+                    // 4xx - ответ бизнес-логики, сервер исправен
+                    circuitBreaker.onSuccess(permission);
+                    throw e;
+                } catch (RestClientException e) {
+                    // ответ не удалось прочитать (неизвестный тип содержимого, ошибка разбора) - сбой сервиса
+                    circuitBreaker.onFailure(permission);
+                    throw e;
+                } catch (RuntimeException | Error e) {
+                    // исход без вердикта о сервисе, но пробное разрешение HALF_OPEN не должно теряться
+                    circuitBreaker.onIgnored(permission);
+                    throw e;
+                }
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadMaxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // full jitter: случайная задержка от 0 до min(maxBackoff, initialBackoff * 2^(attempt - 1))
+    private void backoff(int attempt) {
+        long ceiling = Math.min(retry.getMaxBackoff().toNanos(),
+                retry.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerUnavailableException("Запрос к сервису " + name + " прерван");
+        }
+    }
+}
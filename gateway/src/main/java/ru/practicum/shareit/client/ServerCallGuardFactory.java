@@ -0,0 +1,19 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ServerCallGuardFactory {
+    private final ServerClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ServerCallGuardFactory(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ServerCallGuard forClient(String name) {
+        return new ServerCallGuard(name, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ToString
+@Component
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    private Bulkhead bulkhead = new Bulkhead();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Retry retry = new Retry();
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Bulkhead {
+        // одновременные запросы к серверу от одного клиента (items, bookings, users, requests)
+        private int maxConcurrentCalls = 50;
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class CircuitBreaker {
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenPermittedCalls = 3;
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Retry {
+        // повторяются GET и POST с Idempotency-Key - сервер вернёт тот же ответ
+        private boolean enabled = false;
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+    }
+}
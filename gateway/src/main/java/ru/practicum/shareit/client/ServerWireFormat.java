@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.IOException;
+import java.util.List;
+
+// Формат обмена gateway <-> server: json (по умолчанию) или smile.
+// Наружу gateway всегда отвечает JSON: ответы сервера читаются в Object и сериализуются заново.
+@Slf4j
+@Component
+public class ServerWireFormat {
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final MediaType contentType;
+    private final List<MediaType> accept;
+    private final ObjectMapper smileMapper;
+
+    public ServerWireFormat(@Value("${shareit-server.wire-format:json}") String wireFormat,
+                            MappingJackson2SmileHttpMessageConverter smileConverter) {
+        boolean smile = "smile".equalsIgnoreCase(wireFormat);
+        this.contentType = smile ? SMILE : MediaType.APPLICATION_JSON;
+        this.accept = smile ? List.of(SMILE, MediaType.APPLICATION_JSON) : List.of(MediaType.APPLICATION_JSON);
+        this.smileMapper = smileConverter.getObjectMapper();
+        log.info("Формат обмена с сервером: {}", contentType);
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public List<MediaType> getAccept() {
+        return accept;
+    }
+
+    // тело ошибки передается клиенту как есть, но Smile нужно сначала раскодировать
+    public Object decodeErrorBody(HttpStatusCodeException e) {
+        byte[] body = e.getResponseBodyAsByteArray();
+        MediaType bodyType = e.getResponseHeaders() != null ? e.getResponseHeaders().getContentType() : null;
+        if (body.length == 0 || bodyType == null || !SMILE.isCompatibleWith(bodyType)) {
+            return body;
+        }
+        try {
+            return smileMapper.readValue(body, Object.class);
+        } catch (IOException ex) {
+            log.warn("Не удалось разобрать тело ошибки в формате Smile: {}", ex.getMessage());
+            return body;
+        }
+    }
+}
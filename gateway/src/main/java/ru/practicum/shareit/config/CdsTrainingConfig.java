@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Обучающий запуск при сборке образа: приложение стартует, список загруженных классов
+// попадает в архив AppCDS, после чего процесс завершается.
+@Slf4j
+@Configuration
+@Profile("cds-training")
+public class CdsTrainingConfig {
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> exitAfterStartup() {
+        return event -> {
+            log.info("Обучающий запуск AppCDS завершён, приложение останавливается");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.ServerClientProperties;
+
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            log.info("Запросы Tomcat обрабатываются в виртуальных потоках");
+            protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+        };
+    }
+
+    // Пул соединений по умолчанию (5 на маршрут) стал бы узким местом при тысячах одновременных запросов.
+    @Bean
+    public RestTemplateCustomizer virtualThreadsRestTemplateCustomizer(
+            @Value("${shareit-server.max-connections}") int maxConnections, ServerClientProperties properties) {
+        return restTemplate -> {
+            HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(
+                    HttpClients.custom()
+                            .setMaxConnTotal(maxConnections)
+                            .setMaxConnPerRoute(maxConnections)
+                            .build());
+            requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+            requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+            restTemplate.setRequestFactory(requestFactory);
+        };
+    }
+}
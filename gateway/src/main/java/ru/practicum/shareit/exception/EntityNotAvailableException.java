@@ -2,6 +2,6 @@ package ru.practicum.shareit.exception;
 
 public class EntityNotAvailableException extends RuntimeException {
     public EntityNotAvailableException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -2,6 +2,6 @@ package ru.practicum.shareit.exception;
 
 public class EntityNotFoundException extends RuntimeException {
     public EntityNotFoundException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -2,6 +2,6 @@ package ru.practicum.shareit.exception;
 
 public class IncorrectTimeDateException extends RuntimeException {
     public IncorrectTimeDateException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.exception;
+
+// Ошибка сервера, которую шлюз не может передать как ResponseEntity (например, при открытии SSE-потока):
+// статус и тело ответа сервера возвращаются клиенту без изменений.
+public class ServerResponseException extends RuntimeException {
+    private final int status;
+    private final String body;
+
+    public ServerResponseException(final int status, final String body) {
+        super("Сервер ответил со статусом " + status + ": " + body);
+        this.status = status;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+}
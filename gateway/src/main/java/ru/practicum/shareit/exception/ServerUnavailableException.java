@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ServerUnavailableException extends RuntimeException {
+    public ServerUnavailableException(final String message) {
+        super(message);
+    }
+}
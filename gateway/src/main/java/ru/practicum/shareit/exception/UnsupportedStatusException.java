@@ -2,6 +2,6 @@ package ru.practicum.shareit.exception;
 
 public class UnsupportedStatusException extends RuntimeException {
     public UnsupportedStatusException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
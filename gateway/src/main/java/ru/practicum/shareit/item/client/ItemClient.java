@@ -8,26 +8,34 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerCallGuardFactory;
+import ru.practicum.shareit.client.ServerWireFormat;
 import ru.practicum.shareit.item.comment.dto.CommentAddDto;
 import ru.practicum.shareit.item.dto.ItemAddDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
+import java.util.Locale;
+
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ServerCallGuardFactory guards, ServerWireFormat wireFormat) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                guards.forClient("items"),
+                wireFormat
         );
     }
 
-    public ResponseEntity<Object> addItem(ItemAddDto itemAddDto, Long ownerId) {
-        return post("", ownerId, itemAddDto);
+    public ResponseEntity<Object> addItem(ItemAddDto itemAddDto, Long ownerId, String idempotencyKey) {
+        return post("", ownerId, itemAddDto, idempotencyKey);
     }
 
     public ResponseEntity<Object> updateItem(ItemUpdateDto itemUpdateDto, Long itemId, Long ownerId) {
@@ -38,8 +46,8 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, ownerId);
     }
 
-    public ResponseEntity<Object> getAllItemsByOwnerId(Long ownerId, Integer from, Integer size) {
-        String path = "?from=" + from + "&size=" + size;
+    public ResponseEntity<Object> getAllItemsByOwnerId(Long ownerId, Integer from, Integer size, String sort) {
+        String path = "?from=" + from + "&size=" + size + sortParam(sort);
         return get(path, ownerId, null);
     }
 
@@ -47,12 +55,34 @@ public class ItemClient extends BaseClient {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> getItemsBySearchQuery(String text, Integer from, Integer size) {
-        String path = "/search?text=" + text + "&from=" + from + "&size=" + size;
+    public ResponseEntity<Object> getItemsBySearchQuery(String text, LocalDateTime start, LocalDateTime end,
+                                                        Integer from, Integer size, String sort) {
+        String path = "/search?text=" + text + "&from=" + from + "&size=" + size + sortParam(sort);
+        if (start != null && end != null) {
+            path += "&start=" + start + "&end=" + end;
+        }
         return get(path, null, null);
     }
 
     public ResponseEntity<Object> addComment(CommentAddDto commentAddDto, Long authorId, Long itemId) {
         return post("/" + itemId + "/comment", authorId, commentAddDto);
     }
+
+    public ResponseEntity<Object> getItemComments(Long itemId, Long before, Integer size) {
+        String path = "/" + itemId + "/comments?size=" + size;
+        if (before != null) {
+            path += "&before=" + before;
+        }
+        return get(path, null, null);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        String path = "/" + itemId + "/availability?from=" + from + "&to=" + to;
+        return get(path, null, null);
+    }
+
+    // сервер принимает значение ItemSort в верхнем регистре
+    private static String sortParam(String sort) {
+        return sort != null ? "&sort=" + sort.toUpperCase(Locale.ROOT) : "";
+    }
 }
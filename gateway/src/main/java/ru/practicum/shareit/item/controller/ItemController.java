@@ -1,16 +1,23 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.exception.IncorrectTimeDateException;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.comment.dto.CommentAddDto;
 import ru.practicum.shareit.item.dto.ItemAddDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import java.time.LocalDateTime;
 
 @Slf4j
 @RestController
@@ -18,6 +25,8 @@ import javax.validation.constraints.Min;
 @Validated
 public class ItemController {
     private static final String OWNER_HEADER = "X-Sharer-User-Id";
+    private static final String SORT_PATTERN = "(?i)^(id|bookings|comments)$";
+    private static final String IDEMPOTENCY_KEY_PATTERN = "^[a-zA-Z0-9_-]{1,64}$";
     private final ItemClient itemClient;
 
     public ItemController(ItemClient itemClient) {
@@ -25,17 +34,19 @@ public class ItemController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@Valid @RequestBody ItemAddDto itemAddDto, @RequestHeader(OWNER_HEADER) Long ownerId) {
-        log.info("Получен POST-запрос к эндпоинту: '/items' на добавление item: " +
+    public ResponseEntity<Object> addItem(@Valid @RequestBody ItemAddDto itemAddDto, @RequestHeader(OWNER_HEADER) Long ownerId,
+                                          @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                          @Pattern(regexp = IDEMPOTENCY_KEY_PATTERN) String idempotencyKey) {
+        log.debug("Получен POST-запрос к эндпоинту: '/items' на добавление item: " +
                         "name: {}, description: {}, isAvailable: {}, ownerId: {}",
                 itemAddDto.getName(), itemAddDto.getDescription(), itemAddDto.getAvailable(), ownerId);
-        return itemClient.addItem(itemAddDto, ownerId);
+        return itemClient.addItem(itemAddDto, ownerId, idempotencyKey);
     }
 
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestBody ItemUpdateDto itemUpdateDto, @PathVariable Long itemId,
                                  @RequestHeader(OWNER_HEADER) Long ownerId) {
-        log.info("Получен PATCH-запрос к эндпоинту: '/items' на обновление item с id {} - name: {}," +
+        log.debug("Получен PATCH-запрос к эндпоинту: '/items' на обновление item с id {} - name: {}," +
                         "description: {}, isAvailable: {}, ownerId: {}",
                 itemId, itemUpdateDto.getName(), itemUpdateDto.getDescription(), itemUpdateDto.getAvailable(), ownerId);
         return itemClient.updateItem(itemUpdateDto, itemId, ownerId);
@@ -43,37 +54,69 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@PathVariable Long itemId, @RequestHeader(OWNER_HEADER) Long ownerId) {
-        log.info("Получен GET-запрос к эндпоинту: '/items/{itemId}' на получение item по id {}", itemId);
+        log.debug("Получен GET-запрос к эндпоинту: '/items/{itemId}' на получение item по id {}", itemId);
         return itemClient.getItemById(itemId, ownerId);
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllItemsByOwnerId(@RequestHeader(OWNER_HEADER) Long ownerId,
                                                  @Valid @RequestParam(defaultValue = "0") @Min(value = 0) int from,
-                                                 @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size) {
-        log.info("Получен GET-запрос к эндпоинту: '/items' на получение списка всех items для пользователя с id {}", ownerId);
-        return itemClient.getAllItemsByOwnerId(ownerId, from, size);
+                                                 @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size,
+                                                 @RequestParam(required = false) @Pattern(regexp = SORT_PATTERN) String sort) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items' на получение списка всех items для пользователя с id {}", ownerId);
+        return itemClient.getAllItemsByOwnerId(ownerId, from, size, sort);
     }
 
     @DeleteMapping("/{itemId}")
     public void deleteItemById(@PathVariable Long itemId) {
-        log.info("Получен DELETE-запрос к эндпоинту: '/items/{userId}' на удаление item по id {}", itemId);
+        log.debug("Получен DELETE-запрос к эндпоинту: '/items/{userId}' на удаление item по id {}", itemId);
         itemClient.deleteItemById(itemId);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> getItemsBySearchQuery(@RequestParam(required = false) String text,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime start,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime end,
                                                   @Valid @RequestParam(defaultValue = "0") @Min(value = 0) int from,
-                                                  @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size) {
-        log.info("Получен GET-запрос к эндпоинту: '/items/search' на получение списка всех items, содержащих подстроку {}", text);
-        return itemClient.getItemsBySearchQuery(text, from, size);
+                                                  @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size,
+                                                  @RequestParam(required = false) @Pattern(regexp = SORT_PATTERN) String sort) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items/search' на получение списка всех items, содержащих подстроку {}", text);
+        if ((start == null) != (end == null) || (start != null && !end.isAfter(start))) {
+            throw new IncorrectTimeDateException("Ошибка даты начала " + start + " и конца периода " + end);
+        }
+        return itemClient.getItemsBySearchQuery(text, start, end, from, size, sort);
     }
 
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@Valid @RequestBody CommentAddDto comment,
                                           @RequestHeader(OWNER_HEADER) Long authorId,
                                           @PathVariable Long itemId) {
-        log.info("Получен POST-запрос к эндпоинту: '/items//{itemId}/comment' на добавление комментария для вещи {}", itemId);
+        log.debug("Получен POST-запрос к эндпоинту: '/items//{itemId}/comment' на добавление комментария для вещи {}", itemId);
         return itemClient.addComment(comment, authorId, itemId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getItemComments(@PathVariable Long itemId,
+                                                  @RequestParam(required = false) @Positive Long before,
+                                                  @Valid @RequestParam(defaultValue = "10") @Min(value = 1)
+                                                  @Max(value = 100) int size) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items/{itemId}/comments' на получение комментариев вещи {} " +
+                "до комментария {}", itemId, before);
+        return itemClient.getItemComments(itemId, before, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable Long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items/{itemId}/availability' на получение занятости вещи {} " +
+                "с {} по {}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Журнал доступа: одна строка key=value на запрос вместо сообщений контроллеров на каждый вызов.
+// Путь пишется шаблоном эндпоинта, а не URI, чтобы строки группировались при разборе.
+// Для доли debug-sample-rate запросов включаются отладочные сообщения приложения (SampledDebugTurboFilter).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class AccessLogFilter extends OncePerRequestFilter {
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ru.practicum.shareit.access");
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String ALREADY_FILTERED_ATTRIBUTE = AccessLogFilter.class.getName() + ".FILTERED";
+
+    private final double debugSampleRate;
+
+    public AccessLogFilter(@Value("${shareit.logging.debug-sample-rate:0}") double debugSampleRate) {
+        this.debugSampleRate = debugSampleRate;
+    }
+
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean debug = debugSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < debugSampleRate;
+        if (debug) {
+            SampledDebugTurboFilter.enable();
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (debug) {
+                SampledDebugTurboFilter.disable();
+            }
+            if (ACCESS_LOG.isInfoEnabled()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                ACCESS_LOG.info("method={} path={} status={} duration_us={} user={}", request.getMethod(),
+                        pattern != null ? pattern : request.getRequestURI(), response.getStatus(),
+                        (System.nanoTime() - start) / 1000, request.getHeader(USER_ID_HEADER));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+// Отладочные сообщения приложения для выбранной доли запросов: при уровне INFO DEBUG-записи
+// пропускаются только в потоке запроса, отмеченного AccessLogFilter. Подключается в logback-spring.xml.
+public class SampledDebugTurboFilter extends TurboFilter {
+    private static final String APP_PACKAGE = "ru.practicum.shareit.";
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    static void enable() {
+        SAMPLED.set(Boolean.TRUE);
+    }
+
+    static void disable() {
+        SAMPLED.remove();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (level != Level.DEBUG || SAMPLED.get() == null || !logger.getName().startsWith(APP_PACKAGE)) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.ACCEPT;
+    }
+}
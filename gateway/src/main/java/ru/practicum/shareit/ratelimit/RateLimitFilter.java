@@ -0,0 +1,144 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Ограничение нагрузки на gateway: общий лимит одновременных запросов и корзины токенов
+// по X-Sharer-User-Id и группе эндпоинтов. Все структуры создаются при старте,
+// на пути пропущенного запроса память не выделяется.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"error\":\"Слишком много запросов, повторите позже\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OVERLOADED_BODY =
+            "{\"error\":\"Сервис перегружен, повторите позже\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String JSON_CONTENT_TYPE = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8";
+    private static final String ALREADY_FILTERED_ATTRIBUTE = RateLimitFilter.class.getName() + ".FILTERED";
+
+    private final boolean enabled;
+    private final int maxConcurrentRequests;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final String[] groupPrefixes;
+    private final TokenBucketTable[] buckets;
+    private final Counter[] rejectedByUserLimit;
+    private final Counter[] rejectedByConcurrency;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxConcurrentRequests = properties.getMaxConcurrentRequests();
+        int groupCount = properties.getGroups().size();
+        this.groupPrefixes = new String[groupCount];
+        this.buckets = new TokenBucketTable[groupCount];
+        this.rejectedByUserLimit = new Counter[groupCount];
+        this.rejectedByConcurrency = new Counter[groupCount];
+
+        int index = 0;
+        for (Map.Entry<String, RateLimitProperties.Limit> group : properties.getGroups().entrySet()) {
+            RateLimitProperties.Limit limit = group.getValue();
+            groupPrefixes[index] = "/" + group.getKey();
+            buckets[index] = new TokenBucketTable(properties.getStripes(), limit.getPermitsPerSecond(),
+                    limit.getBurst());
+            rejectedByUserLimit[index] = Counter.builder("shareit.gateway.rate_limit.rejected")
+                    .tag("group", group.getKey())
+                    .tag("reason", "user_limit")
+                    .register(meterRegistry);
+            rejectedByConcurrency[index] = Counter.builder("shareit.gateway.rate_limit.rejected")
+                    .tag("group", group.getKey())
+                    .tag("reason", "concurrency")
+                    .register(meterRegistry);
+            index++;
+        }
+        Gauge.builder("shareit.gateway.requests.in_flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+        log.info("Ограничение запросов: {}", properties);
+    }
+
+    // базовая реализация собирает имя атрибута конкатенацией на каждый запрос
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || group(request.getRequestURI()) < 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int group = group(request.getRequestURI());
+
+        if (inFlight.incrementAndGet() > maxConcurrentRequests) {
+            inFlight.decrementAndGet();
+            rejectedByConcurrency[group].increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, 1, OVERLOADED_BODY);
+            return;
+        }
+        try {
+            long wait = buckets[group].tryAcquire(key(request), System.nanoTime());
+            if (wait != TokenBucketTable.ALLOWED) {
+                rejectedByUserLimit[group].increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait) + 1,
+                        TOO_MANY_REQUESTS_BODY);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private int group(String uri) {
+        for (int i = 0; i < groupPrefixes.length; i++) {
+            String prefix = groupPrefixes[i];
+            if (uri.startsWith(prefix) && (uri.length() == prefix.length() || uri.charAt(prefix.length()) == '/')) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // без заголовка (регистрация пользователей) корзина выбирается по адресу клиента
+    private static long key(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (userId != null) {
+            try {
+                return Long.parseLong(userId);
+            } catch (NumberFormatException e) {
+                return userId.hashCode();
+            }
+        }
+        return ~(long) request.getRemoteAddr().hashCode();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(JSON_CONTENT_TYPE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+@Component
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // одновременно обрабатываемые запросы на весь gateway, сверх лимита - сразу 429
+    private int maxConcurrentRequests = 200;
+    // число корзин на группу эндпоинтов (степень двойки), пользователи с одинаковым хэшем делят корзину
+    private int stripes = 4096;
+    // ключ - первый сегмент пути: users, items, bookings, requests
+    private Map<String, Limit> groups = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Limit {
+        private double permitsPerSecond = 20;
+        private int burst = 40;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Корзины токенов по алгоритму GCRA: в ячейке хранится только теоретическое время прихода
+// следующего запроса (TAT), обновление - CAS без блокировок и без выделения памяти.
+class TokenBucketTable {
+    static final long ALLOWED = 0;
+
+    private final AtomicLongArray theoreticalArrivalTimes;
+    private final int mask;
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+
+    TokenBucketTable(int stripes, double permitsPerSecond, int burst) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.theoreticalArrivalTimes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+    }
+
+    // ALLOWED, если запрос пропущен, иначе - через сколько наносекунд можно повторить
+    long tryAcquire(long key, long nowNanos) {
+        int index = stripe(key);
+        while (true) {
+            long tat = theoreticalArrivalTimes.get(index);
+            long start = tat == 0 || tat - nowNanos < 0 ? nowNanos : tat;
+            long newTat = start + emissionIntervalNanos;
+            long wait = newTat - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivalTimes.compareAndSet(index, tat, newTat)) {
+                return ALLOWED;
+            }
+        }
+    }
+
+    private int stripe(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerCallGuardFactory;
+import ru.practicum.shareit.client.ServerWireFormat;
 import ru.practicum.shareit.request.dto.ItemRequestAddDto;
 
 @Service
@@ -15,12 +17,15 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ServerCallGuardFactory guards, ServerWireFormat wireFormat) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                guards.forClient("requests"),
+                wireFormat
         );
     }
 
@@ -37,6 +42,11 @@ public class ItemRequestClient extends BaseClient {
         return get(path, requesterId, null);
     }
 
+    public ResponseEntity<Object> getMatchingItemRequests(Long ownerId, int from, int size) {
+        String path = "/matching?from=" + from + "&size=" + size;
+        return get(path, ownerId, null);
+    }
+
     public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
@@ -26,13 +26,13 @@ public class ItemRequestController {
     @PostMapping
     public ResponseEntity<Object> addItemRequest(@Valid @RequestBody ItemRequestAddDto itemRequestAddDto,
                                          @RequestHeader(REQUESTER_HEADER) Long requesterId) {
-        log.info("Получен POST-запрос к эндпоинту: '/requests' на добавление запроса от ползователя {}", requesterId);
+        log.debug("Получен POST-запрос к эндпоинту: '/requests' на добавление запроса от ползователя {}", requesterId);
         return itemRequestClient.addItemRequest(itemRequestAddDto, requesterId);
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllItemRequestsByUserId(@RequestHeader(REQUESTER_HEADER) Long requesterId) {
-        log.info("Получен GET-запрос к эндпоинту: '/requests' на просмотр своих запросов от ползователя {}", requesterId);
+        log.debug("Получен GET-запрос к эндпоинту: '/requests' на просмотр своих запросов от ползователя {}", requesterId);
         return itemRequestClient.getAllItemRequestsByUserId(requesterId);
     }
 
@@ -40,14 +40,22 @@ public class ItemRequestController {
     public ResponseEntity<Object> getAllItemRequests(@RequestHeader(REQUESTER_HEADER) Long requesterId,
                                                       @Valid @RequestParam(defaultValue = "0") @Min(value = 0) int from,
                                                       @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size) {
-        log.info("Получен GET-запрос к эндпоинту: '/requests/all' на просмотр всех запросов от ползователя {}", requesterId);
+        log.debug("Получен GET-запрос к эндпоинту: '/requests/all' на просмотр всех запросов от ползователя {}", requesterId);
         return itemRequestClient.getAllItemRequests(requesterId, from, size);
     }
 
+    @GetMapping("/matching")
+    public ResponseEntity<Object> getMatchingItemRequests(@RequestHeader(REQUESTER_HEADER) Long ownerId,
+                                                          @Valid @RequestParam(defaultValue = "0") @Min(value = 0) int from,
+                                                          @Valid @RequestParam(defaultValue = "10") @Min(value = 1) int size) {
+        log.debug("Получен GET-запрос к эндпоинту: '/requests/matching' на подбор запросов для владельца {}", ownerId);
+        return itemRequestClient.getMatchingItemRequests(ownerId, from, size);
+    }
+
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getItemRequestById(@RequestHeader(REQUESTER_HEADER) Long userId,
                                                 @PathVariable Long requestId) {
-        log.info("Получен GET-запрос к эндпоинту: '/requests/{requestId}' " +
+        log.debug("Получен GET-запрос к эндпоинту: '/requests/{requestId}' " +
                 "на просмотр запроса с id {} от ползователя {}", requestId, userId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
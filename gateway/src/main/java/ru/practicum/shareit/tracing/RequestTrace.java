@@ -0,0 +1,52 @@
+package ru.practicum.shareit.tracing;
+
+// Трасса текущего запроса к gateway. Держится в ThreadLocal, чтобы клиенты сервера
+// не получали её параметром; время вызовов сервера копится для итоговой строки лога.
+public final class RequestTrace {
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final TraceContext context;
+    private long serverNanos;
+    private int serverCalls;
+
+    private RequestTrace(TraceContext context) {
+        this.context = context;
+    }
+
+    static RequestTrace start(TraceContext context) {
+        RequestTrace trace = new RequestTrace(context);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // заголовок для исходящего вызова: решение о выборке передаётся серверу всегда,
+    // иначе он выбирал бы запросы сам и трассы gateway и сервера не совпадали бы
+    public static String outgoingTraceparent() {
+        RequestTrace trace = CURRENT.get();
+        return trace != null ? trace.context.child().toTraceparent() : null;
+    }
+
+    public static void recordServerCall(long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.serverNanos += nanos;
+            trace.serverCalls++;
+        }
+    }
+
+    TraceContext getContext() {
+        return context;
+    }
+
+    long getServerNanos() {
+        return serverNanos;
+    }
+
+    int getServerCalls() {
+        return serverCalls;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/tracing - текущая доля трассируемых запросов,
+// POST /actuator/tracing {"sampleRate": 0.05} - изменить её без перезапуска.
+// Gateway принимает решение о выборке за всю трассу, сервер его наследует.
+@Component
+@Endpoint(id = "tracing")
+public class TracingEndpoint {
+    private final TracingFilter filter;
+
+    public TracingEndpoint(TracingFilter filter) {
+        this.filter = filter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> sampleRate() {
+        return Map.of("sampleRate", filter.getSampleRate());
+    }
+
+    @WriteOperation
+    public Map<String, Object> sampleRate(double sampleRate) {
+        filter.setSampleRate(sampleRate);
+        return Map.of("sampleRate", filter.getSampleRate());
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Начало трассы запроса: входящий traceparent продолжается, иначе запрос попадает в выборку
+// с вероятностью shareit.tracing.sample-rate. Контекст передаётся серверу в каждом вызове,
+// по выбранным запросам пишется строка с общим временем и временем ожидания сервера.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+    private static final String ALREADY_FILTERED_ATTRIBUTE = TracingFilter.class.getName() + ".FILTERED";
+
+    private final boolean enabled;
+    private volatile double sampleRate;
+
+    public TracingFilter(@Value("${shareit.tracing.enabled:true}") boolean enabled,
+                         @Value("${shareit.tracing.sample-rate:0.01}") double sampleRate) {
+        this.enabled = enabled;
+        setSampleRate(sampleRate);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Доля трассируемых запросов должна быть от 0 до 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        TraceContext incoming = TraceContext.parse(request.getHeader(TraceContext.HEADER));
+        TraceContext context = incoming != null
+                ? incoming.child()
+                : TraceContext.newRoot(ThreadLocalRandom.current().nextDouble() < sampleRate);
+        long start = System.nanoTime();
+        RequestTrace trace = RequestTrace.start(context);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.clear();
+            if (context.isSampled()) {
+                log.info("Трасса {}: {} {} - статус {}, {} мкс, сервер {} мкс за {} вызов(ов)",
+                        context.getTraceId(), request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        (System.nanoTime() - start) / 1000, trace.getServerNanos() / 1000, trace.getServerCalls());
+            }
+        }
+    }
+}
@@ -24,33 +24,33 @@ public class UserController {
 
     @PostMapping
     public ResponseEntity<Object> addUser(@Valid @RequestBody UserAddDto userAddDto) {
-        log.info("Получен POST-запрос к эндпоинту: '/users' на добавление пользователя: " +
+        log.debug("Получен POST-запрос к эндпоинту: '/users' на добавление пользователя: " +
                 "name: |{}, email: {}", userAddDto.getName(), userAddDto.getEmail());
         return userClient.addUser(userAddDto);
     }
 
     @PatchMapping("/{userId}")
     public ResponseEntity<Object> updateUser(@Valid @RequestBody UserUpdateDto userUpdateDto, @PathVariable Long userId) {
-        log.info("Получен PATCH-запрос к эндпоинту: '/users' на обновление пользователя с id {}: {}",
-                userId, userUpdateDto.toString());
+        log.debug("Получен PATCH-запрос к эндпоинту: '/users' на обновление пользователя с id {}: {}",
+                userId, userUpdateDto);
         return userClient.updateUser(userUpdateDto, userId);
     }
 
     @GetMapping("/{userId}")
     public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
-        log.info("Получен GET-запрос к эндпоинту: '/users/{userId}' на получение пользователя по id {}", userId);
+        log.debug("Получен GET-запрос к эндпоинту: '/users/{userId}' на получение пользователя по id {}", userId);
         return userClient.getUserById(userId);
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllUsers() {
-        log.info("Получен GET-запрос к эндпоинту: '/users' на получение списка всех пользователей");
+        log.debug("Получен GET-запрос к эндпоинту: '/users' на получение списка всех пользователей");
         return userClient.getAllUsers();
     }
 
     @DeleteMapping("/{userId}")
     public void deleteUserById(@PathVariable Long userId) {
-        log.info("Получен DELETE-запрос к эндпоинту: '/users/{userId}' на удаление пользователя по id {}", userId);
+        log.debug("Получен DELETE-запрос к эндпоинту: '/users/{userId}' на удаление пользователя по id {}", userId);
         userClient.deleteUserById(userId);
     }
 }
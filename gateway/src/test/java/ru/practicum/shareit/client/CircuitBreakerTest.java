@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final long[] now = {0};
+    private final List<String> transitions = new ArrayList<>();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    public void setUp() {
+        ServerClientProperties.CircuitBreaker properties = new ServerClientProperties.CircuitBreaker();
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenPermittedCalls(2);
+        circuitBreaker = new CircuitBreaker("test", properties, () -> now[0],
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    @Test
+    public void shouldOpenOnlyAfterMinimumCallsAndFailureRate() {
+        succeedCalls(1);
+        failCalls(2);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        failCalls(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquirePermission());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    public void shouldSlideWindowOverLastCalls() {
+        failCalls(1);
+        succeedCalls(4);
+        failCalls(1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void shouldCloseAfterPermittedProbesSucceed() {
+        open();
+        now[0] = Duration.ofSeconds(10).toNanos();
+
+        long first = circuitBreaker.tryAcquirePermission();
+        long second = circuitBreaker.tryAcquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onSuccess(first);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess(second);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    public void shouldReopenOnProbeFailure() {
+        open();
+        now[0] = Duration.ofSeconds(10).toNanos();
+
+        circuitBreaker.onFailure(circuitBreaker.tryAcquirePermission());
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquirePermission());
+        now[0] += Duration.ofSeconds(10).toNanos();
+        assertNotEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void shouldReturnProbePermitWhenOutcomeIsIgnored() {
+        open();
+        now[0] = Duration.ofSeconds(10).toNanos();
+        long first = circuitBreaker.tryAcquirePermission();
+        long second = circuitBreaker.tryAcquirePermission();
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onIgnored(first);
+        long third = circuitBreaker.tryAcquirePermission();
+
+        assertNotEquals(CircuitBreaker.REJECTED, third);
+        circuitBreaker.onSuccess(second);
+        circuitBreaker.onSuccess(third);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void shouldIgnoreOutcomeOfCallStartedBeforeStateChange() {
+        long startedWhileClosed = circuitBreaker.tryAcquirePermission();
+        open();
+        now[0] = Duration.ofSeconds(10).toNanos();
+        long probe = circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onSuccess(startedWhileClosed);
+        circuitBreaker.onFailure(startedWhileClosed);
+        circuitBreaker.onSuccess(probe);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    private void open() {
+        failCalls(4);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void failCalls(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.onFailure(circuitBreaker.tryAcquirePermission());
+        }
+    }
+
+    private void succeedCalls(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.onSuccess(circuitBreaker.tryAcquirePermission());
+        }
+    }
+}
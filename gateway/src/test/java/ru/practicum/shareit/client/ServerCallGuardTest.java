@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerCallGuardTest {
+    private ServerClientProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ServerClientProperties();
+        properties.getCircuitBreaker().setSlidingWindowSize(1);
+        properties.getCircuitBreaker().setMinimumCalls(1);
+        properties.getCircuitBreaker().setHalfOpenPermittedCalls(1);
+    }
+
+    @Test
+    public void shouldKeepProbePermitWhenCallFailsWithUnexpectedException() {
+        properties.getCircuitBreaker().setOpenDuration(Duration.ZERO);
+        ServerCallGuard guard = new ServerCallGuard("test", properties, new SimpleMeterRegistry());
+
+        assertThrows(ServerUnavailableException.class, () -> guard.execute(HttpMethod.GET, () -> {
+            throw new ResourceAccessException("timeout");
+        }));
+        assertThrows(IllegalStateException.class, () -> guard.execute(HttpMethod.GET, () -> {
+            throw new IllegalStateException("bug");
+        }));
+
+        assertEquals("ok", guard.execute(HttpMethod.GET, () -> "ok"));
+    }
+
+    @Test
+    public void shouldCountUnreadableResponseAsFailure() {
+        ServerCallGuard guard = new ServerCallGuard("test", properties, new SimpleMeterRegistry());
+
+        assertThrows(RestClientException.class, () -> guard.execute(HttpMethod.GET, () -> {
+            throw new RestClientException("unknown content type");
+        }));
+
+        assertThrows(ServerUnavailableException.class, () -> guard.execute(HttpMethod.GET, () -> "ok"));
+    }
+
+    @Test
+    public void shouldCountClientErrorAsSuccess() {
+        ServerCallGuard guard = new ServerCallGuard("test", properties, new SimpleMeterRegistry());
+
+        assertThrows(HttpClientErrorException.class, () -> guard.execute(HttpMethod.GET, () -> {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        }));
+
+        assertEquals("ok", guard.execute(HttpMethod.GET, () -> "ok"));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class RateLimitFilterTest {
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPermitsPerSecond(1);
+        limit.setBurst(2);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("items", limit);
+        meterRegistry = new SimpleMeterRegistry();
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilters(new RateLimitFilter(properties, meterRegistry))
+                .build();
+    }
+
+    @Test
+    public void shouldRejectUserOverLimitWithRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/items").header("X-Sharer-User-Id", 1))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error", is("Слишком много запросов, повторите позже")));
+
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.rate_limit.rejected")
+                .tag("group", "items")
+                .tag("reason", "user_limit")
+                .counter().count());
+    }
+
+    @Test
+    public void shouldLimitEachUserSeparately() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1));
+        }
+
+        mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldNotLimitPathsOutsideGroups() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/itemsearch").header("X-Sharer-User-Id", 1))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @RestController
+    static class TestController {
+        @GetMapping({"/items", "/items/1", "/itemsearch"})
+        public String ok() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+    private static final long START = TimeUnit.SECONDS.toNanos(1);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void shouldAllowBurstAndThenReject() {
+        TokenBucketTable table = new TokenBucketTable(16, 10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(TokenBucketTable.ALLOWED, table.tryAcquire(1L, START));
+        }
+
+        assertEquals(INTERVAL, table.tryAcquire(1L, START));
+    }
+
+    @Test
+    public void shouldRefillOnePermitPerInterval() {
+        TokenBucketTable table = new TokenBucketTable(16, 10, 5);
+        exhaust(table, 1L, 5);
+
+        assertEquals(TokenBucketTable.ALLOWED, table.tryAcquire(1L, START + INTERVAL));
+        assertEquals(INTERVAL, table.tryAcquire(1L, START + INTERVAL));
+        assertEquals(INTERVAL / 2, table.tryAcquire(1L, START + INTERVAL + INTERVAL / 2));
+
+        long idle = START + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(TokenBucketTable.ALLOWED, table.tryAcquire(1L, idle));
+        }
+        assertNotEquals(TokenBucketTable.ALLOWED, table.tryAcquire(1L, idle));
+    }
+
+    @Test
+    public void shouldKeepSeparateBucketsForKeysInDifferentStripes() {
+        TokenBucketTable table = new TokenBucketTable(4096, 10, 5);
+        exhaust(table, 1L, 5);
+
+        assertNotEquals(TokenBucketTable.ALLOWED, table.tryAcquire(1L, START));
+        assertEquals(TokenBucketTable.ALLOWED, table.tryAcquire(2L, START));
+    }
+
+    @Test
+    public void shouldNotAdmitMoreThanBurstUnderContentionOnOneStripe() throws Exception {
+        int burst = 100;
+        int threads = 8;
+        TokenBucketTable table = new TokenBucketTable(16, 10, burst);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (table.tryAcquire(7L, START) == TokenBucketTable.ALLOWED) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(burst, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void exhaust(TokenBucketTable table, long key, int burst) {
+        for (int i = 0; i < burst; i++) {
+            table.tryAcquire(key, START);
+        }
+    }
+}
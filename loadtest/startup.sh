@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Время старта gateway и server: без архива AppCDS, с архивом, с профилем lazy и с обоими.
+# Берётся "JVM running for" из лога Spring Boot, по каждому варианту медиана из RUNS запусков.
+# Server стартует на H2 (профиль ci), чтобы не зависеть от Postgres.
+# Аргументы - образы для замера (по умолчанию оба), образ пересобирается из target/*.jar модуля.
+# Из сборки - по модулю на фазе verify:
+#   mvn -B -Pstartup-benchmark verify
+# Вручную:
+#   mvn -B package && ./loadtest/startup.sh [gateway] [server]
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+OUT_DIR=${OUT_DIR:-loadtest/results}
+
+mkdir -p "$OUT_DIR"
+
+# $1 - образ, $2 - профили, $3 - использовать ли архив AppCDS
+startup_seconds() {
+  local image=$1 profiles=$2 cds=$3 container share
+  if [ "$cds" = "on" ]; then
+    share="-XX:SharedArchiveFile=/app/app.jsa"
+  else
+    share="-Xshare:off"
+  fi
+  container=$(docker run -d -e SPRING_PROFILES_ACTIVE="$profiles" --entrypoint java "$image" \
+    -Xshare:auto "$share" @/app/classpath.args @/app/main.args)
+  until docker logs "$container" 2>&1 | grep -q 'JVM running for'; do
+    if [ "$(docker inspect -f '{{.State.Running}}' "$container")" != "true" ]; then
+      docker logs "$container" >&2
+      docker rm -f "$container" > /dev/null
+      return 1
+    fi
+    sleep 0.2
+  done
+  docker logs "$container" 2>&1 | grep -m1 -oE 'JVM running for [0-9.]+' | awk '{print $4}'
+  docker rm -f "$container" > /dev/null
+}
+
+median() {
+  sort -n | awk '{a[NR]=$1} END {print (NR % 2 ? a[(NR + 1) / 2] : (a[NR / 2] + a[NR / 2 + 1]) / 2)}'
+}
+
+# профиль, под которым образ стартует без внешних зависимостей
+base_profile() {
+  case $1 in
+    gateway) echo default ;;
+    server) echo ci ;;
+    *) echo "Неизвестный образ: $1" >&2; return 1 ;;
+  esac
+}
+
+images=("$@")
+if [ ${#images[@]} -eq 0 ]; then
+  images=(gateway server)
+fi
+
+for image in "${images[@]}"; do
+  base_profile "$image" > /dev/null
+  docker compose build "$image"
+done
+
+for image in "${images[@]}"; do
+  base=$(base_profile "$image")
+  for cds in off on; do
+    for profiles in "$base" "$base,lazy"; do
+      result=$(for i in $(seq 1 "$RUNS"); do startup_seconds "$image" "$profiles" "$cds"; done | median)
+      echo "$image cds=$cds profiles=$profiles: ${result}s"
+    done
+  done | tee "$OUT_DIR/startup-$image.txt"
+done
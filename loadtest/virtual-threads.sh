@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Нагрузочный тест: число потоков и занятая куча gateway/server при 5000 одновременных соединений.
+# Требуется wrk (https://github.com/wg/wrk) и запущенные через docker compose контейнеры.
+# Все запросы идут от одного пользователя, поэтому ограничение запросов gateway на время теста
+# отключается: SHAREIT_RATE_LIMIT_ENABLED=false.
+#
+# Платформенные потоки (по умолчанию):
+#   mvn -B package && SHAREIT_RATE_LIMIT_ENABLED=false docker compose up -d --build
+#   ./loadtest/virtual-threads.sh platform
+# Виртуальные потоки:
+#   mvn -B -Pvirtual-threads package
+#   SHAREIT_RATE_LIMIT_ENABLED=false JAVA_VERSION=21 SPRING_PROFILES_ACTIVE=virtual-threads JAVA_TOOL_OPTIONS=-Djdk.tracePinnedThreads=short \
+#     docker compose up -d --build
+#   ./loadtest/virtual-threads.sh virtual
+set -euo pipefail
+
+LABEL=${1:-run}
+GATEWAY_URL=${GATEWAY_URL:-http://localhost:8080}
+CONNECTIONS=${CONNECTIONS:-5000}
+THREADS=${THREADS:-8}
+DURATION=${DURATION:-60s}
+OUT_DIR=${OUT_DIR:-loadtest/results}
+
+mkdir -p "$OUT_DIR"
+
+stats() {
+  local container=$1
+  local threads heap
+  threads=$(docker exec "$container" jcmd 1 Thread.print | grep -c '^"' || true)
+  heap=$(docker exec "$container" jcmd 1 GC.heap_info | grep -m1 -oE 'used [0-9]+K' || true)
+  echo "$container threads=$threads heap_$heap rss=$(docker stats --no-stream --format '{{.MemUsage}}' "$container")"
+}
+
+# данные для GET /items: владелец с десятком вещей
+USER_ID=$(curl -sf -X POST "$GATEWAY_URL/users" -H 'Content-Type: application/json' \
+  -d "{\"name\":\"load\",\"email\":\"load-$(date +%s%N)@mail.ru\"}" | grep -oE '"id":[0-9]+' | head -1 | cut -d: -f2)
+for i in $(seq 1 10); do
+  curl -sf -X POST "$GATEWAY_URL/items" -H 'Content-Type: application/json' -H "X-Sharer-User-Id: $USER_ID" \
+    -d "{\"name\":\"item $i\",\"description\":\"load test\",\"available\":true}" > /dev/null
+done
+
+{
+  echo "== $LABEL: до нагрузки"
+  stats shareit-gateway
+  stats shareit-server
+
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --timeout 30s \
+    -H "X-Sharer-User-Id: $USER_ID" "$GATEWAY_URL/items" > "$OUT_DIR/$LABEL-wrk.txt" &
+  WRK_PID=$!
+  sleep 30
+
+  echo "== $LABEL: под нагрузкой $CONNECTIONS соединений"
+  stats shareit-gateway
+  stats shareit-server
+
+  wait $WRK_PID
+  cat "$OUT_DIR/$LABEL-wrk.txt"
+} | tee "$OUT_DIR/$LABEL.txt"
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class AvailabilityInterval {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
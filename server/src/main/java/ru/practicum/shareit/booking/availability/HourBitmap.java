@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.Arrays;
+
+// Разреженная карта занятости по часам: блоки по 64 часа в одном long, хранятся только непустые блоки.
+// Не потокобезопасна, блокировка - в ItemAvailabilityIndex.
+class HourBitmap {
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_MASK = 63;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final long NO_RUN = Long.MIN_VALUE;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] words = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void set(long fromHour, long toHour) {
+        long hour = fromHour;
+        while (hour < toHour) {
+            long key = hour >> BLOCK_SHIFT;
+            int fromBit = (int) (hour & BLOCK_MASK);
+            int toBit = (int) Math.min(64, toHour - (key << BLOCK_SHIFT));
+            long mask = toBit == 64 ? -1L << fromBit : ((1L << toBit) - 1) & (-1L << fromBit);
+            words[blockIndex(key)] |= mask;
+            hour = (key + 1) << BLOCK_SHIFT;
+        }
+    }
+
+    boolean isSet(long hour) {
+        int index = Arrays.binarySearch(keys, 0, size, hour >> BLOCK_SHIFT);
+        return index >= 0 && (words[index] & (1L << (hour & BLOCK_MASK))) != 0;
+    }
+
+    void forEachRun(long fromHour, long toHour, RunConsumer consumer) {
+        int index = Arrays.binarySearch(keys, 0, size, fromHour >> BLOCK_SHIFT);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        long runStart = NO_RUN;
+        long runEnd = NO_RUN;
+        for (; index < size; index++) {
+            long blockStart = keys[index] << BLOCK_SHIFT;
+            if (blockStart >= toHour) {
+                break;
+            }
+            long word = words[index];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                long shifted = ~word >>> bit;
+                int length = shifted == 0 ? 64 - bit : Long.numberOfTrailingZeros(shifted);
+                long start = Math.max(blockStart + bit, fromHour);
+                long end = Math.min(blockStart + bit + length, toHour);
+                if (start < end) {
+                    if (start == runEnd) {
+                        runEnd = end;
+                    } else {
+                        if (runStart != NO_RUN) {
+                            consumer.accept(runStart, runEnd);
+                        }
+                        runStart = start;
+                        runEnd = end;
+                    }
+                }
+                word = bit + length == 64 ? 0 : word & (-1L << (bit + length));
+            }
+        }
+        if (runStart != NO_RUN) {
+            consumer.accept(runStart, runEnd);
+        }
+    }
+
+    int blockCount() {
+        return size;
+    }
+
+    private int blockIndex(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            return index;
+        }
+        index = -index - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            words = Arrays.copyOf(words, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(words, index, words, index + 1, size - index);
+        keys[index] = key;
+        words[index] = 0L;
+        size++;
+        return index;
+    }
+
+    @FunctionalInterface
+    interface RunConsumer {
+        void accept(long fromHour, long toHour);
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Карты занятости по часам для вещей, у которых недавно запрашивали доступность.
+// В памяти не больше max-items карт: при переполнении вытесняется та, к которой дольше всего
+// не обращались, и при следующем запросе она заново читается из БД.
+@Slf4j
+@Component
+public class ItemAvailabilityIndex {
+    private static final long SECONDS_IN_HOUR = 3600;
+
+    private final BookingRepository bookingRepository;
+    private final int maxItems;
+    // порядок доступа: вытесняется карта, к которой дольше всего не обращались
+    private final ReentrantLock occupanciesLock = new ReentrantLock();
+    private final LinkedHashMap<Long, Occupancy> occupancies = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Occupancy> eldest) {
+            return size() > maxItems;
+        }
+    };
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+    }
+
+    public List<AvailabilityInterval> getBusyIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Occupancy occupancy;
+        occupanciesLock.lock();
+        try {
+            occupancy = occupancies.computeIfAbsent(itemId, id -> new Occupancy());
+        } finally {
+            occupanciesLock.unlock();
+        }
+        List<AvailabilityInterval> busy = new ArrayList<>();
+        occupancy.lock.lock();
+        try {
+            // загрузка из БД под замком вещи, а не под общим замком карты: запросы по другим вещам
+            // не ждут, пока читаются бронирования этой. Замки - ReentrantLock, а не synchronized:
+            // монитор закрепил бы виртуальный поток за несущим на время запроса
+            if (occupancy.bitmap == null) {
+                occupancy.bitmap = load(itemId);
+            }
+            occupancy.bitmap.forEachRun(floorHour(from), ceilHour(to), (fromHour, toHour) ->
+                    busy.add(new AvailabilityInterval(max(toDateTime(fromHour), from), min(toDateTime(toHour), to))));
+        } finally {
+            occupancy.lock.unlock();
+        }
+        return busy;
+    }
+
+    public List<AvailabilityInterval> getFreeIntervals(List<AvailabilityInterval> busy,
+                                                       LocalDateTime from, LocalDateTime to) {
+        List<AvailabilityInterval> free = new ArrayList<>(busy.size() + 1);
+        LocalDateTime cursor = from;
+        for (AvailabilityInterval interval : busy) {
+            if (cursor.isBefore(interval.getStart())) {
+                free.add(new AvailabilityInterval(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new AvailabilityInterval(cursor, to));
+        }
+        return free;
+    }
+
+    public void markBusy(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyBusy(itemId, start, end);
+                }
+            });
+        } else {
+            applyBusy(itemId, start, end);
+        }
+    }
+
+    public void evict(Long itemId) {
+        occupanciesLock.lock();
+        try {
+            occupancies.remove(itemId);
+        } finally {
+            occupanciesLock.unlock();
+        }
+    }
+
+    int size() {
+        occupanciesLock.lock();
+        try {
+            return occupancies.size();
+        } finally {
+            occupanciesLock.unlock();
+        }
+    }
+
+    private void applyBusy(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Occupancy occupancy;
+        occupanciesLock.lock();
+        try {
+            // get в порядке доступа тоже сдвигает карту в конец: она только что изменилась
+            occupancy = occupancies.get(itemId);
+        } finally {
+            occupanciesLock.unlock();
+        }
+        if (occupancy == null) {
+            return;
+        }
+        occupancy.lock.lock();
+        try {
+            // еще не загруженная карта прочитает закоммиченное бронирование из БД сама
+            if (occupancy.bitmap != null) {
+                occupancy.bitmap.set(floorHour(start), ceilHour(end));
+            }
+        } finally {
+            occupancy.lock.unlock();
+        }
+    }
+
+    private HourBitmap load(Long itemId) {
+        log.debug("Индекс занятости - загрузка подтвержденных бронирований item с id {}", itemId);
+        HourBitmap bitmap = new HourBitmap();
+        for (Booking booking : bookingRepository.findAllByItemIdAndStatus(itemId, BookingStatus.APPROVED)) {
+            bitmap.set(floorHour(booking.getStart()), ceilHour(booking.getEnd()));
+        }
+        return bitmap;
+    }
+
+    static long floorHour(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), SECONDS_IN_HOUR);
+    }
+
+    static long ceilHour(LocalDateTime dateTime) {
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+        long hour = Math.floorDiv(seconds, SECONDS_IN_HOUR);
+        return hour * SECONDS_IN_HOUR == seconds && dateTime.getNano() == 0 ? hour : hour + 1;
+    }
+
+    private static LocalDateTime toDateTime(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * SECONDS_IN_HOUR, 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static class Occupancy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private HourBitmap bitmap;
+    }
+}
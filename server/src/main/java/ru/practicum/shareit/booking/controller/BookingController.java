@@ -1,11 +1,17 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.events.BookingEventHub;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.FieldSet;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+import ru.practicum.shareit.sql.StatementBudget;
 
 import java.util.List;
 
@@ -14,18 +20,26 @@ import java.util.List;
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
+    private final IdempotencyStore idempotencyStore;
+    private final BookingEventHub bookingEventHub;
     private static final String OWNER_HEADER = "X-Sharer-User-Id";
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, IdempotencyStore idempotencyStore,
+                             BookingEventHub bookingEventHub) {
         this.bookingService = bookingService;
+        this.idempotencyStore = idempotencyStore;
+        this.bookingEventHub = bookingEventHub;
     }
 
     @PostMapping
     public BookingLogDto addBooking(@RequestHeader(OWNER_HEADER) Long userId,
+                                    @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+                                    String idempotencyKey,
                                     @RequestBody BookingAddDto bookingAddDto) {
         log.debug("Поступил запрос на создание бронирования item с id {} для ползователя с id {}.",
                 bookingAddDto.getItemId(), userId);
-        return bookingService.addBooking(userId, bookingAddDto);
+        return idempotencyStore.execute("POST /bookings", userId, idempotencyKey, bookingAddDto,
+                BookingLogDto.class, () -> bookingService.addBooking(userId, bookingAddDto));
     }
 
     @PatchMapping("/{bookingId}")
@@ -43,21 +57,34 @@ public class BookingController {
         return bookingService.getBookingById(userId, bookingId);
     }
 
+    @StatementBudget(6)
     @GetMapping
     public List<BookingLogDto> getAllUserBookings(@RequestParam(defaultValue = "ALL") String state,
                                                   @RequestHeader(OWNER_HEADER) Long userId,
                                                   @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "10") int size) {
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false) String fields) {
         log.debug("Поступил запрос на получение всех бронирований пользователя {} со статусом {}", userId, state);
-        return bookingService.getAllUserBookings(BookingStatus.valueOf(state), userId, from, size);
+        return bookingService.getAllUserBookings(BookingStatus.valueOf(state), userId, from, size,
+                FieldSet.parse(fields));
     }
 
+    @StatementBudget(6)
     @GetMapping("/owner")
     public List<BookingLogDto> getAllItemBookingsUser(@RequestHeader(OWNER_HEADER) Long userId,
                                                       @RequestParam(defaultValue = "ALL") String state,
                                                       @RequestParam(defaultValue = "0") int from,
-                                                      @RequestParam(defaultValue = "10") int size) {
+                                                      @RequestParam(defaultValue = "10") int size,
+                                                      @RequestParam(required = false) String fields) {
         log.debug("Поступил запрос на получение всех бронировании от пользователя {} со статусом {}", userId, state);
-        return bookingService.getAllItemBookingsUser(userId, BookingStatus.valueOf(state), from, size);
+        return bookingService.getAllItemBookingsUser(userId, BookingStatus.valueOf(state), from, size,
+                FieldSet.parse(fields));
+    }
+
+    // события created/approved/rejected по вещам владельца вместо опроса списка WAITING
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamItemBookingsUser(@RequestHeader(OWNER_HEADER) Long userId) {
+        log.debug("Поступил запрос на подписку на события бронирований вещей пользователя {}", userId);
+        return bookingEventHub.subscribe(userId);
     }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemLogDto;
@@ -16,7 +17,9 @@ import java.time.LocalDateTime;
 @Builder
 public class BookingLogDto {
     private Long id;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private ItemLogDto item;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private UserLogDto booker;
     private LocalDateTime start;
     private LocalDateTime end;
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.practicum.shareit.item.dto.ItemLogDtoSerializer;
+import ru.practicum.shareit.user.dto.UserLogDto;
+
+import java.io.IOException;
+
+import static ru.practicum.shareit.common.json.JsonFields.*;
+
+// Потоковая запись BookingLogDto: вещь пишется ItemLogDtoSerializer напрямую, без поиска сериализатора.
+// Поля item и booker с @JsonInclude(NON_NULL) пропускаются, если их не запросили в fields.
+public class BookingLogDtoSerializer extends StdSerializer<BookingLogDto> {
+    public BookingLogDtoSerializer() {
+        super(BookingLogDto.class);
+    }
+
+    @Override
+    public void serialize(BookingLogDto booking, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(booking);
+        writeLong(gen, "id", booking.getId());
+        if (booking.getItem() != null) {
+            gen.writeFieldName("item");
+            ItemLogDtoSerializer.INSTANCE.serialize(booking.getItem(), gen, provider);
+        }
+        if (booking.getBooker() != null) {
+            writeBooker(gen, booking.getBooker());
+        }
+        writeDateTime(gen, provider, "start", booking.getStart());
+        writeDateTime(gen, provider, "end", booking.getEnd());
+        writeEnum(gen, provider, "status", booking.getStatus());
+        gen.writeEndObject();
+    }
+
+    private static void writeBooker(JsonGenerator gen, UserLogDto booker) throws IOException {
+        gen.writeFieldName("booker");
+        gen.writeStartObject(booker);
+        gen.writeNumberField("id", booker.getId());
+        writeString(gen, "name", booker.getName());
+        writeString(gen, "email", booker.getEmail());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.exception.EntityNotAvailableException;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Рассылка событий бронирований владельцам вещей через SSE вместо опроса GET /bookings/owner?state=WAITING.
+// События публикует BookingServiceImpl после коммита, отправка идёт в одном потоке рассылки -
+// порядок событий сохраняется, а запись в медленное соединение не задерживает запросы на запись.
+// Heartbeat-комментарии держат соединение через прокси и выявляют отключившихся подписчиков.
+@Slf4j
+@Component
+public class BookingEventHub implements DisposableBean {
+    private final UserRepository userRepository;
+    private final long timeoutMs;
+    private final int maxSubscriptionsPerOwner;
+    private final ThreadPoolTaskExecutor dispatcher;
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public BookingEventHub(UserRepository userRepository,
+                           @Value("${shareit.bookings.stream.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${shareit.bookings.stream.max-subscriptions-per-owner:5}")
+                           int maxSubscriptionsPerOwner,
+                           @Value("${shareit.bookings.stream.queue-capacity:10000}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscriptionsPerOwner = maxSubscriptionsPerOwner;
+        this.dispatcher = createDispatcher(queueCapacity);
+    }
+
+    public SseEmitter subscribe(Long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new EntityNotFoundException("Пользователя с id " + ownerId + " не существует");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // проверка лимита и добавление атомарны относительно отписки, удаляющей пустой набор
+        subscribers.compute(ownerId, (id, emitters) -> {
+            Set<SseEmitter> owned = emitters != null ? emitters : new CopyOnWriteArraySet<>();
+            if (owned.size() >= maxSubscriptionsPerOwner) {
+                throw new EntityNotAvailableException("Превышено число подписок на события бронирований " +
+                        "пользователя с id " + ownerId);
+            }
+            owned.add(emitter);
+            return owned;
+        });
+        emitter.onCompletion(() -> unsubscribe(ownerId, emitter));
+        emitter.onTimeout(() -> unsubscribe(ownerId, emitter));
+        emitter.onError(e -> unsubscribe(ownerId, emitter));
+        log.debug("Подписка на события бронирований владельца {}", ownerId);
+        return emitter;
+    }
+
+    // без подписчиков владельца событие не создаёт ни задачи, ни синхронизации транзакции
+    public void publish(Long ownerId, BookingEventDto event) {
+        if (!subscribers.containsKey(ownerId)) {
+            return;
+        }
+        Runnable dispatch = () -> dispatcher.execute(() -> send(ownerId, event));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch.run();
+                }
+            });
+        } else {
+            dispatch.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> subscribers.forEach((ownerId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                trySend(ownerId, emitter, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    int subscriberCount(Long ownerId) {
+        Set<SseEmitter> emitters = subscribers.get(ownerId);
+        return emitters != null ? emitters.size() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        dispatcher.shutdown();
+    }
+
+    private void send(Long ownerId, BookingEventDto event) {
+        Set<SseEmitter> emitters = subscribers.get(ownerId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            trySend(ownerId, emitter, SseEmitter.event()
+                    .id(event.getBookingId() + ":" + event.getType())
+                    .name(event.getType().name().toLowerCase())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void trySend(Long ownerId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик событий владельца {} отключился: {}", ownerId, e.getMessage());
+            unsubscribe(ownerId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long ownerId, SseEmitter emitter) {
+        subscribers.computeIfPresent(ownerId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static ThreadPoolTaskExecutor createDispatcher(int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-events-");
+        // при переполнении событие теряется: подписчик догонит состояние обычным GET после переподключения
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
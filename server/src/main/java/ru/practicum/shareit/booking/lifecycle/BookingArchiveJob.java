@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Бронирования, закончившиеся раньше срока хранения, переносятся из bookings в bookings_archive.
+// В bookings остаются только недавние и будущие бронирования, поэтому стоимость запросов списков
+// зависит от текущего объёма, а не от всей истории. Пачка копируется и удаляется в одной транзакции.
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "shareit.bookings.archive.enabled", havingValue = "true")
+public class BookingArchiveJob {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transaction;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseBetweenBatchesMs;
+    private final Counter archived;
+    private final Timer runTimer;
+
+    public BookingArchiveJob(BookingRepository bookingRepository, ArchivedBookingRepository archivedBookingRepository,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${shareit.bookings.archive.retention:365d}") Duration retention,
+                             @Value("${shareit.bookings.archive.batch-size:1000}") int batchSize,
+                             @Value("${shareit.bookings.archive.max-batches-per-run:50}") int maxBatchesPerRun,
+                             @Value("${shareit.bookings.archive.pause-between-batches-ms:100}")
+                             long pauseBetweenBatchesMs) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatchesMs = pauseBetweenBatchesMs;
+        this.archived = Counter.builder("shareit.bookings.archived")
+                .description("Бронирования, перенесённые в bookings_archive")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.bookings.archive.run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.archive.interval-ms:3600000}",
+            initialDelayString = "${shareit.bookings.archive.interval-ms:3600000}")
+    public void scheduledRun() {
+        try {
+            runTimer.record(() -> archiveBookings(LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Ошибка при архивации бронирований", e);
+        }
+    }
+
+    public int archiveBookings(LocalDateTime now) {
+        LocalDateTime before = now.minus(retention);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer count = transaction.execute(status -> archiveBatch(before));
+            int archivedInBatch = count != null ? count : 0;
+            archived.increment(archivedInBatch);
+            total += archivedInBatch;
+            if (archivedInBatch < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Перенесено в архив {} бронирований, закончившихся до {}", total, before);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime before) {
+        List<Long> ids = bookingRepository.findIdsToArchive(before, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids);
+        return bookingRepository.deleteByIdIn(ids);
+    }
+
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseBetweenBatchesMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
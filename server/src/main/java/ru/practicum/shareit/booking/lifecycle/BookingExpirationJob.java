@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Неподтверждённые бронирования, срок начала которых прошёл, переводятся в EXPIRED.
+// Пачки захватываются через FOR UPDATE SKIP LOCKED, каждая в своей короткой транзакции,
+// поэтому несколько узлов работают параллельно и не блокируют подтверждение владельцем.
+// Нагрузка ограничена размером пачки, числом пачек за запуск и паузой между ними.
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "shareit.bookings.expiration.enabled", havingValue = "true")
+public class BookingExpirationJob {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseBetweenBatchesMs;
+    private final Counter expired;
+    private final Timer runTimer;
+
+    public BookingExpirationJob(BookingRepository bookingRepository, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.bookings.expiration.batch-size:500}") int batchSize,
+                                @Value("${shareit.bookings.expiration.max-batches-per-run:20}") int maxBatchesPerRun,
+                                @Value("${shareit.bookings.expiration.pause-between-batches-ms:100}")
+                                long pauseBetweenBatchesMs) {
+        this.bookingRepository = bookingRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatchesMs = pauseBetweenBatchesMs;
+        this.expired = Counter.builder("shareit.bookings.expired")
+                .description("Бронирования, переведённые из WAITING в EXPIRED")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.bookings.expiration.run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.expiration.interval-ms:60000}",
+            initialDelayString = "${shareit.bookings.expiration.interval-ms:60000}")
+    public void scheduledRun() {
+        try {
+            runTimer.record(() -> expireWaitingBookings(LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Ошибка при переводе просроченных бронирований в EXPIRED", e);
+        }
+    }
+
+    public int expireWaitingBookings(LocalDateTime now) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer count = transaction.execute(status -> expireBatch(now));
+            int expiredInBatch = count != null ? count : 0;
+            expired.increment(expiredInBatch);
+            total += expiredInBatch;
+            if (expiredInBatch < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Переведено в EXPIRED {} бронирований с началом до {}", total, now);
+        }
+        return total;
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<Booking> bookings = bookingRepository.findForUpdateSkipLockedByStatusAndStartBefore(
+                BookingStatus.WAITING, now, PageRequest.of(0, batchSize));
+        for (Booking booking : bookings) {
+            booking.setStatus(BookingStatus.EXPIRED);
+        }
+        return bookings.size();
+    }
+
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseBetweenBatchesMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// Месячные секции bookings в PostgreSQL (PARTITION BY RANGE (start_date), см. schema-postgresql.sql).
+// Секции создаются от начала срока хранения до months-ahead месяцев вперёд; бронирования за пределами
+// попадают в bookings_default и переносятся в свою секцию при её создании. Секции старше срока хранения,
+// опустевшие после архивации, удаляются целиком.
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "shareit.bookings.partitioning.enabled", havingValue = "true")
+public class BookingPartitionMaintainer {
+    private static final String PARTITION_PREFIX = "bookings_";
+    private static final String DEFAULT_PARTITION = "bookings_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final Duration retention;
+    private final int monthsAhead;
+
+    public BookingPartitionMaintainer(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                      @Value("${shareit.bookings.archive.retention:365d}") Duration retention,
+                                      @Value("${shareit.bookings.partitioning.months-ahead:3}") int monthsAhead) {
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.monthsAhead = monthsAhead;
+    }
+
+    // первый запуск сразу после старта, затем раз в interval-ms
+    @Scheduled(fixedDelayString = "${shareit.bookings.partitioning.interval-ms:86400000}")
+    public void scheduledRun() {
+        try {
+            maintain(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Ошибка при обслуживании секций bookings", e);
+        }
+    }
+
+    public void maintain(LocalDateTime now) {
+        YearMonth oldest = YearMonth.from(now.minus(retention));
+        YearMonth last = YearMonth.from(now).plusMonths(monthsAhead);
+        for (YearMonth month = oldest; !month.isAfter(last); month = month.plusMonths(1)) {
+            YearMonth partitionMonth = month;
+            transaction.executeWithoutResult(status -> createPartition(partitionMonth));
+        }
+        for (String partition : partitions()) {
+            YearMonth month = monthOf(partition);
+            if (month != null && month.isBefore(oldest)) {
+                transaction.executeWithoutResult(status -> dropIfEmpty(partition));
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+        Object exists = entityManager.createNativeQuery("select to_regclass(:name) is not null")
+                .setParameter("name", name)
+                .getSingleResult();
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        // строки этого месяца из секции по умолчанию переносятся до присоединения, иначе ATTACH откажет
+        entityManager.createNativeQuery("create table " + name +
+                " (like bookings including defaults including constraints)").executeUpdate();
+        int moved = entityManager.createNativeQuery("with moved as (delete from " + DEFAULT_PARTITION +
+                " where start_date >= " + from + " and start_date < " + to + " returning *)" +
+                " insert into " + name + " select * from moved").executeUpdate();
+        entityManager.createNativeQuery("alter table bookings attach partition " + name +
+                " for values from (" + from + ") to (" + to + ")").executeUpdate();
+        log.info("Создана секция {} для бронирований с {} по {}, перенесено из {}: {}",
+                name, from, to, DEFAULT_PARTITION, moved);
+    }
+
+    private void dropIfEmpty(String partition) {
+        Object hasRows = entityManager.createNativeQuery("select exists (select 1 from " + partition + ")")
+                .getSingleResult();
+        if (Boolean.TRUE.equals(hasRows)) {
+            return;
+        }
+        entityManager.createNativeQuery("alter table bookings detach partition " + partition).executeUpdate();
+        entityManager.createNativeQuery("drop table " + partition).executeUpdate();
+        log.info("Удалена пустая секция {} старше срока хранения", partition);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> partitions() {
+        return entityManager.createNativeQuery("select cast(c.relname as varchar) from pg_inherits i" +
+                " join pg_class c on c.oid = i.inhrelid where i.inhparent = cast('bookings' as regclass)")
+                .getResultList();
+    }
+
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX) || DEFAULT_PARTITION.equals(partition)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
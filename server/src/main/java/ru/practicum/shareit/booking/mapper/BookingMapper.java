@@ -1,42 +1,103 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingAddDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.events.BookingEventType;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.common.FieldSet;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserLogDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
+// DTO ответов собираются конструкторами, списки - циклом в список заранее известного размера:
+// на страницах из сотен бронирований builder и stream на каждый элемент заметны в профиле аллокаций.
 public class BookingMapper {
     public static BookingLogDto mapToBookingLogDto(Booking booking) {
-        return BookingLogDto.builder()
-                .id(booking.getId())
-                .item(ItemMapper.mapToItemLogDto(booking.getItem()))
-                .booker(UserMapper.mapToUserLogDto(booking.getBooker()))
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .status(booking.getStatus())
-                .build();
+        return mapToBookingLogDto(booking, FieldSet.ALL, Collections.emptyMap());
+    }
+
+    public static BookingLogDto mapToBookingLogDto(Booking booking, FieldSet fields) {
+        return mapToBookingLogDto(booking, fields, Collections.emptyMap());
+    }
+
+    // неуказанные в fields вложенные части не загружаются из БД,
+    // комментарии вещей загружаются заранее одним запросом на всю страницу
+    public static BookingLogDto mapToBookingLogDto(Booking booking, FieldSet fields,
+                                                   Map<Long, List<CommentInItemLogDto>> commentsByItemId) {
+        ItemLogDto item = fields.includes("item") ?
+                mapToItemLogDto(booking.getItem(), fields.includes("item.comments"), commentsByItemId) : null;
+        UserLogDto booker = fields.includes("booker") ? UserMapper.mapToUserLogDto(booking.getBooker()) : null;
+        return new BookingLogDto(booking.getId(), item, booker, booking.getStart(), booking.getEnd(),
+                booking.getStatus());
     }
 
     public static List<BookingLogDto> mapToListBookingDto(List<Booking> bookings) {
-        return bookings.stream()
-                .map(BookingMapper::mapToBookingLogDto)
-                .collect(Collectors.toList());
+        return mapToListBookingDto(bookings, FieldSet.ALL);
+    }
+
+    public static List<BookingLogDto> mapToListBookingDto(List<Booking> bookings, FieldSet fields) {
+        return mapToListBookingDto(bookings, fields, Collections.emptyMap());
+    }
+
+    // вещь повторяется на странице многократно: её DTO строится один раз на id и используется всеми
+    // бронированиями страницы. fields разбирается один раз на список
+    public static List<BookingLogDto> mapToListBookingDto(List<Booking> bookings, FieldSet fields,
+                                                          Map<Long, List<CommentInItemLogDto>> commentsByItemId) {
+        boolean withItem = fields.includes("item");
+        boolean withComments = fields.includes("item.comments");
+        boolean withBooker = fields.includes("booker");
+        Map<Long, ItemLogDto> items = withItem ? new HashMap<>() : Collections.emptyMap();
+        List<BookingLogDto> result = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            ItemLogDto item = null;
+            if (withItem) {
+                item = items.get(booking.getItem().getId());
+                if (item == null) {
+                    item = mapToItemLogDto(booking.getItem(), withComments, commentsByItemId);
+                    items.put(item.getId(), item);
+                }
+            }
+            UserLogDto booker = withBooker ? UserMapper.mapToUserLogDto(booking.getBooker()) : null;
+            result.add(new BookingLogDto(booking.getId(), item, booker, booking.getStart(), booking.getEnd(),
+                    booking.getStatus()));
+        }
+        return result;
     }
 
     public static BookingShortDto mapToBookingShortDto(Booking booking) {
-        return BookingShortDto.builder()
-                .id(booking.getId())
+        return new BookingShortDto(booking.getId(), booking.getBooker().getId(), booking.getStart(),
+                booking.getEnd());
+    }
+
+    private static ItemLogDto mapToItemLogDto(Item item, boolean withComments,
+                                              Map<Long, List<CommentInItemLogDto>> commentsByItemId) {
+        return ItemMapper.mapToItemLogDto(item, withComments ?
+                commentsByItemId.getOrDefault(item.getId(), Collections.emptyList()) : null);
+    }
+
+    public static BookingEventDto mapToBookingEventDto(Booking booking, BookingEventType type) {
+        return BookingEventDto.builder()
+                .type(type)
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
                 .bookerId(booking.getBooker().getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
+                .status(booking.getStatus())
                 .build();
     }
 
@@ -49,4 +110,10 @@ public class BookingMapper {
                 .status(BookingStatus.WAITING)
                 .build();
     }
+
+    // архивная запись отображается как обычное бронирование, в контекст сохранения не попадает
+    public static Booking mapToBooking(ArchivedBooking archivedBooking) {
+        return new Booking(archivedBooking.getId(), archivedBooking.getStart(), archivedBooking.getEnd(),
+                archivedBooking.getItem(), archivedBooking.getBooker(), archivedBooking.getStatus());
+    }
 }
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.booking.model;
 
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -19,9 +18,11 @@ import java.time.LocalDateTime;
 @Table(name = "bookings")
 public class Booking {
 
+    // id выдаёт последовательность БД: она общая для всех узлов и не откатывается после архивации,
+    // поэтому id не повторяются ни между узлами, ни между bookings и bookings_archive
     @Id
-    @GenericGenerator(name = "generator", strategy = "increment")
-    @GeneratedValue(generator = "generator")
+    @SequenceGenerator(name = "booking_id_seq", sequenceName = "booking_id_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_id_seq")
     private Long id;
     @Column(name = "start_date")
     private LocalDateTime start;
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    List<ArchivedBooking> findByEndIsBeforeAndBookerId(LocalDateTime localDateTime, Long bookerId, Pageable pageable);
+
+    List<ArchivedBooking> findByItem_OwnerIdAndEndIsBefore(Long ownerId, LocalDateTime localDateTime,
+                                                           Pageable pageable);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long userId, Long itemId,
+                                                            BookingStatus bookingStatus, LocalDateTime localDateTime);
+
+    // копирование выполняется в той же транзакции, что и удаление из bookings.
+    // Изменяемая таблица указана явно: без неё Hibernate сбросил бы после native-запроса весь кэш второго уровня
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "bookings_archive"))
+    @Query(value = "insert into bookings_archive (id, start_date, end_date, item_id, user_id, status) " +
+            " select id, start_date, end_date, item_id, user_id, status from bookings where id in (:ids)",
+            nativeQuery = true)
+    int copyFromBookings(@Param("ids") Collection<Long> ids);
+}
@@ -2,18 +2,30 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     boolean existsByItem_IdAndStartBeforeAndEndAfter(Long itemId, LocalDateTime start, LocalDateTime end);
 
     List<Booking> findByBookerId(Long bookerId, Pageable pageable);
 
-    List<Booking> findByEndIsBeforeAndBookerId(LocalDateTime localDateTime, Long bookerId, Pageable pageable);
+    // b.start < :now следует из b.end < :now, но по нему PostgreSQL отбрасывает будущие секции bookings
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.end < :now and b.start < :now")
+    List<Booking> findByEndIsBeforeAndBookerId(@Param("now") LocalDateTime localDateTime,
+                                               @Param("bookerId") Long bookerId, Pageable pageable);
 
     List<Booking> findByStartIsAfterAndBookerId(LocalDateTime localDateTime, Long bookerId, Pageable pageable);
 
@@ -24,7 +36,9 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByItem_OwnerId(Long ownerId, Pageable pageable);
 
-    List<Booking> findByItem_OwnerIdAndEndIsBefore(Long ownerId, LocalDateTime localDateTime, Pageable pageable);
+    @Query("select b from Booking b where b.item.owner.id = :ownerId and b.end < :now and b.start < :now")
+    List<Booking> findByItem_OwnerIdAndEndIsBefore(@Param("ownerId") Long ownerId,
+                                                   @Param("now") LocalDateTime localDateTime, Pageable pageable);
 
     List<Booking> findByItem_OwnerIdAndEndIsAfter(Long ownerId, LocalDateTime localDateTime, Pageable pageable);
 
@@ -43,4 +57,28 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                                             BookingStatus bookingStatus, LocalDateTime localDateTime);
 
     List<Booking> findAllByItemIdInAndStatusNot(List<Long> itemIds, BookingStatus bookingStatus);
+
+    List<Booking> findAllByItemIdAndStatus(Long itemId, BookingStatus bookingStatus);
+
+    // подтверждение читает бронирование под блокировкой строки: задача истечения либо уже перевела его
+    // в EXPIRED и подтверждение это увидит, либо пропустит строку (SKIP LOCKED) до конца транзакции владельца
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id = :id")
+    Optional<Booking> findForUpdateById(@Param("id") Long id);
+
+    // lock.timeout = -2 - SKIP LOCKED: узлы разбирают разные пачки, не дожидаясь блокировок друг друга
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select b from Booking b where b.status = :status and b.start < :start order by b.start")
+    List<Booking> findForUpdateSkipLockedByStatusAndStartBefore(@Param("status") BookingStatus status,
+                                                                 @Param("start") LocalDateTime start,
+                                                                 Pageable pageable);
+
+    // кандидаты на архивацию: начались и закончились до границы срока хранения
+    @Query("select b.id from Booking b where b.start < :before and b.end < :before order by b.start")
+    List<Long> findIdsToArchive(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Booking b where b.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.common.FieldSet;
 
 import java.util.List;
 
@@ -13,7 +14,7 @@ public interface BookingService {
 
     BookingLogDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingLogDto> getAllUserBookings(BookingStatus state, Long userId, int from, int size);
+    List<BookingLogDto> getAllUserBookings(BookingStatus state, Long userId, int from, int size, FieldSet fields);
 
-    List<BookingLogDto> getAllItemBookingsUser(Long userId, BookingStatus state, int from, int size);
+    List<BookingLogDto> getAllItemBookingsUser(Long userId, BookingStatus state, int from, int size, FieldSet fields);
 }
@@ -6,22 +6,36 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.events.BookingEventHub;
+import ru.practicum.shareit.booking.events.BookingEventType;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.FieldSet;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.stats.ItemStatsAccumulator;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -29,13 +43,28 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final CommentRepository commentRepository;
+    private final ItemStatsAccumulator itemStatsAccumulator;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingEventHub bookingEventHub;
 
     public BookingServiceImpl(BookingRepository bookingRepository,
                               ItemRepository itemRepository,
-                              UserRepository userRepository) {
+                              UserRepository userRepository,
+                              ItemAvailabilityIndex itemAvailabilityIndex,
+                              CommentRepository commentRepository,
+                              ItemStatsAccumulator itemStatsAccumulator,
+                              ArchivedBookingRepository archivedBookingRepository,
+                              BookingEventHub bookingEventHub) {
         this.bookingRepository = bookingRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.commentRepository = commentRepository;
+        this.itemStatsAccumulator = itemStatsAccumulator;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.bookingEventHub = bookingEventHub;
     }
 
     @Override
@@ -65,16 +94,18 @@ public class BookingServiceImpl implements BookingService {
                     " не доступна к бронированию");
         }
 
-        Booking booking = BookingMapper.mapToBooking(bookingAddDto, booker, item);
+        Booking booking = bookingRepository.save(BookingMapper.mapToBooking(bookingAddDto, booker, item));
+        bookingEventHub.publish(item.getOwner().getId(),
+                BookingMapper.mapToBookingEventDto(booking, BookingEventType.CREATED));
 
-        return BookingMapper.mapToBookingLogDto(bookingRepository.save(booking));
+        return mapWithComments(booking);
     }
 
     @Override
     @Transactional
     public BookingLogDto updateBookingStatus(Long userId, Boolean approved, Long bookingId) {
         log.debug("Сервис - изменение статуса бронирования с id {}", bookingId);
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+        Booking booking = bookingRepository.findForUpdateById(bookingId).orElseThrow(() ->
                 new EntityNotFoundException("Бронирования с id " + bookingId + " не существует"));
 
         if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
@@ -85,6 +116,17 @@ public class BookingServiceImpl implements BookingService {
             throw new DuplicateDataException("Бронирование с id " + bookingId + " уже подтверждено");
         }
 
+        if (booking.getStatus().equals(BookingStatus.EXPIRED)) {
+            throw new EntityNotAvailableException("Бронирование с id " + bookingId +
+                    " истекло: время начала прошло без подтверждения");
+        }
+
+        // задача истечения запускается раз в интервал: до неё бронирование с прошедшим началом ещё WAITING
+        if (approved && booking.getStart().isBefore(LocalDateTime.now())) {
+            throw new EntityNotAvailableException("Бронирование с id " + bookingId +
+                    " нельзя подтвердить: время начала уже прошло");
+        }
+
         if (bookingRepository.existsByItem_IdAndStartBeforeAndEndAfter(booking.getItem().getId(),
                 booking.getStart(), booking.getEnd())) {
             throw new EntityNotAvailableException("Вещь с id " + booking.getItem().getId() +
@@ -93,11 +135,17 @@ public class BookingServiceImpl implements BookingService {
 
         if (approved) {
             booking.setStatus(BookingStatus.APPROVED);
+            itemAvailabilityIndex.markBusy(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            itemStatsAccumulator.bookingApproved(booking.getItem().getId());
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
 
-        return BookingMapper.mapToBookingLogDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        bookingEventHub.publish(userId, BookingMapper.mapToBookingEventDto(saved,
+                approved ? BookingEventType.APPROVED : BookingEventType.REJECTED));
+
+        return mapWithComments(saved);
     }
 
     @Override
@@ -109,7 +157,7 @@ public class BookingServiceImpl implements BookingService {
 
         if (Objects.equals(booking.getBooker().getId(), userId)
                 || Objects.equals(booking.getItem().getOwner().getId(), userId)) {
-            return BookingMapper.mapToBookingLogDto(booking);
+            return mapWithComments(booking);
         } else {
             throw new EntityAccessException(String.format("Просмотр бронирования item с id " + booking.getItem().getId() +
                     " доступно только для владельца"));
@@ -118,7 +166,8 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingLogDto> getAllUserBookings(BookingStatus state, Long userId, int from, int size) {
+    public List<BookingLogDto> getAllUserBookings(BookingStatus state, Long userId, int from, int size,
+                                                  FieldSet fields) {
         log.debug("Сервис - получение всех бронирований пользователя {} со статусом {}", userId, state);
 
         User booker = userRepository.findById(userId).orElseThrow(() ->
@@ -130,29 +179,34 @@ public class BookingServiceImpl implements BookingService {
         LocalDateTime currentDateTime = LocalDateTime.now();
         switch (state) {
             case ALL:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByBookerId(userId, pageable));
+                return mapPage(bookingRepository
+                        .findByBookerId(userId, pageable), fields);
             case PAST:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByEndIsBeforeAndBookerId(currentDateTime, userId, pageable));
+                Pageable head = headOf(pageable);
+                return mapPage(mergeWithArchive(
+                        bookingRepository.findByEndIsBeforeAndBookerId(currentDateTime, userId, head),
+                        archivedBookingRepository.findByEndIsBeforeAndBookerId(currentDateTime, userId, head),
+                        pageable), fields);
             case FUTURE:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByStartIsAfterAndBookerId(currentDateTime, userId, pageable));
+                return mapPage(bookingRepository
+                        .findByStartIsAfterAndBookerId(currentDateTime, userId, pageable), fields);
             case CURRENT:
-                return BookingMapper.mapToListBookingDto(bookingRepository
+                return mapPage(bookingRepository
                         .findByBookerIdAndStartBeforeAndEndAfter(userId,
-                                currentDateTime, currentDateTime, pageable));
+                                currentDateTime, currentDateTime, pageable), fields);
             case WAITING:
             case REJECTED:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByStatusAndBookerId(state, userId, pageable));
+            case EXPIRED:
+                return mapPage(bookingRepository
+                        .findByStatusAndBookerId(state, userId, pageable), fields);
         }
         return Collections.emptyList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingLogDto> getAllItemBookingsUser(Long userId, BookingStatus state, int from, int size) {
+    public List<BookingLogDto> getAllItemBookingsUser(Long userId, BookingStatus state, int from, int size,
+                                                      FieldSet fields) {
         log.debug("Сервис - получение всех бронирований ползователя {} со статусом {}", userId, state);
 
         User booker = userRepository.findById(userId).orElseThrow(() ->
@@ -164,23 +218,80 @@ public class BookingServiceImpl implements BookingService {
         LocalDateTime currentDateTime = LocalDateTime.now();
         switch (state) {
             case ALL:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByItem_OwnerId(userId, pageable));
+                return mapPage(bookingRepository
+                        .findByItem_OwnerId(userId, pageable), fields);
             case PAST:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByItem_OwnerIdAndEndIsBefore(userId, currentDateTime, pageable));
+                Pageable head = headOf(pageable);
+                return mapPage(mergeWithArchive(
+                        bookingRepository.findByItem_OwnerIdAndEndIsBefore(userId, currentDateTime, head),
+                        archivedBookingRepository.findByItem_OwnerIdAndEndIsBefore(userId, currentDateTime, head),
+                        pageable), fields);
             case FUTURE:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByItem_OwnerIdAndEndIsAfter(userId, currentDateTime, pageable));
+                return mapPage(bookingRepository
+                        .findByItem_OwnerIdAndEndIsAfter(userId, currentDateTime, pageable), fields);
             case CURRENT:
-                return BookingMapper.mapToListBookingDto(bookingRepository
+                return mapPage(bookingRepository
                         .findByItem_OwnerIdAndStartBeforeAndEndAfter(userId,
-                                currentDateTime, currentDateTime, pageable));
+                                currentDateTime, currentDateTime, pageable), fields);
             case WAITING:
             case REJECTED:
-                return BookingMapper.mapToListBookingDto(bookingRepository
-                        .findByItem_OwnerIdAndStatus(userId, state, pageable));
+            case EXPIRED:
+                return mapPage(bookingRepository
+                        .findByItem_OwnerIdAndStatus(userId, state, pageable), fields);
         }
         return Collections.emptyList();
     }
+
+    // первые offset + size строк по тому же порядку: из них собирается страница объединения двух таблиц
+    private static Pageable headOf(Pageable pageable) {
+        return PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort());
+    }
+
+    // PAST читается из bookings и bookings_archive: обе выборки упорядочены по start desc,
+    // слияние берёт нужную страницу без загрузки всей истории
+    private static List<Booking> mergeWithArchive(List<Booking> bookings, List<ArchivedBooking> archived,
+                                                  Pageable pageable) {
+        if (archived.isEmpty()) {
+            return page(bookings, pageable);
+        }
+        List<Booking> merged = new ArrayList<>(bookings.size() + archived.size());
+        int i = 0;
+        int j = 0;
+        while (i < bookings.size() || j < archived.size()) {
+            if (j == archived.size() || (i < bookings.size()
+                    && !bookings.get(i).getStart().isBefore(archived.get(j).getStart()))) {
+                merged.add(bookings.get(i++));
+            } else {
+                merged.add(BookingMapper.mapToBooking(archived.get(j++)));
+            }
+        }
+        return page(merged, pageable);
+    }
+
+    private static List<Booking> page(List<Booking> head, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), head.size());
+        return head.subList(from, Math.min(from + pageable.getPageSize(), head.size()));
+    }
+
+    private BookingLogDto mapWithComments(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        List<CommentInItemLogDto> comments = CommentMapper.mapToListCommentInItemLogDto(
+                commentRepository.findByItemIdOrderByIdDesc(itemId,
+                        PageRequest.of(0, CommentRepository.LATEST_COMMENTS_LIMIT)));
+        Collections.reverse(comments);
+        return BookingMapper.mapToBookingLogDto(booking, FieldSet.ALL, Map.of(itemId, comments));
+    }
+
+    // последние комментарии всех вещей страницы загружаются одним запросом и только если они запрошены
+    private List<BookingLogDto> mapPage(List<Booking> bookings, FieldSet fields) {
+        if (bookings.isEmpty() || !fields.includes("item.comments")) {
+            return BookingMapper.mapToListBookingDto(bookings, fields);
+        }
+        Set<Long> itemIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            itemIds.add(booking.getItem().getId());
+        }
+        return BookingMapper.mapToListBookingDto(bookings, fields,
+                CommentMapper.mapToCommentsByItemId(commentRepository.findLatestWithAuthorByItemIdIn(itemIds)));
+    }
 }
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.common;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Параметр fields= для списков: перечисляет вложенные части ответа, которые нужно вернуть,
+// например fields=booker,item.comments. Скалярные поля возвращаются всегда.
+// Часть включена, если указана она сама или любая ее вложенная часть (item.comments включает item).
+// Без параметра возвращается все.
+@ToString
+@EqualsAndHashCode
+public class FieldSet {
+    public static final FieldSet ALL = new FieldSet(null);
+
+    private final Set<String> paths;
+
+    private FieldSet(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    public static FieldSet parse(String fields) {
+        if (fields == null) {
+            return ALL;
+        }
+        return new FieldSet(Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toSet()));
+    }
+
+    public boolean includes(String path) {
+        if (paths == null || paths.contains(path)) {
+            return true;
+        }
+        String prefix = path + ".";
+        for (String included : paths) {
+            if (included.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Запись полей для потоковых сериализаторов DTO: null пишется как у бинового сериализатора,
+// даты - строкой ISO_LOCAL_DATE_TIME, как у LocalDateTimeSerializer из jsr310.
+public final class JsonFields {
+    // "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn"
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+
+    private JsonFields() {
+    }
+
+    public static void writeLong(JsonGenerator gen, String name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    public static void writeInteger(JsonGenerator gen, String name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    public static void writeBoolean(JsonGenerator gen, String name, Boolean value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeBoolean(value);
+        }
+    }
+
+    public static void writeString(JsonGenerator gen, String name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    public static void writeEnum(JsonGenerator gen, SerializerProvider provider, String name, Enum<?> value)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(provider.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING) ?
+                    value.toString() : value.name());
+        }
+    }
+
+    public static void writeDateTime(JsonGenerator gen, SerializerProvider provider, String name,
+                                     LocalDateTime value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            // маппер настроен на массивы чисел - отдаём сериализатору из jsr310
+            provider.defaultSerializeValue(value, gen);
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            // знак и лишние разряды года - редкий случай, оставляем форматтеру
+            gen.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        } else {
+            char[] buf = new char[MAX_DATE_TIME_LENGTH];
+            int length = formatIsoDateTime(value, buf);
+            gen.writeString(buf, 0, length);
+        }
+    }
+
+    // то же, что ISO_LOCAL_DATE_TIME для годов 0-9999: секунды всегда, доли секунды без хвостовых нулей
+    static int formatIsoDateTime(LocalDateTime value, char[] buf) {
+        int year = value.getYear();
+        buf[0] = digit(year / 1000);
+        buf[1] = digit(year / 100 % 10);
+        buf[2] = digit(year / 10 % 10);
+        buf[3] = digit(year % 10);
+        buf[4] = '-';
+        writeTwoDigits(buf, 5, value.getMonthValue());
+        buf[7] = '-';
+        writeTwoDigits(buf, 8, value.getDayOfMonth());
+        buf[10] = 'T';
+        writeTwoDigits(buf, 11, value.getHour());
+        buf[13] = ':';
+        writeTwoDigits(buf, 14, value.getMinute());
+        buf[16] = ':';
+        writeTwoDigits(buf, 17, value.getSecond());
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buf[19] = '.';
+        int length = 20;
+        for (int divisor = 100_000_000; nano > 0; divisor /= 10) {
+            buf[length++] = digit(nano / divisor);
+            nano %= divisor;
+        }
+        return length;
+    }
+
+    private static void writeTwoDigits(char[] buf, int offset, int value) {
+        buf[offset] = digit(value / 10);
+        buf[offset + 1] = digit(value % 10);
+    }
+
+    private static char digit(int value) {
+        return (char) ('0' + value);
+    }
+}
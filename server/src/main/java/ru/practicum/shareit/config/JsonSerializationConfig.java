@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.dto.BookingLogDtoSerializer;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.item.dto.ItemLogDtoSerializer;
+
+// Модули Jackson для ответов сервера. Spring Boot добавляет бины Module в общий Jackson2ObjectMapperBuilder,
+// так что они действуют и для JSON, и для Smile (WireFormatConfig).
+@Configuration
+public class JsonSerializationConfig {
+    // списки бронирований и вещей - самые тяжёлые ответы: пишем их потоково, без бинового сериализатора
+    @Bean
+    public Module logDtoSerializersModule() {
+        return new SimpleModule("LogDtoSerializers")
+                .addSerializer(BookingLogDto.class, new BookingLogDtoSerializer())
+                .addSerializer(ItemLogDto.class, ItemLogDtoSerializer.INSTANCE);
+    }
+
+    // остальные DTO: доступ к полям через сгенерированные лямбды вместо рефлексии
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
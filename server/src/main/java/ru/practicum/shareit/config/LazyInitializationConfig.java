@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+// При ленивой инициализации метамодель JPA и часто используемые репозитории всё равно
+// создаются при старте, иначе их построение ляжет на первые запросы.
+@Configuration
+@Profile("lazy")
+public class LazyInitializationConfig {
+    @Bean
+    public static LazyInitializationExcludeFilter eagerJpaBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class, UserRepository.class,
+                ItemRepository.class, BookingRepository.class);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.cache.CacheManager;
+import java.io.IOException;
+
+// Менеджер Ehcache для кэша второго уровня создаётся отдельным провайдером на каждый контекст.
+// Общий CachingProvider выдаёт один менеджер на URI всем контекстам в JVM (в тестах - с разными БД),
+// и Hibernate, закрывая свою фабрику, закрыл бы его и для остальных.
+@Configuration
+@ConditionalOnProperty(value = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(
+            @Value("${spring.jpa.properties.hibernate.javax.cache.uri}") Resource config) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, createCacheManager(config));
+    }
+
+    private static CacheManager createCacheManager(Resource config) {
+        try {
+            return new EhcacheCachingProvider().getCacheManager(config.getURI(),
+                    SecondLevelCacheConfig.class.getClassLoader());
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать настройки кэша " + config, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.sql.SqlStatsEndpoint;
+import ru.practicum.shareit.sql.SqlStatsRecorder;
+import ru.practicum.shareit.sql.StatementRecordingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Статистика SQL-запросов по отпечаткам: пул соединений оборачивается после создания,
+// так что в неё попадают и Hibernate, и нативные запросы, и фоновые задачи.
+@Configuration
+@ConditionalOnProperty(value = "shareit.sql.stats.enabled", havingValue = "true")
+public class SqlStatsConfig {
+    @Bean
+    public SqlStatsRecorder sqlStatsRecorder(@Value("${shareit.sql.stats.capacity}") int capacity,
+                                             @Value("${shareit.sql.stats.window}") Duration window,
+                                             @Value("${shareit.sql.stats.slow-threshold}") Duration slowThreshold) {
+        return new SqlStatsRecorder(capacity, window, slowThreshold);
+    }
+
+    @Bean
+    public SqlStatsEndpoint sqlStatsEndpoint(SqlStatsRecorder sqlStatsRecorder) {
+        return new SqlStatsEndpoint(sqlStatsRecorder);
+    }
+
+    // static: постпроцессор создаётся раньше остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor sqlStatsDataSourcePostProcessor(ObjectProvider<SqlStatsRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof StatementRecordingDataSource)) {
+                    return new StatementRecordingDataSource((DataSource) bean, recorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
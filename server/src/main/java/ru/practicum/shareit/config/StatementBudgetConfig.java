@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.sql.StatementBudgetInterceptor;
+
+// Бюджет SQL-запросов на HTTP-запрос: счётчик - StatementCounter, подключённый к Hibernate
+// свойством hibernate.session_factory.statement_inspector.
+@Configuration
+public class StatementBudgetConfig implements WebMvcConfigurer {
+    private final int defaultBudget;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public StatementBudgetConfig(@Value("${shareit.sql.statement-budget.default:8}") int defaultBudget,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        this.defaultBudget = defaultBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor(defaultBudget, meterRegistry.getIfAvailable()));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import ru.practicum.shareit.tracing.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Трассировка запросов: корневой спан - фильтр, спаны контроллеров, сервисов и репозиториев - советник AOP,
+// время БД - StatementRecordingDataSource (нужен shareit.sql.stats.enabled).
+@Configuration
+@ConditionalOnProperty(value = "shareit.tracing.enabled", havingValue = "true")
+public class TracingConfig {
+    @Bean
+    public Sampler tracingSampler(@Value("${shareit.tracing.sample-rate}") double sampleRate) {
+        return new Sampler(sampleRate);
+    }
+
+    @Bean
+    public SpanExporter spanExporter(@Value("${shareit.tracing.exporter}") String exporter,
+                                     @Value("${shareit.tracing.memory.capacity}") int capacity,
+                                     @Value("${shareit.tracing.file.path}") Path path,
+                                     @Value("${shareit.tracing.file.queue-capacity}") int queueCapacity,
+                                     ObjectMapper mapper) throws IOException {
+        switch (exporter) {
+            case "memory":
+                return new InMemorySpanExporter(capacity);
+            case "file":
+                return new FileSpanExporter(path, queueCapacity, mapper);
+            default:
+                throw new IllegalStateException("Неизвестный экспортёр спанов: " + exporter);
+        }
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Sampler tracingSampler, SpanExporter spanExporter) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(tracingSampler, spanExporter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // инфраструктурная роль: такие советники применяет автопрокси Spring Boot без AspectJ;
+    // порядок - снаружи транзакции, чтобы коммит входил в спан сервиса
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new TracedComponentsPointcut(),
+                new TracingMethodInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(Sampler tracingSampler, SpanExporter spanExporter) {
+        return new TracesEndpoint(tracingSampler, spanExporter);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Бинарный формат Smile для запросов от gateway: выбирается по Accept/Content-Type
+// application/x-jackson-smile, без этих заголовков ответы остаются в JSON.
+@Configuration
+public class WireFormatConfig {
+    // маппер строится из того же билдера, что и JSON, чтобы даты и прочие настройки совпадали
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false)
+                .factory(new SmileFactory())
+                .build());
+    }
+}
@@ -2,6 +2,6 @@ package ru.practicum.shareit.exception;
 
 public class DuplicateDataException extends RuntimeException {
     public DuplicateDataException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
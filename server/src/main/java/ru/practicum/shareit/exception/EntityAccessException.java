@@ -2,6 +2,6 @@ package ru.practicum.shareit.exception;
 
 public class EntityAccessException extends RuntimeException {
     public EntityAccessException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
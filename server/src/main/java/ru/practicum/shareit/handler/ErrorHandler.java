@@ -7,7 +7,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.exception.*;
 
-
+// Ошибки бизнес-правил (404, 400, 409) - ожидаемый исход запроса: пишутся одной строкой WARN,
+// а сами исключения создаются без стека. Стек пишется только для непредвиденных ошибок.
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
@@ -16,7 +17,7 @@ public class ErrorHandler {
             DuplicateDataException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentNotValidException(final Exception e) {
-        log.error(e.getMessage());
+        log.warn(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
@@ -24,6 +25,20 @@ public class ErrorHandler {
             EntityAccessException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleEntityNotFoundException(final Exception e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleIdempotencyKeyConflictException(final Exception e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(StatementBudgetExceededException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ErrorResponse handleStatementBudgetExceededException(final Exception e) {
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
@@ -31,7 +46,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Exception e) {
-        log.error("{}", e);
+        log.error("Непредвиденная ошибка при обработке запроса", e);
         return new ErrorResponse(
                 "Произошла непредвиденная ошибка."
         );
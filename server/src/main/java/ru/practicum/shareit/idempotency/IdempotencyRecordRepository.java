@@ -0,0 +1,30 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.created < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+
+    // created сравнивается, чтобы не задеть строку, которую ключ уже занял другой запрос
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.responseBody = :response " +
+            "where r.scopeKey = :scopeKey and r.created = :created")
+    int complete(@Param("scopeKey") String scopeKey, @Param("created") LocalDateTime created,
+                 @Param("response") String response);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.scopeKey = :scopeKey and r.created = :created")
+    int deleteClaim(@Param("scopeKey") String scopeKey, @Param("created") LocalDateTime created);
+}
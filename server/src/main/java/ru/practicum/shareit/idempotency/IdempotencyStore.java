@@ -0,0 +1,302 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.IdempotencyKeyConflictException;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Повтор POST с тем же Idempotency-Key получает ответ первого выполнения вместо новой записи.
+// Ключи живут в памяти не дольше ttl, при переполнении вытесняются самые старые завершённые.
+// Параллельный дубль ждёт завершения первого запроса. При database-enabled ключ перед выполнением
+// занимается строкой в idempotency_keys без ответа, а ответ дописывается в неё после выполнения:
+// дубль на другом узле не вставит вторую строку с тем же scope_key и дождётся ответа первого.
+@Slf4j
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration waitTimeout;
+    private final Duration pendingTimeout;
+    private final boolean databaseEnabled;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // порядок вставки совпадает с порядком истечения: вытеснение идёт с головы
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                            @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${shareit.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${shareit.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                            @Value("${shareit.idempotency.pending-timeout:1m}") Duration pendingTimeout,
+                            @Value("${shareit.idempotency.database-enabled:false}") boolean databaseEnabled) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+        this.pendingTimeout = pendingTimeout;
+        this.databaseEnabled = databaseEnabled;
+    }
+
+    public <T> T execute(String operation, Long userId, String key, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        String scopeKey = operation + ":" + userId + ":" + key;
+        String requestBody = toJson(request);
+
+        Entry entry;
+        boolean first;
+        lock.lock();
+        try {
+            evict(System.nanoTime());
+            entry = entries.get(scopeKey);
+            first = entry == null;
+            if (first) {
+                entry = new Entry(requestBody, System.nanoTime());
+                entries.put(scopeKey, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!entry.requestBody.equals(requestBody)) {
+            throw reused(key);
+        }
+        if (!first) {
+            log.debug("Повтор запроса {} с ключом идемпотентности {}", operation, key);
+            return responseType.cast(await(entry, key));
+        }
+
+        try {
+            T response = databaseEnabled
+                    ? executeClaimed(scopeKey, requestBody, key, responseType, action)
+                    : action.get();
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // ошибка не запоминается: следующий повтор выполнит запрос заново
+            remove(scopeKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        lock.lock();
+        try {
+            evict(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+        if (databaseEnabled) {
+            try {
+                repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+            } catch (DataAccessException e) {
+                log.warn("Не удалось удалить устаревшие ключи идемпотентности", e);
+            }
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // незавершённые записи не вытесняются: их ждут параллельные дубли
+    private void evict(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            boolean expired = now - entry.createdAt > ttlNanos;
+            if (!expired && entries.size() < maxEntries) {
+                break;
+            }
+            if (entry.response.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void remove(String scopeKey, Entry entry) {
+        lock.lock();
+        try {
+            entries.remove(scopeKey, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Object await(Entry entry, String key) {
+        try {
+            return entry.response.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inProgress(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw interrupted(key);
+        }
+    }
+
+    private <T> T executeClaimed(String scopeKey, String requestBody, String key, Class<T> responseType,
+                                 Supplier<T> action) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            // точность как у TIMESTAMP в БД: по этому значению строка потом обновляется и удаляется
+            LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            if (claim(scopeKey, requestBody, claimedAt)) {
+                T response;
+                try {
+                    response = action.get();
+                } catch (RuntimeException e) {
+                    release(scopeKey, claimedAt);
+                    throw e;
+                }
+                complete(scopeKey, claimedAt, response);
+                return response;
+            }
+            Optional<IdempotencyRecord> record = repository.findById(scopeKey);
+            if (record.isEmpty()) {
+                // первый запрос завершился ошибкой и освободил ключ
+                continue;
+            }
+            IdempotencyRecord found = record.get();
+            if (isStale(found)) {
+                // строка устарела или узел, занявший ключ, не дописал ответ: её место занимает этот запрос
+                repository.deleteClaim(scopeKey, found.getCreated());
+                continue;
+            }
+            if (!found.getRequestBody().equals(requestBody)) {
+                throw reused(key);
+            }
+            if (found.getResponseBody() != null) {
+                return read(found, key, responseType);
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw inProgress(key);
+            }
+            sleep(key);
+        }
+    }
+
+    private boolean claim(String scopeKey, String requestBody, LocalDateTime claimedAt) {
+        try {
+            repository.saveAndFlush(new IdempotencyRecord(scopeKey, requestBody, null, claimedAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // запрос уже выполнен: сбой записи ответа не должен превращаться в ошибку для клиента
+    private void complete(String scopeKey, LocalDateTime claimedAt, Object response) {
+        try {
+            if (repository.complete(scopeKey, claimedAt, toJson(response)) == 0) {
+                log.warn("Ключ идемпотентности {} занят другим запросом, ответ не сохранён", scopeKey);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить ответ по ключу идемпотентности {}", scopeKey, e);
+        }
+    }
+
+    // если освободить ключ не удалось, его займёт повтор после pending-timeout
+    private void release(String scopeKey, LocalDateTime claimedAt) {
+        try {
+            repository.deleteClaim(scopeKey, claimedAt);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось освободить ключ идемпотентности {}", scopeKey, e);
+        }
+    }
+
+    private boolean isStale(IdempotencyRecord record) {
+        Duration age = Duration.between(record.getCreated(), LocalDateTime.now());
+        return age.compareTo(record.getResponseBody() == null ? pendingTimeout : ttl) > 0;
+    }
+
+    private <T> T read(IdempotencyRecord record, String key, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать сохранённый ответ по ключу " + key, e);
+        }
+    }
+
+    private void sleep(String key) {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw interrupted(key);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать " + value, e);
+        }
+    }
+
+    private static IdempotencyKeyConflictException reused(String key) {
+        return new IdempotencyKeyConflictException("Ключ идемпотентности " + key +
+                " уже использован для другого запроса");
+    }
+
+    private static IdempotencyKeyConflictException inProgress(String key) {
+        return new IdempotencyKeyConflictException("Запрос с ключом идемпотентности " + key +
+                " ещё выполняется, повторите позже");
+    }
+
+    private static IdempotencyKeyConflictException interrupted(String key) {
+        return new IdempotencyKeyConflictException("Ожидание запроса с ключом идемпотентности " + key +
+                " прервано");
+    }
+
+    private static class Entry {
+        private final String requestBody;
+        private final long createdAt;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        Entry(String requestBody, long createdAt) {
+            this.requestBody = requestBody;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.idempotency.model;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord implements Persistable<String> {
+    // операция, пользователь и значение заголовка Idempotency-Key
+    @Id
+    @Column(name = "scope_key")
+    private String scopeKey;
+    @Column(name = "request_body")
+    private String requestBody;
+    // null, пока запрос, занявший ключ, выполняется
+    @Column(name = "response_body")
+    private String responseBody;
+    private LocalDateTime created;
+    // записи только вставляются: без флага save() делал бы лишний select перед вставкой
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private boolean inserted = true;
+
+    public IdempotencyRecord(String scopeKey, String requestBody, String responseBody, LocalDateTime created) {
+        this(scopeKey, requestBody, responseBody, created, true);
+    }
+
+    @Override
+    public String getId() {
+        return scopeKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return inserted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        inserted = false;
+    }
+}
@@ -1,7 +1,40 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    // сколько последних комментариев встраивается в ItemLogDto, остальные - через GET /items/{id}/comments
+    int LATEST_COMMENTS_LIMIT = 10;
+
+    @Query(value = "select cast(c.id as bigint) from (select cm.id, " +
+            " row_number() over (partition by cm.item_id order by cm.id desc) as rn " +
+            " from comments cm where cm.item_id in (:itemIds)) c where c.rn <= :limit", nativeQuery = true)
+    List<Long> findLatestIdsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("select c from Comment c join fetch c.author where c.id in :ids order by c.id")
+    List<Comment> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdOrderByIdDesc(Long itemId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdAndIdLessThanOrderByIdDesc(Long itemId, Long id, Pageable pageable);
+
+    // последние комментарии нескольких вещей с авторами за два запроса, независимо от длины истории
+    default List<Comment> findLatestWithAuthorByItemIdIn(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = findLatestIdsByItemIdIn(itemIds, LATEST_COMMENTS_LIMIT);
+        return ids.isEmpty() ? Collections.emptyList() : findAllWithAuthorByIdIn(ids);
+    }
 }
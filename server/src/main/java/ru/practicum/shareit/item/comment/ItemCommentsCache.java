@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.comment;
+
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManagerFactory;
+
+// Item.comments - однонаправленная коллекция, а комментарий сохраняется сам по себе, мимо неё:
+// Hibernate не знает, что закэшированный список комментариев вещи устарел, и запись сбрасывается явно.
+@Component
+public class ItemCommentsCache {
+    private static final String REGION = Item.class.getName() + ".comments";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ItemCommentsCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // после коммита: сброшенную раньше запись параллельное чтение успело бы заполнить старым списком
+    public void evict(Long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(itemId);
+                }
+            });
+        } else {
+            evictNow(itemId);
+        }
+    }
+
+    private void evictNow(Long itemId) {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictCollectionData(REGION, itemId);
+    }
+}
@@ -6,17 +6,15 @@ import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public class CommentMapper {
     public static CommentInItemLogDto mapToCommentInItemLogDto(Comment comment) {
-        return CommentInItemLogDto.builder()
-                .id(comment.getId())
-                .text(comment.getText())
-                .authorName(comment.getAuthor().getName())
-                .created(comment.getCreated())
-                .build();
+        return new CommentInItemLogDto(comment.getId(), comment.getText(), comment.getAuthor().getName(),
+                comment.getCreated());
     }
 
     public static Comment mapToComment(CommentAddDto commentAddDto, Long itemId, User author) {
@@ -28,9 +26,20 @@ public class CommentMapper {
                 .build();
     }
 
-        public static List<CommentInItemLogDto> mapToListCommentInItemLogDto(List<Comment> comments) {
-        return comments.stream()
-                .map(CommentMapper::mapToCommentInItemLogDto)
-                .collect(Collectors.toList());
+    public static List<CommentInItemLogDto> mapToListCommentInItemLogDto(List<Comment> comments) {
+        List<CommentInItemLogDto> result = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            result.add(mapToCommentInItemLogDto(comment));
+        }
+        return result;
+    }
+
+    public static Map<Long, List<CommentInItemLogDto>> mapToCommentsByItemId(List<Comment> comments) {
+        Map<Long, List<CommentInItemLogDto>> result = new HashMap<>();
+        for (Comment comment : comments) {
+            result.computeIfAbsent(comment.getItemId(), id -> new ArrayList<>())
+                    .add(mapToCommentInItemLogDto(comment));
+        }
+        return result;
     }
 }
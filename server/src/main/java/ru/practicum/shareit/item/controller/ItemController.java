@@ -1,14 +1,20 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.comment.dto.CommentAddDto;
 import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
 import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityLogDto;
 import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.ItemSort;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.sql.StatementBudget;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -17,23 +23,28 @@ import java.util.List;
 public class ItemController {
     private static final String OWNER_HEADER = "X-Sharer-User-Id";
     private final ItemService itemService;
+    private final IdempotencyStore idempotencyStore;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, IdempotencyStore idempotencyStore) {
         this.itemService = itemService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @PostMapping
-    public ItemLogDto addItem(@RequestBody ItemAddDto itemAddDto, @RequestHeader(OWNER_HEADER) Long ownerId) {
-        log.info("Получен POST-запрос к эндпоинту: '/items' на добавление item: " +
+    public ItemLogDto addItem(@RequestBody ItemAddDto itemAddDto, @RequestHeader(OWNER_HEADER) Long ownerId,
+                              @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+                              String idempotencyKey) {
+        log.debug("Получен POST-запрос к эндпоинту: '/items' на добавление item: " +
                         "name: {}, description: {}, isAvailable: {}, ownerId: {}",
                 itemAddDto.getName(), itemAddDto.getDescription(), itemAddDto.getAvailable(), ownerId);
-        return itemService.addItem(itemAddDto, ownerId);
+        return idempotencyStore.execute("POST /items", ownerId, idempotencyKey, itemAddDto, ItemLogDto.class,
+                () -> itemService.addItem(itemAddDto, ownerId));
     }
 
     @PatchMapping("/{itemId}")
     public ItemLogDto updateItem(@RequestBody ItemUpdateDto itemUpdateDto, @PathVariable Long itemId,
                                  @RequestHeader(OWNER_HEADER) Long ownerId) {
-        log.info("Получен PATCH-запрос к эндпоинту: '/items' на обновление item с id {} - name: {}," +
+        log.debug("Получен PATCH-запрос к эндпоинту: '/items' на обновление item с id {} - name: {}," +
                         "description: {}, isAvailable: {}, ownerId: {}",
                 itemId, itemUpdateDto.getName(), itemUpdateDto.getDescription(), itemUpdateDto.getAvailable(), ownerId);
         return itemService.updateItem(itemUpdateDto, itemId, ownerId);
@@ -41,37 +52,67 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemLogDto getItemById(@PathVariable Long itemId, @RequestHeader(OWNER_HEADER) Long ownerId) {
-        log.info("Получен GET-запрос к эндпоинту: '/items/{itemId}' на получение item по id {}", itemId);
+        log.debug("Получен GET-запрос к эндпоинту: '/items/{itemId}' на получение item по id {}", itemId);
         return itemService.getItemById(itemId, ownerId);
     }
 
+    @StatementBudget(6)
     @GetMapping
     public List<ItemLogDto> getAllItemsByOwnerId(@RequestHeader(OWNER_HEADER) Long ownerId,
                                                  @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "10") int size) {
-        log.info("Получен GET-запрос к эндпоинту: '/items' на получение списка всех items для пользователя с id {}", ownerId);
-        return itemService.getAllItemsByOwnerId(ownerId, from, size);
+                                                 @RequestParam(defaultValue = "10") int size,
+                                                 @RequestParam(required = false) ItemSort sort) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items' на получение списка всех items для пользователя с id {}", ownerId);
+        return itemService.getAllItemsByOwnerId(ownerId, from, size, sort);
     }
 
     @DeleteMapping("/{itemId}")
     public void deleteItemById(@PathVariable Long itemId) {
-        log.info("Получен DELETE-запрос к эндпоинту: '/items/{userId}' на удаление item по id {}", itemId);
+        log.debug("Получен DELETE-запрос к эндпоинту: '/items/{userId}' на удаление item по id {}", itemId);
         itemService.deleteItemById(itemId);
     }
 
+    @StatementBudget(6)
     @GetMapping("/search")
     public List<ItemLogDto> getItemsBySearchQuery(@RequestParam(required = false) String text,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime start,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime end,
                                                   @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "10") int size) {
-        log.info("Получен GET-запрос к эндпоинту: '/items/search' на получение списка всех items, содержащих подстроку {}", text);
-        return itemService.getItemsBySearchQuery(text, from, size);
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false) ItemSort sort) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items/search' на получение списка всех items, содержащих подстроку {}", text);
+        return itemService.getItemsBySearchQuery(text, start, end, from, size, sort);
     }
 
     @PostMapping("/{itemId}/comment")
     public CommentInItemLogDto addComment(@RequestBody CommentAddDto comment,
                                           @RequestHeader(OWNER_HEADER) Long authorId,
                                           @PathVariable Long itemId) {
-        log.info("Получен POST-запрос к эндпоинту: '/items//{itemId}/comment' на добавление комментария для вещи {}", itemId);
+        log.debug("Получен POST-запрос к эндпоинту: '/items//{itemId}/comment' на добавление комментария для вещи {}", itemId);
         return itemService.addComment(comment, authorId, itemId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentInItemLogDto> getItemComments(@PathVariable Long itemId,
+                                                     @RequestParam(required = false) Long before,
+                                                     @RequestParam(defaultValue = "10") int size) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items/{itemId}/comments' на получение комментариев вещи {} " +
+                "до комментария {}", itemId, before);
+        return itemService.getItemComments(itemId, before, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityLogDto getItemAvailability(@PathVariable Long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.debug("Получен GET-запрос к эндпоинту: '/items/{itemId}/availability' на получение занятости вещи {} " +
+                "с {} по {}", itemId, from, to);
+        return itemService.getItemAvailability(itemId, from, to);
+    }
 }
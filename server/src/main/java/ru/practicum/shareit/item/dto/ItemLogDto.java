@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
@@ -21,6 +22,8 @@ public class ItemLogDto {
     private Long ownerId;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<CommentInItemLogDto> comments;
     private Long requestId;
+    private Integer commentCount;
 }
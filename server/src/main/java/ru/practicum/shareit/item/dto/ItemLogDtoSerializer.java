@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+
+import java.io.IOException;
+import java.util.List;
+
+import static ru.practicum.shareit.common.json.JsonFields.*;
+
+// Потоковая запись ItemLogDto вместе с вложенными бронированиями и комментариями.
+// Порядок полей и правила для null повторяют бинового сериализатора: поле comments с @JsonInclude(NON_NULL).
+public class ItemLogDtoSerializer extends StdSerializer<ItemLogDto> {
+    public static final ItemLogDtoSerializer INSTANCE = new ItemLogDtoSerializer();
+
+    public ItemLogDtoSerializer() {
+        super(ItemLogDto.class);
+    }
+
+    @Override
+    public void serialize(ItemLogDto item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(item);
+        writeLong(gen, "id", item.getId());
+        writeString(gen, "name", item.getName());
+        writeString(gen, "description", item.getDescription());
+        writeBoolean(gen, "available", item.getAvailable());
+        writeLong(gen, "ownerId", item.getOwnerId());
+        writeBooking(gen, provider, "lastBooking", item.getLastBooking());
+        writeBooking(gen, provider, "nextBooking", item.getNextBooking());
+        if (item.getComments() != null) {
+            writeComments(gen, provider, item.getComments());
+        }
+        writeLong(gen, "requestId", item.getRequestId());
+        writeInteger(gen, "commentCount", item.getCommentCount());
+        gen.writeEndObject();
+    }
+
+    private static void writeBooking(JsonGenerator gen, SerializerProvider provider, String name,
+                                     BookingShortDto booking) throws IOException {
+        gen.writeFieldName(name);
+        if (booking == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(booking);
+        writeLong(gen, "id", booking.getId());
+        writeLong(gen, "bookerId", booking.getBookerId());
+        writeDateTime(gen, provider, "start", booking.getStart());
+        writeDateTime(gen, provider, "end", booking.getEnd());
+        gen.writeEndObject();
+    }
+
+    private static void writeComments(JsonGenerator gen, SerializerProvider provider,
+                                      List<CommentInItemLogDto> comments) throws IOException {
+        gen.writeFieldName("comments");
+        gen.writeStartArray(comments, comments.size());
+        for (int i = 0; i < comments.size(); i++) {
+            CommentInItemLogDto comment = comments.get(i);
+            if (comment == null) {
+                gen.writeNull();
+                continue;
+            }
+            gen.writeStartObject(comment);
+            writeLong(gen, "id", comment.getId());
+            writeString(gen, "text", comment.getText());
+            writeString(gen, "authorName", comment.getAuthorName());
+            writeDateTime(gen, provider, "created", comment.getCreated());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+}
@@ -1,17 +1,23 @@
 package ru.practicum.shareit.item.mapper;
 
+import ru.practicum.shareit.booking.availability.AvailabilityInterval;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityLogDto;
 import ru.practicum.shareit.item.dto.ItemInRequestLogDto;
 import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public class ItemMapper {
     public static Item mapToItem(ItemAddDto itemAddDto, User owner, ItemRequest itemRequest) {
@@ -25,41 +31,64 @@ public class ItemMapper {
     }
 
     public static ItemLogDto mapToItemLogDto(Item item) {
-        return ItemLogDto.builder()
-                .id(item.getId())
-                .available(item.getAvailable())
-                .description(item.getDescription())
-                .name(item.getName())
-                .ownerId(item.getOwner().getId())
-                .nextBooking(item.getNextBooking() != null ?
-                        BookingMapper.mapToBookingShortDto(item.getNextBooking()) : null)
-                .lastBooking(item.getLastBooking() != null ?
-                        BookingMapper.mapToBookingShortDto(item.getLastBooking()) : null)
-                .comments(item.getComments() != null ? CommentMapper.mapToListCommentInItemLogDto(item.getComments())
-                        : Collections.emptyList())
-                .requestId(item.getItemRequest() != null ? item.getItemRequest().getId() : null)
-                .build();
+        return mapToItemLogDto(item, Collections.emptyList());
+    }
+
+    // ленивая коллекция item.comments не читается: последние комментарии загружаются заранее,
+    // при comments == null поле в ответе пропускается
+    public static ItemLogDto mapToItemLogDto(Item item, List<CommentInItemLogDto> comments) {
+        return mapToItemLogDto(item,
+                item.getLastBooking() != null ? BookingMapper.mapToBookingShortDto(item.getLastBooking()) : null,
+                item.getNextBooking() != null ? BookingMapper.mapToBookingShortDto(item.getNextBooking()) : null,
+                comments);
     }
 
-    public static List<ItemLogDto> mapToListItemLogDto(List<Item> items) {
-        return items.stream()
-                .map(ItemMapper::mapToItemLogDto)
-                .collect(Collectors.toList());
+    public static ItemLogDto mapToItemLogDto(Item item, BookingShortDto lastBooking, BookingShortDto nextBooking,
+                                             List<CommentInItemLogDto> comments) {
+        return new ItemLogDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), lastBooking, nextBooking, comments,
+                item.getItemRequest() != null ? item.getItemRequest().getId() : null, item.getCommentCount());
+    }
+
+    public static List<ItemLogDto> mapToListItemLogDto(List<Item> items,
+                                                       Map<Long, List<CommentInItemLogDto>> commentsByItemId) {
+        List<ItemLogDto> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            result.add(mapToItemLogDto(item, commentsByItemId.getOrDefault(item.getId(), Collections.emptyList())));
+        }
+        return result;
     }
 
     public static ItemInRequestLogDto mapToItemInRequestLogDto(Item item) {
-        return ItemInRequestLogDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .available(item.getAvailable())
-                .requestId(item.getItemRequest().getId())
-                .description(item.getDescription())
-                .build();
+        return new ItemInRequestLogDto(item.getId(), item.getName(), item.getDescription(),
+                item.getItemRequest().getId(), item.getAvailable());
     }
 
     public static List<ItemInRequestLogDto> mapToListItemInRequestLogDto(List<Item> items) {
-        return items.stream()
-                .map(ItemMapper::mapToItemInRequestLogDto)
-                .collect(Collectors.toList());
+        List<ItemInRequestLogDto> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            result.add(mapToItemInRequestLogDto(item));
+        }
+        return result;
+    }
+
+    public static ItemAvailabilityLogDto mapToItemAvailabilityLogDto(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                                     List<AvailabilityInterval> busy,
+                                                                     List<AvailabilityInterval> free) {
+        return ItemAvailabilityLogDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(mapToListAvailabilityIntervalDto(busy))
+                .free(mapToListAvailabilityIntervalDto(free))
+                .build();
+    }
+
+    public static List<AvailabilityIntervalDto> mapToListAvailabilityIntervalDto(List<AvailabilityInterval> intervals) {
+        List<AvailabilityIntervalDto> result = new ArrayList<>(intervals.size());
+        for (AvailabilityInterval interval : intervals) {
+            result.add(new AvailabilityIntervalDto(interval.getStart(), interval.getEnd()));
+        }
+        return result;
     }
 }
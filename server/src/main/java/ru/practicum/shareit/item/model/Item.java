@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -17,6 +19,8 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "items")
 public class Item {
     @Id
@@ -35,10 +39,15 @@ public class Item {
     private Booking lastBooking;
     @Transient
     private Booking nextBooking;
+    // комментарий сохраняется отдельно от коллекции: после добавления её запись в кэше сбрасывает ItemCommentsCache
     @OneToMany(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Comment> comments;
     @OneToOne
     @JoinColumn(name = "request_id")
     private ItemRequest itemRequest;
+    // счётчик ведётся при добавлении комментария, чтобы не считать их при каждом чтении
+    @Column(name = "comment_count")
+    private int commentCount;
 }
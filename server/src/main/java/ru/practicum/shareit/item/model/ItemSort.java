@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.model;
+
+public enum ItemSort {
+    ID,
+    BOOKINGS,
+    COMMENTS
+}
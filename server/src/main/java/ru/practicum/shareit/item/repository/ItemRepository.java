@@ -1,18 +1,61 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.matching.IndexedText;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwnerId(Long ownerId, Pageable pageable);
+    // item_stats присоединяется для сортировки по числу бронирований: JpaSort.unsafe(ITEM_STATS_BOOKINGS)
+    String ITEM_STATS_BOOKINGS = "coalesce(s.bookingCount, 0)";
 
-    @Query("select i from Item i where i.available = true " +
+    // в кэше запросов хранятся только id вещей страницы, сами вещи берутся из кэша сущностей;
+    // записи сбрасываются при любом изменении items или item_stats
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "item-owner-pages")})
+    @Query("select i from Item i left join ItemStats s on s.itemId = i.id where i.owner.id = :ownerId")
+    List<Item> findByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    // owner и itemRequest связаны EAGER: без join fetch на каждого владельца и запрос ушёл бы отдельный select
+    @EntityGraph(attributePaths = {"owner", "itemRequest"})
+    List<Item> findAllByItemRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select i from Item i left join ItemStats s on s.itemId = i.id where i.available = true " +
             " and (lower(i.name) like lower(concat('%',:query,'%')) " +
             " or lower(i.description) like lower(concat('%',:query,'%')))")
     List<Item> getItemsBySearchQuery(@Param("query") String query, Pageable pageable);
+
+    @Query("select i from Item i left join ItemStats s on s.itemId = i.id where i.available = true " +
+            " and (lower(i.name) like lower(concat('%',:query,'%')) " +
+            " or lower(i.description) like lower(concat('%',:query,'%'))) " +
+            " and not exists (select b.id from Booking b where b.item = i and b.status = :status " +
+            " and b.start < :end and b.end > :start)")
+    List<Item> getAvailableItemsBySearchQuery(@Param("query") String query,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end,
+                                              @Param("status") BookingStatus status,
+                                              Pageable pageable);
+
+    // блокировка строки вместо массового update: параллельные комментарии не теряют инкременты,
+    // а в кэше второго уровня обновляется одна вещь - массовый update сбросил бы весь регион Item
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findForUpdateById(@Param("itemId") Long itemId);
+
+    @Query("select new ru.practicum.shareit.request.matching.IndexedText(i.id, i.owner.id, " +
+            " concat(coalesce(i.name, ''), ' ', coalesce(i.description, ''))) from Item i")
+    List<IndexedText> findAllIndexedTexts();
 }
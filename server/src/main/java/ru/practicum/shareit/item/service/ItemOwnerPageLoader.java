@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.VirtualThreads;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+// Параллельная загрузка бронирований и комментариев для страницы вещей владельца.
+// Каждый запрос выполняется в своей read-only транзакции на ограниченном пуле. Вызывающий поток
+// не должен держать соединение, пока ждёт (см. ItemServiceImpl.getAllItemsByOwnerId): иначе
+// при нехватке соединений все они окажутся у ожидающих потоков и загрузка встанет до таймаута пула.
+@Slf4j
+@Component
+public class ItemOwnerPageLoader implements DisposableBean {
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor executor;
+
+    public ItemOwnerPageLoader(BookingRepository bookingRepository, CommentRepository commentRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${shareit.items.owner-page.parallel:false}") boolean parallel,
+                               @Value("${shareit.items.owner-page.pool-size:4}") int poolSize,
+                               @Value("${shareit.items.owner-page.queue-capacity:100}") int queueCapacity,
+                               @Value("${shareit.items.owner-page.virtual-threads:false}") boolean virtualThreads) {
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = parallel ? createExecutor(poolSize, queueCapacity, virtualThreads) : null;
+    }
+
+    public boolean isParallel() {
+        return executor != null;
+    }
+
+    public List<ItemLogDto> load(List<Item> items) {
+        log.debug("Параллельная загрузка бронирований и комментариев для {} items", items.size());
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = new ArrayList<>(items.size());
+        for (Item item : items) {
+            itemIds.add(item.getId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        CompletableFuture<Map<Long, BookingShortDto[]>> bookingsFuture =
+                supplyInTransaction(() -> loadLastAndNextBookings(itemIds, now));
+        CompletableFuture<Map<Long, List<CommentInItemLogDto>>> commentsFuture =
+                supplyInTransaction(() -> loadComments(itemIds));
+
+        Map<Long, BookingShortDto[]> bookings;
+        Map<Long, List<CommentInItemLogDto>> comments;
+        try {
+            bookings = bookingsFuture.join();
+            comments = commentsFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        List<ItemLogDto> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            BookingShortDto[] lastAndNext = bookings.get(item.getId());
+            result.add(ItemMapper.mapToItemLogDto(item,
+                    lastAndNext != null ? lastAndNext[0] : null,
+                    lastAndNext != null ? lastAndNext[1] : null,
+                    comments.getOrDefault(item.getId(), Collections.emptyList())));
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyInTransaction(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> supplier.get()), executor);
+    }
+
+    private Map<Long, BookingShortDto[]> loadLastAndNextBookings(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, Booking[]> lastAndNext = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllByItemIdInAndStatusNot(itemIds, BookingStatus.REJECTED)) {
+            Booking[] pair = lastAndNext.computeIfAbsent(booking.getItem().getId(), id -> new Booking[2]);
+            if (booking.getStart().isBefore(now)) {
+                if (pair[0] == null || booking.getStart().isAfter(pair[0].getStart())) {
+                    pair[0] = booking;
+                }
+            } else if (booking.getStart().isAfter(now)) {
+                if (pair[1] == null || booking.getStart().isBefore(pair[1].getStart())) {
+                    pair[1] = booking;
+                }
+            }
+        }
+
+        Map<Long, BookingShortDto[]> result = new HashMap<>();
+        lastAndNext.forEach((itemId, pair) -> result.put(itemId, new BookingShortDto[]{
+                pair[0] != null ? BookingMapper.mapToBookingShortDto(pair[0]) : null,
+                pair[1] != null ? BookingMapper.mapToBookingShortDto(pair[1]) : null}));
+        return result;
+    }
+
+    private Map<Long, List<CommentInItemLogDto>> loadComments(List<Long> itemIds) {
+        return CommentMapper.mapToCommentsByItemId(commentRepository.findLatestWithAuthorByItemIdIn(itemIds));
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(int poolSize, int queueCapacity, boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // пул остается ограниченным и с виртуальными потоками - он сдерживает число занятых соединений с БД
+        if (virtualThreads) {
+            executor.setThreadFactory(VirtualThreads.newThreadFactory("owner-page-"));
+        }
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("owner-page-");
+        // при переполнении очереди запрос выполняется в вызывающем потоке, в своей транзакции
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -3,9 +3,12 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.comment.dto.CommentAddDto;
 import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
 import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityLogDto;
 import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.ItemSort;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -15,11 +18,16 @@ public interface ItemService {
 
     ItemLogDto getItemById(Long itemId, Long ownerId);
 
-    List<ItemLogDto> getAllItemsByOwnerId(Long ownerId, int from, int size);
+    List<ItemLogDto> getAllItemsByOwnerId(Long ownerId, int from, int size, ItemSort sort);
 
     void deleteItemById(Long itemId);
 
-    List<ItemLogDto> getItemsBySearchQuery(String text, int from, int size);
+    List<ItemLogDto> getItemsBySearchQuery(String text, LocalDateTime start, LocalDateTime end, int from, int size,
+                                           ItemSort sort);
 
     CommentInItemLogDto addComment(CommentAddDto comment, Long authorId, Long itemId);
+
+    List<CommentInItemLogDto> getItemComments(Long itemId, Long before, int size);
+
+    ItemAvailabilityLogDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
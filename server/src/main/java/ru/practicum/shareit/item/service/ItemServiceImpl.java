@@ -4,24 +4,35 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.AvailabilityInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.EntityNotAvailableException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.IncorrectTimeDateException;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.ItemCommentsCache;
 import ru.practicum.shareit.item.comment.dto.CommentAddDto;
 import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityLogDto;
 import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSort;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.matching.ItemRequestMatchingIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -39,15 +50,34 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemOwnerPageLoader itemOwnerPageLoader;
+    private final ItemRequestMatchingIndex itemRequestMatchingIndex;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemCommentsCache itemCommentsCache;
+    private final TransactionTemplate readOnlyTransaction;
 
     public ItemServiceImpl(ItemRepository itemRepository, UserRepository userRepository,
                            BookingRepository bookingRepository, CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           ItemAvailabilityIndex itemAvailabilityIndex,
+                           ItemOwnerPageLoader itemOwnerPageLoader,
+                           ItemRequestMatchingIndex itemRequestMatchingIndex,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           ItemCommentsCache itemCommentsCache,
+                           PlatformTransactionManager transactionManager) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.itemOwnerPageLoader = itemOwnerPageLoader;
+        this.itemRequestMatchingIndex = itemRequestMatchingIndex;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.itemCommentsCache = itemCommentsCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
@@ -63,6 +93,8 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item item = itemRepository.save(ItemMapper.mapToItem(itemAddDto, owner, itemRequest));
+        // индекс запросов применяет изменение в afterCommit: откаченное сохранение в него не попадёт
+        itemRequestMatchingIndex.itemSaved(item.getId(), ownerId, item.getName(), item.getDescription());
         return ItemMapper.mapToItemLogDto(item);
     }
 
@@ -88,7 +120,10 @@ public class ItemServiceImpl implements ItemService {
         if (itemUpdateDto.getAvailable() != null) {
             item.setAvailable(itemUpdateDto.getAvailable());
         }
-        return ItemMapper.mapToItemLogDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemRequestMatchingIndex.itemSaved(savedItem.getId(), ownerId, savedItem.getName(),
+                savedItem.getDescription());
+        return ItemMapper.mapToItemLogDto(savedItem, getLatestComments(itemId));
     }
 
     @Override
@@ -108,27 +143,40 @@ public class ItemServiceImpl implements ItemService {
                     .findFirst1ByItemIdAndStartIsAfterAndStatusNotOrderByStart(
                             item.getId(), LocalDateTime.now(), BookingStatus.REJECTED));
         }
-        return ItemMapper.mapToItemLogDto(item);
+        return ItemMapper.mapToItemLogDto(item, getLatestComments(itemId));
     }
 
+    // транзакция открывается здесь, а не аннотацией: в параллельном режиме страница читается в своей
+    // транзакции и соединение возвращается в пул до ожидания загрузчика, которому нужны ещё два.
+    // Иначе при всех соединениях у ожидающих вызывающих потоков загрузчик ждал бы их до таймаута пула.
+    // Соединение отпускается только при выключенном spring.jpa.open-in-view
     @Override
-    @Transactional(readOnly = true)
-    public List<ItemLogDto> getAllItemsByOwnerId(Long ownerId, int from, int size) {
-        log.debug("Сервис - получение списка всех items для пользователя с id {}", ownerId);
+    public List<ItemLogDto> getAllItemsByOwnerId(Long ownerId, int from, int size, ItemSort sort) {
+        log.debug("Сервис - получение списка всех items для пользователя с id {}, сортировка {}", ownerId, sort);
+        if (itemOwnerPageLoader.isParallel()) {
+            return itemOwnerPageLoader.load(readOnlyTransaction.execute(status ->
+                    findOwnerPage(ownerId, from, size, sort)));
+        }
+        return readOnlyTransaction.execute(status -> mapOwnerPage(findOwnerPage(ownerId, from, size, sort)));
+    }
 
+    private List<Item> findOwnerPage(Long ownerId, int from, int size, ItemSort sort) {
         userRepository.findById(ownerId).orElseThrow(() ->
                 new EntityNotFoundException("Владелец с id " + ownerId + " не найден"));
 
-        Sort sort = Sort.by(Sort.Order.asc("id"));
-        Pageable pageable = PageRequest.of(from / size, size, sort);
+        Pageable pageable = PageRequest.of(from / size, size, toSort(sort != null ? sort : ItemSort.ID));
 
-        List<Item> items = itemRepository.findByOwnerId(ownerId, pageable);
+        return itemRepository.findByOwnerId(ownerId, pageable);
+    }
 
+    private List<ItemLogDto> mapOwnerPage(List<Item> items) {
         List<Long> itemIds = items.stream()
                 .map(Item::getId)
                 .collect(Collectors.toList());
         List<Booking> bookings = bookingRepository.findAllByItemIdInAndStatusNot(itemIds,
                 BookingStatus.REJECTED);
+        Map<Long, List<CommentInItemLogDto>> comments = CommentMapper.mapToCommentsByItemId(
+                commentRepository.findLatestWithAuthorByItemIdIn(itemIds));
 
         return items.stream()
                 .map(item -> {
@@ -147,7 +195,8 @@ public class ItemServiceImpl implements ItemService {
                     item.setLastBooking(lastBooking);
                     item.setNextBooking(nextBooking);
 
-                    return ItemMapper.mapToItemLogDto(item);
+                    return ItemMapper.mapToItemLogDto(item,
+                            comments.getOrDefault(item.getId(), Collections.emptyList()));
                 })
                 .collect(Collectors.toList());
     }
@@ -157,36 +206,111 @@ public class ItemServiceImpl implements ItemService {
     public void deleteItemById(Long itemId) {
         log.debug("Сервис - удаление item по id {}", itemId);
         itemRepository.deleteById(itemId);
+        itemAvailabilityIndex.evict(itemId);
+        itemRequestMatchingIndex.itemDeleted(itemId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemLogDto> getItemsBySearchQuery(String text, int from, int size) {
-        log.debug("Сервис - получение списка всех items, содержащих подстроку {}", text);
+    public List<ItemLogDto> getItemsBySearchQuery(String text, LocalDateTime start, LocalDateTime end,
+                                                  int from, int size, ItemSort sort) {
+        log.debug("Сервис - получение списка всех items, содержащих подстроку {}, свободных с {} по {}",
+                text, start, end);
+        if ((start == null) != (end == null) || (start != null && !end.isAfter(start))) {
+            throw new IncorrectTimeDateException("Ошибка даты начала " + start + " и конца периода " + end);
+        }
         if (text == null || text.isBlank()) {
             return new ArrayList<>();
         }
-        Pageable pageable = PageRequest.of(from / size, size);
-        return ItemMapper.mapToListItemLogDto(itemRepository.getItemsBySearchQuery(text, pageable));
+        // без sort порядок выдачи прежний - на усмотрение БД
+        Pageable pageable = sort == null ? PageRequest.of(from / size, size) :
+                PageRequest.of(from / size, size, toSort(sort));
+        List<Item> items = start == null ? itemRepository.getItemsBySearchQuery(text, pageable) :
+                itemRepository.getAvailableItemsBySearchQuery(text, start, end, BookingStatus.APPROVED, pageable);
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        return ItemMapper.mapToListItemLogDto(items, CommentMapper.mapToCommentsByItemId(
+                commentRepository.findLatestWithAuthorByItemIdIn(itemIds)));
     }
 
     @Override
     @Transactional
     public CommentInItemLogDto addComment(CommentAddDto commentAddDto, Long authorId, Long itemId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+        Item item = itemRepository.findForUpdateById(itemId).orElseThrow(() ->
                 new EntityNotFoundException("Вещи с id " + itemId + " не существует"));
 
         User author = userRepository.findById(authorId).orElseThrow(() ->
                 new EntityNotFoundException("Пользователя с id " + authorId + " не существует"));
 
+        // аренда могла давно уйти в архив - он проверяется, только если в bookings её нет
+        LocalDateTime now = LocalDateTime.now();
         if (!bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(authorId, itemId,
-                BookingStatus.APPROVED, LocalDateTime.now())) {
+                BookingStatus.APPROVED, now)
+                && !archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(authorId, itemId,
+                BookingStatus.APPROVED, now)) {
             throw new EntityNotAvailableException("Вы еще не арендовали эту вещь");
         }
 
         Comment comment = CommentMapper.mapToComment(commentAddDto, itemId, author);
+        Comment savedComment = commentRepository.save(comment);
+        item.setCommentCount(item.getCommentCount() + 1);
+        itemCommentsCache.evict(itemId);
+
+        return CommentMapper.mapToCommentInItemLogDto(savedComment);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentInItemLogDto> getItemComments(Long itemId, Long before, int size) {
+        log.debug("Сервис - получение комментариев item с id {} до комментария {}", itemId, before);
+        if (!itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException("Вещи с id " + itemId + " не существует");
+        }
+        // keyset: следующая страница начинается после id последнего полученного комментария
+        Pageable pageable = PageRequest.of(0, size);
+        List<Comment> comments = before == null ? commentRepository.findByItemIdOrderByIdDesc(itemId, pageable) :
+                commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, before, pageable);
+        return CommentMapper.mapToListCommentInItemLogDto(comments);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityLogDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Сервис - получение занятости item с id {} с {} по {}", itemId, from, to);
+        if (!to.isAfter(from)) {
+            throw new IncorrectTimeDateException("Ошибка даты начала " + from + " и конца периода " + to);
+        }
 
-        return CommentMapper.mapToCommentInItemLogDto(commentRepository.save(comment));
+        if (!itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException("Вещи с id " + itemId + " не существует");
+        }
+
+        List<AvailabilityInterval> busy = itemAvailabilityIndex.getBusyIntervals(itemId, from, to);
+        List<AvailabilityInterval> free = itemAvailabilityIndex.getFreeIntervals(busy, from, to);
+        return ItemMapper.mapToItemAvailabilityLogDto(itemId, from, to, busy, free);
+    }
+
+    // последние комментарии в хронологическом порядке
+    private List<CommentInItemLogDto> getLatestComments(Long itemId) {
+        List<Comment> comments = new ArrayList<>(commentRepository.findByItemIdOrderByIdDesc(itemId,
+                PageRequest.of(0, CommentRepository.LATEST_COMMENTS_LIMIT)));
+        Collections.reverse(comments);
+        return CommentMapper.mapToListCommentInItemLogDto(comments);
+    }
+
+    // популярные - первыми, при равенстве - по id, чтобы страницы не пересекались.
+    // Популярность - число подтверждённых бронирований (ItemStatsAccumulator), а не завершённых
+    private static Sort toSort(ItemSort sort) {
+        switch (sort) {
+            case BOOKINGS:
+                return JpaSort.unsafe(Sort.Direction.DESC, ItemRepository.ITEM_STATS_BOOKINGS)
+                        .and(Sort.by(Sort.Order.asc("id")));
+            case COMMENTS:
+                return Sort.by(Sort.Order.desc("commentCount"), Sort.Order.asc("id"));
+            default:
+                return Sort.by(Sort.Order.asc("id"));
+        }
     }
 
     private boolean isOwnerCorrect(User owner, Item item) {
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.stats.model.ItemStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Счётчики подтверждённых бронирований копятся в памяти в LongAdder - на пути подтверждения
+// нет ни запроса в БД, ни общей блокировки, - и периодически сбрасываются в item_stats одной пачкой.
+// Сброшенное значение вычитается из счётчика только после коммита, поэтому ни ошибка записи,
+// ни параллельные подтверждения во время сброса не теряют инкременты. Последний сброс - при остановке.
+// Считается подтверждение, а не завершение: отдельного события завершения нет, а архивация видит
+// бронирование только через срок хранения. Подтверждённое бронирование отменить нельзя, поэтому
+// счёт расходится с числом завершённых лишь на ещё не закончившиеся бронирования.
+@Slf4j
+@Component
+public class ItemStatsAccumulator implements DisposableBean {
+    private final ItemStatsRepository itemStatsRepository;
+    private final TransactionTemplate transaction;
+    // инкремент и удаление обнулённой записи идут через compute по ключу и не пересекаются:
+    // инкремент не попадёт в счётчик, уже удалённый из таблицы
+    private final ConcurrentMap<Long, LongAdder> pendingBookings = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ItemStatsAccumulator(ItemStatsRepository itemStatsRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.itemStatsRepository = itemStatsRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void bookingApproved(Long itemId) {
+        afterCommit(() -> pendingBookings.compute(itemId, (id, counter) -> {
+            LongAdder pending = counter != null ? counter : new LongAdder();
+            pending.increment();
+            return pending;
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-stats.flush-interval-ms:5000}",
+            initialDelayString = "${shareit.item-stats.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить статистику вещей, повтор при следующем сбросе", e);
+        }
+    }
+
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = new HashMap<>();
+            pendingBookings.forEach((itemId, counter) -> {
+                long delta = counter.sum();
+                if (delta != 0) {
+                    deltas.put(itemId, delta);
+                }
+            });
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            transaction.execute(status -> {
+                write(deltas);
+                return null;
+            });
+            deltas.forEach((itemId, delta) -> pendingBookings.computeIfPresent(itemId, (id, counter) -> {
+                counter.add(-delta);
+                // записи без новых подтверждений удаляются, иначе таблица растёт на каждую вещь
+                return counter.sum() == 0 ? null : counter;
+            }));
+            log.debug("Статистика сохранена для {} вещей", deltas.size());
+            return deltas.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    int pendingItems() {
+        return pendingBookings.size();
+    }
+
+    @Override
+    public void destroy() {
+        log.info("Сохранение статистики вещей перед остановкой: сохранено для {} вещей", flush());
+    }
+
+    // существующие строки обновляются, недостающие вставляются - одним пакетом (hibernate.jdbc.batch_size)
+    private void write(Map<Long, Long> deltas) {
+        List<ItemStats> changed = new ArrayList<>(deltas.size());
+        Map<Long, Long> missing = new HashMap<>(deltas);
+        for (ItemStats stats : itemStatsRepository.findAllForUpdateByItemIdIn(deltas.keySet())) {
+            stats.setBookingCount(stats.getBookingCount() + missing.remove(stats.getItemId()));
+            changed.add(stats);
+        }
+        missing.forEach((itemId, delta) -> changed.add(new ItemStats(itemId, delta)));
+        itemStatsRepository.saveAll(changed);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.stats;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.stats.model.ItemStats;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemStatsRepository extends JpaRepository<ItemStats, Long> {
+    // блокировка строк: сбросы с нескольких узлов прибавляют свои значения по очереди
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemStats s where s.itemId in :itemIds")
+    List<ItemStats> findAllForUpdateByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+}
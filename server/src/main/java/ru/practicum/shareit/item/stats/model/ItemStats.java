@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.stats.model;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_stats")
+public class ItemStats implements Persistable<Long> {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "booking_count")
+    private long bookingCount;
+    // id задаётся вручную: без флага save() делал бы лишний select перед каждой вставкой
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private boolean created;
+
+    public ItemStats(Long itemId, long bookingCount) {
+        this(itemId, bookingCount, true);
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        created = false;
+    }
+}
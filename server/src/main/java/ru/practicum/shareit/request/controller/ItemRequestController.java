@@ -5,6 +5,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestAddDto;
 import ru.practicum.shareit.request.dto.ItemRequestLogDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.sql.StatementBudget;
 
 import java.util.List;
 
@@ -23,28 +24,39 @@ public class ItemRequestController {
     @PostMapping
     public ItemRequestLogDto addItemRequest(@RequestBody ItemRequestAddDto itemRequestAddDto,
                                             @RequestHeader(REQUESTER_HEADER) Long requesterId) {
-        log.info("Получен POST-запрос к эндпоинту: '/requests' на добавление запроса от ползователя {}", requesterId);
+        log.debug("Получен POST-запрос к эндпоинту: '/requests' на добавление запроса от ползователя {}", requesterId);
         return itemRequestService.addItemRequest(itemRequestAddDto, requesterId);
     }
 
+    @StatementBudget(6)
     @GetMapping
     public List<ItemRequestLogDto> getAllItemRequestsByUserId(@RequestHeader(REQUESTER_HEADER) Long requesterId) {
-        log.info("Получен GET-запрос к эндпоинту: '/requests' на просмотр своих запросов от ползователя {}", requesterId);
+        log.debug("Получен GET-запрос к эндпоинту: '/requests' на просмотр своих запросов от ползователя {}", requesterId);
         return itemRequestService.getAllItemRequestsByUserId(requesterId);
     }
 
+    @StatementBudget(6)
     @GetMapping("/all")
     public List<ItemRequestLogDto> getAllItemRequests(@RequestHeader(REQUESTER_HEADER) Long requesterId,
                                                       @RequestParam(defaultValue = "0") int from,
                                                       @RequestParam(defaultValue = "10") int size) {
-        log.info("Получен GET-запрос к эндпоинту: '/requests/all' на просмотр всех запросов от ползователя {}", requesterId);
+        log.debug("Получен GET-запрос к эндпоинту: '/requests/all' на просмотр всех запросов от ползователя {}", requesterId);
         return itemRequestService.getAllItemRequests(requesterId, from, size);
     }
 
+    @StatementBudget(6)
+    @GetMapping("/matching")
+    public List<ItemRequestLogDto> getMatchingItemRequests(@RequestHeader(REQUESTER_HEADER) Long ownerId,
+                                                           @RequestParam(defaultValue = "0") int from,
+                                                           @RequestParam(defaultValue = "10") int size) {
+        log.debug("Получен GET-запрос к эндпоинту: '/requests/matching' на подбор запросов для владельца {}", ownerId);
+        return itemRequestService.getMatchingItemRequests(ownerId, from, size);
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestLogDto getItemRequestById(@RequestHeader(REQUESTER_HEADER) Long userId,
                                                 @PathVariable Long requestId) {
-        log.info("Получен GET-запрос к эндпоинту: '/requests/{requestId}' " +
+        log.debug("Получен GET-запрос к эндпоинту: '/requests/{requestId}' " +
                 "на просмотр запроса с id {} от ползователя {}", requestId, userId);
         return itemRequestService.getItemRequestById(userId, requestId);
     }
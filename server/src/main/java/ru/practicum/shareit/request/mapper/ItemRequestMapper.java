@@ -1,15 +1,17 @@
 package ru.practicum.shareit.request.mapper;
 
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestAddDto;
 import ru.practicum.shareit.request.dto.ItemRequestLogDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public class ItemRequestMapper {
     public static ItemRequest mapToItemRequest(ItemRequestAddDto itemRequestAddDto, User requester) {
@@ -21,18 +23,31 @@ public class ItemRequestMapper {
     }
 
     public static ItemRequestLogDto mapToItemRequestLogDto(ItemRequest itemRequest) {
-        return ItemRequestLogDto.builder()
-                .id(itemRequest.getId())
-                .description(itemRequest.getDescription())
-                .created(itemRequest.getCreated())
-                .items(itemRequest.getItems() == null ? Collections.emptyList() :
-                        ItemMapper.mapToListItemInRequestLogDto(itemRequest.getItems()))
-                .build();
+        return mapToItemRequestLogDto(itemRequest, itemRequest.getItems() == null ? Collections.emptyList() :
+                itemRequest.getItems());
+    }
+
+    public static ItemRequestLogDto mapToItemRequestLogDto(ItemRequest itemRequest, List<Item> items) {
+        return new ItemRequestLogDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(),
+                ItemMapper.mapToListItemInRequestLogDto(items));
     }
 
     public static List<ItemRequestLogDto> mapToListItemRequestLogDto(List<ItemRequest> itemRequests) {
-        return itemRequests.stream()
-                .map(ItemRequestMapper::mapToItemRequestLogDto)
-                .collect(Collectors.toList());
+        List<ItemRequestLogDto> result = new ArrayList<>(itemRequests.size());
+        for (ItemRequest itemRequest : itemRequests) {
+            result.add(mapToItemRequestLogDto(itemRequest));
+        }
+        return result;
+    }
+
+    // вещи загружены заранее одним запросом и сгруппированы по id запроса
+    public static List<ItemRequestLogDto> mapToListItemRequestLogDto(List<ItemRequest> itemRequests,
+                                                                     Map<Long, List<Item>> itemsByRequestId) {
+        List<ItemRequestLogDto> result = new ArrayList<>(itemRequests.size());
+        for (ItemRequest itemRequest : itemRequests) {
+            result.add(mapToItemRequestLogDto(itemRequest,
+                    itemsByRequestId.getOrDefault(itemRequest.getId(), Collections.emptyList())));
+        }
+        return result;
     }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Проекция для первичной загрузки индекса: id запроса или вещи, её автор/владелец и текст
+@Getter
+@ToString
+@AllArgsConstructor
+public class IndexedText {
+    private Long id;
+    private Long userId;
+    private String text;
+}
@@ -0,0 +1,227 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Инвертированный индекс запросов по словам описания и профили владельцев по словам их вещей.
+// Счёт пары (владелец, запрос) - сумма по общим словам числа вещей владельца с этим словом.
+// Счета пересчитываются при изменениях: новый запрос затрагивает только владельцев с его словами,
+// изменение вещи - только запросы с её словами, поэтому выдача не сканирует все запросы.
+@Slf4j
+@Component
+public class ItemRequestMatchingIndex {
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int MAX_TERM_LENGTH = 6;
+    private static final String RUSSIAN_ENDING = "[аеёиоуыэюяйь]+$";
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, IndexedRequest> requests = new HashMap<>();
+    private final Map<String, Set<Long>> requestsByTerm = new HashMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> ownersByTerm = new HashMap<>();
+    private final Map<Long, Map<Long, Integer>> scoresByOwner = new HashMap<>();
+    private volatile boolean loaded;
+
+    public ItemRequestMatchingIndex(ItemRequestRepository itemRequestRepository, ItemRepository itemRepository) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    // id запросов других пользователей по убыванию счёта, при равенстве - сначала новые
+    public List<Long> match(Long ownerId, int from, int size) {
+        ensureLoaded();
+        List<Map.Entry<Long, Integer>> matches;
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = scoresByOwner.getOrDefault(ownerId, Collections.emptyMap());
+            matches = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Integer> score : scores.entrySet()) {
+                if (!ownerId.equals(requests.get(score.getKey()).requesterId)) {
+                    matches.add(Map.entry(score.getKey(), score.getValue()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed()));
+
+        List<Long> page = new ArrayList<>(Math.min(size, Math.max(matches.size() - from, 0)));
+        for (int i = from; i < matches.size() && page.size() < size; i++) {
+            page.add(matches.get(i).getKey());
+        }
+        return page;
+    }
+
+    public void requestSaved(Long requestId, Long requesterId, String description) {
+        afterCommit(() -> addRequest(requestId, requesterId, description));
+    }
+
+    public void itemSaved(Long itemId, Long ownerId, String name, String description) {
+        afterCommit(() -> {
+            removeItem(itemId);
+            addItem(itemId, ownerId, (name == null ? "" : name) + " " + (description == null ? "" : description));
+        });
+    }
+
+    public void itemDeleted(Long itemId) {
+        afterCommit(() -> removeItem(itemId));
+    }
+
+    static Set<String> terms(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.length() >= MIN_TERM_LENGTH) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    // грубая замена стемминга: "дрель" и "дрели", "аккумулятор" и "аккумуляторная" дают один терм
+    private static String stem(String word) {
+        String stem = word.replaceFirst(RUSSIAN_ENDING, "");
+        if (stem.length() < MIN_TERM_LENGTH) {
+            stem = word;
+        }
+        return stem.length() > MAX_TERM_LENGTH ? stem.substring(0, MAX_TERM_LENGTH) : stem;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    // loaded проверяется под блокировкой записи, которую первичная загрузка держит до конца:
+    // изменение, закоммиченное во время загрузки, дождётся её и будет применено, а не потеряно.
+    // До начала загрузки изменение не применяется: закоммиченные данные будут прочитаны из БД
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                log.debug("Индекс запросов - первичная загрузка запросов и вещей");
+                for (IndexedText request : itemRequestRepository.findAllIndexedTexts()) {
+                    addRequest(request.getId(), request.getUserId(), request.getText());
+                }
+                for (IndexedText item : itemRepository.findAllIndexedTexts()) {
+                    addItem(item.getId(), item.getUserId(), item.getText());
+                }
+                loaded = true;
+                log.info("Индекс запросов загружен: {} запросов, {} вещей", requests.size(), items.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // изменение могло уже попасть в индекс при первичной загрузке, поэтому повтор игнорируется
+    private void addRequest(Long requestId, Long requesterId, String description) {
+        if (requests.containsKey(requestId)) {
+            return;
+        }
+        Set<String> requestTerms = terms(description);
+        requests.put(requestId, new IndexedRequest(requesterId));
+        for (String term : requestTerms) {
+            requestsByTerm.computeIfAbsent(term, t -> new HashSet<>()).add(requestId);
+            for (Map.Entry<Long, Integer> owner : ownersByTerm.getOrDefault(term, Collections.emptyMap()).entrySet()) {
+                scoresByOwner.computeIfAbsent(owner.getKey(), id -> new HashMap<>())
+                        .merge(requestId, owner.getValue(), Integer::sum);
+            }
+        }
+    }
+
+    private void addItem(Long itemId, Long ownerId, String text) {
+        IndexedItem item = new IndexedItem(ownerId, terms(text));
+        items.put(itemId, item);
+        applyItemTerms(item, 1);
+    }
+
+    private void removeItem(Long itemId) {
+        IndexedItem item = items.remove(itemId);
+        if (item != null) {
+            applyItemTerms(item, -1);
+        }
+    }
+
+    private void applyItemTerms(IndexedItem item, int delta) {
+        Map<Long, Integer> scores = scoresByOwner.computeIfAbsent(item.ownerId, id -> new HashMap<>());
+        for (String term : item.terms) {
+            Map<Long, Integer> owners = ownersByTerm.computeIfAbsent(term, t -> new HashMap<>());
+            if (owners.merge(item.ownerId, delta, Integer::sum) == 0) {
+                owners.remove(item.ownerId);
+                if (owners.isEmpty()) {
+                    ownersByTerm.remove(term);
+                }
+            }
+            for (Long requestId : requestsByTerm.getOrDefault(term, Collections.emptySet())) {
+                if (scores.merge(requestId, delta, Integer::sum) == 0) {
+                    scores.remove(requestId);
+                }
+            }
+        }
+        if (scores.isEmpty()) {
+            scoresByOwner.remove(item.ownerId);
+        }
+    }
+
+    private static class IndexedRequest {
+        private final Long requesterId;
+
+        private IndexedRequest(Long requesterId) {
+            this.requesterId = requesterId;
+        }
+    }
+
+    private static class IndexedItem {
+        private final Long ownerId;
+        private final Set<String> terms;
+
+        private IndexedItem(Long ownerId, Set<String> terms) {
+            this.ownerId = ownerId;
+            this.terms = terms;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.matching.IndexedText;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
@@ -10,4 +12,8 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
 
     List<ItemRequest> findAllByRequesterIdNot(Long requesterId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.request.matching.IndexedText(r.id, r.requester.id, r.description) " +
+            " from ItemRequest r")
+    List<IndexedText> findAllIndexedTexts();
 }
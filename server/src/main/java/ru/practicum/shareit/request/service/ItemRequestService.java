@@ -13,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestLogDto> getAllItemRequests(Long requesterId, int from, int size);
 
     ItemRequestLogDto getItemRequestById(Long userId, Long id);
+
+    List<ItemRequestLogDto> getMatchingItemRequests(Long ownerId, int from, int size);
 }
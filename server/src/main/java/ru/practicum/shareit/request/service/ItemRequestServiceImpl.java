@@ -1,21 +1,29 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestAddDto;
 import ru.practicum.shareit.request.dto.ItemRequestLogDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.ItemRequestMatchingIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Slf4j
@@ -23,11 +31,17 @@ import java.util.List;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private ItemRequestRepository itemRequestRepository;
     private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private ItemRequestMatchingIndex itemRequestMatchingIndex;
 
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  ItemRepository itemRepository,
+                                  ItemRequestMatchingIndex itemRequestMatchingIndex) {
         this.itemRequestRepository = itemRequestRepository;
         this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestMatchingIndex = itemRequestMatchingIndex;
     }
 
     @Override
@@ -36,6 +50,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         log.debug("Сервис - добавление запроса от пользователя {}", requesterId);
         User requester = getRequester(requesterId);
         ItemRequest itemRequest = itemRequestRepository.save(ItemRequestMapper.mapToItemRequest(itemRequestAddDto, requester));
+        itemRequestMatchingIndex.requestSaved(itemRequest.getId(), requesterId, itemRequest.getDescription());
         return ItemRequestMapper.mapToItemRequestLogDto(itemRequest);
     }
 
@@ -44,8 +59,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestLogDto> getAllItemRequestsByUserId(Long requesterId) {
         log.debug("Сервис - проосомтр всех своих запросов от пользователя {}", requesterId);
         getRequester(requesterId);
-        return ItemRequestMapper.mapToListItemRequestLogDto(itemRequestRepository
-                .findByRequesterIdOrderByCreatedDesc(requesterId));
+        return mapWithItems(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(requesterId));
     }
 
     @Override
@@ -54,9 +68,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         log.debug("Сервис - проосомтр всех запросов от пользователя {}", requesterId);
         getRequester(requesterId);
         Sort sort = Sort.by(Sort.Order.desc("created"));
-        Pageable pageable = PageRequest.of(from, size, sort);
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterIdNot(requesterId, pageable);
-        return ItemRequestMapper.mapToListItemRequestLogDto(itemRequests);
+        Pageable pageable = OffsetPageRequest.of(from, size, sort);
+        return mapWithItems(itemRequestRepository.findAllByRequesterIdNot(requesterId, pageable));
     }
 
     @Override
@@ -67,7 +80,43 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         log.debug("Сервис - проверка запроса на существование");
         ItemRequest itemRequest = itemRequestRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("Запроса с id " + id + " не существует"));
-        return ItemRequestMapper.mapToItemRequestLogDto(itemRequest);
+        return ItemRequestMapper.mapToItemRequestLogDto(itemRequest,
+                itemRepository.findAllByItemRequestIdIn(List.of(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestLogDto> getMatchingItemRequests(Long ownerId, int from, int size) {
+        log.debug("Сервис - подбор запросов под вещи владельца {}", ownerId);
+        getRequester(ownerId);
+        List<Long> ids = itemRequestMatchingIndex.match(ownerId, from, size);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        // порядок выдачи задаёт индекс
+        List<ItemRequest> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ItemRequest itemRequest = itemRequests.get(id);
+            if (itemRequest != null) {
+                ranked.add(itemRequest);
+            }
+        }
+        return mapWithItems(ranked);
+    }
+
+    // вещи всех запросов страницы одним запросом вместо ленивой загрузки ItemRequest.items на каждый
+    private List<ItemRequestLogDto> mapWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequestId = itemRepository.findAllByItemRequestIdIn(ids).stream()
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId()));
+        return ItemRequestMapper.mapToListItemRequestLogDto(itemRequests, itemsByRequestId);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.sql;
+
+import ru.practicum.shareit.sql.dto.SqlFingerprintStatsDto;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Статистика одного отпечатка. Гистограмма задержек - корзины по степеням двойки в микросекундах
+// за текущее и предыдущее окно: перцентили показывают последние минуты, а не всё время работы.
+// Запись идёт под ReentrantLock (synchronized закрепляет виртуальный поток за носителем), а count и
+// totalNanos читаются без блокировки: по ним вытеснение ищет самый редкий отпечаток и сортируется top.
+class FingerprintStats {
+    private static final int BUCKETS = 32;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String fingerprint;
+    private volatile long count;
+    private final long countError;
+    private volatile long totalNanos;
+    private long maxNanos;
+    private long countedRows;
+    private long rowsSamples;
+    private long maxRows;
+    private long slowCount;
+    private String lastSlowCaller;
+
+    private long window;
+    private long[] current = new long[BUCKETS];
+    private long[] previous = new long[BUCKETS];
+
+    // Space-Saving: новый отпечаток наследует счётчик вытесненного, это и есть его возможная ошибка
+    FingerprintStats(String fingerprint, long inheritedCount, long window) {
+        this.fingerprint = fingerprint;
+        this.count = inheritedCount;
+        this.countError = inheritedCount;
+        this.window = window;
+    }
+
+    void record(long nanos, long rows, long window, String slowCaller) {
+        lock.lock();
+        try {
+            rotate(window);
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (rows >= 0) {
+                countedRows += rows;
+                rowsSamples++;
+                maxRows = Math.max(maxRows, rows);
+            }
+            if (slowCaller != null) {
+                slowCount++;
+                lastSlowCaller = slowCaller;
+            }
+            current[bucket(nanos)]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getTotalNanos() {
+        return totalNanos;
+    }
+
+    SqlFingerprintStatsDto snapshot(long window) {
+        lock.lock();
+        try {
+            rotate(window);
+            long[] histogram = new long[BUCKETS];
+            long samples = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = current[i] + previous[i];
+                samples += histogram[i];
+            }
+            long recorded = count - countError;
+            double maxMs = maxNanos / NANOS_PER_MS;
+            // граница корзины может оказаться больше максимума
+            return new SqlFingerprintStatsDto(fingerprint, count, countError,
+                    totalNanos / NANOS_PER_MS,
+                    recorded == 0 ? 0 : totalNanos / NANOS_PER_MS / recorded,
+                    Math.min(percentile(histogram, samples, 0.5), maxMs),
+                    Math.min(percentile(histogram, samples, 0.95), maxMs),
+                    Math.min(percentile(histogram, samples, 0.99), maxMs),
+                    maxMs,
+                    rowsSamples == 0 ? 0 : (double) countedRows / rowsSamples,
+                    maxRows, slowCount, lastSlowCaller);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rotate(long window) {
+        if (window == this.window) {
+            return;
+        }
+        long[] recycled = previous;
+        Arrays.fill(recycled, 0);
+        if (window != this.window + 1) {
+            // пропущено больше окна - прошлые данные неактуальны целиком
+            Arrays.fill(current, 0);
+        }
+        previous = current;
+        current = recycled;
+        this.window = window;
+    }
+
+    // корзина i - задержки до 2^i мкс
+    private static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    // верхняя граница корзины, в которую попадает перцентиль
+    private static double percentile(long[] histogram, long samples, double quantile) {
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(samples * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return (1L << (BUCKETS - 1)) / 1000.0;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.sql;
+
+import java.util.regex.Pattern;
+
+// Нормализованный текст запроса: литералы заменяются на ?, списки IN (?, ?, ...) сворачиваются в один ?,
+// переводы строк format_sql - в пробелы. Одинаковые по смыслу запросы дают один отпечаток.
+public final class SqlFingerprint {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        String fingerprint = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        fingerprint = STRING_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        return IN_LIST.matcher(fingerprint).replaceAll("in (?)");
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.sql.dto.SqlFingerprintStatsDto;
+
+import java.util.List;
+
+// GET /actuator/sqlstats?limit=N - самые затратные запросы по суммарному времени, DELETE - сброс статистики
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlStatsRecorder recorder;
+
+    public SqlStatsEndpoint(SqlStatsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<SqlFingerprintStatsDto> top(@Nullable Integer limit) {
+        return recorder.top(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.sql.dto.SqlFingerprintStatsDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Статистика выполненных SQL-запросов по отпечаткам. Память ограничена: в таблице не больше capacity
+// отпечатков, при переполнении вытесняется самый редкий (Space-Saving), так что частые и тяжёлые запросы
+// остаются, а одноразовые - нет. Запросы дольше slowThreshold пишутся в лог с вызвавшим их методом.
+@Slf4j
+public class SqlStatsRecorder {
+    private static final String APP_PACKAGE = "ru.practicum.shareit.";
+    private static final String SQL_PACKAGE = SqlStatsRecorder.class.getPackageName() + ".";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final int capacity;
+    private final long windowNanos;
+    private final long slowThresholdNanos;
+    private final Map<String, FingerprintStats> stats = new ConcurrentHashMap<>();
+    // только для промаха по таблице: проход по capacity отпечаткам не попадает в путь каждого запроса
+    private final ReentrantLock registerLock = new ReentrantLock();
+    // Hibernate повторяет одни и те же строки SQL: нормализация выполняется один раз на текст
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    public SqlStatsRecorder(int capacity, Duration window, Duration slowThreshold) {
+        this.capacity = capacity;
+        this.windowNanos = window.toNanos();
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    // rows < 0 - число строк неизвестно
+    public void record(String sql, long nanos, long rows) {
+        if (sql == null) {
+            return;
+        }
+        String fingerprint = fingerprint(sql);
+        String slowCaller = null;
+        if (nanos >= slowThresholdNanos) {
+            slowCaller = findCaller();
+            log.warn("Медленный SQL-запрос: {} мс, строк {}, вызван из {}: {}",
+                    nanos / 1_000_000, rows, slowCaller, fingerprint);
+        }
+        long window = currentWindow();
+        FingerprintStats fingerprintStats = stats.get(fingerprint);
+        if (fingerprintStats == null) {
+            fingerprintStats = register(fingerprint, window);
+        }
+        fingerprintStats.record(nanos, rows, window, slowCaller);
+    }
+
+    // самые затратные по суммарному времени
+    public List<SqlFingerprintStatsDto> top(int limit) {
+        List<FingerprintStats> all = new ArrayList<>(stats.values());
+        all.sort(Comparator.comparingLong(FingerprintStats::getTotalNanos).reversed());
+        long window = currentWindow();
+        List<SqlFingerprintStatsDto> result = new ArrayList<>(Math.min(limit, all.size()));
+        for (int i = 0; i < Math.min(limit, all.size()); i++) {
+            result.add(all.get(i).snapshot(window));
+        }
+        return result;
+    }
+
+    public void reset() {
+        stats.clear();
+        fingerprints.clear();
+    }
+
+    private String fingerprint(String sql) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.of(sql);
+            // тексты с литералами вместо параметров могут не повторяться - кэш не растёт бесконечно
+            if (fingerprints.size() >= capacity * 4) {
+                fingerprints.clear();
+            }
+            fingerprints.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private FingerprintStats register(String fingerprint, long window) {
+        registerLock.lock();
+        try {
+            FingerprintStats existing = stats.get(fingerprint);
+            if (existing != null) {
+                return existing;
+            }
+            long inheritedCount = stats.size() >= capacity ? evictRarest() : 0;
+            FingerprintStats created = new FingerprintStats(fingerprint, inheritedCount, window);
+            stats.put(fingerprint, created);
+            return created;
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    // возвращает счётчик вытесненного - его наследует новый отпечаток
+    private long evictRarest() {
+        Map.Entry<String, FingerprintStats> rarest = null;
+        for (Map.Entry<String, FingerprintStats> entry : stats.entrySet()) {
+            if (rarest == null || entry.getValue().getCount() < rarest.getValue().getCount()) {
+                rarest = entry;
+            }
+        }
+        stats.remove(rarest.getKey());
+        return rarest.getValue().getCount();
+    }
+
+    private long currentWindow() {
+        return System.nanoTime() / windowNanos;
+    }
+
+    // первый метод приложения выше репозиториев: сервис, задача или загрузчик страницы
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                        && !frame.getClassName().startsWith(SQL_PACKAGE)
+                        && !frame.getClassName().contains("Repository")
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) +
+                        "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("неизвестно"));
+    }
+}
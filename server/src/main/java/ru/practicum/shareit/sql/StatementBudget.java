@@ -0,0 +1,14 @@
+package ru.practicum.shareit.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Сколько SQL-запросов может выполнить один вызов эндпоинта; без аннотации действует
+// shareit.sql.statement-budget.default. У списков бюджет не должен зависеть от размера страницы.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Считает SQL-запросы обработчика: бюджет берётся из @StatementBudget, превышение пишется в лог,
+// число запросов - в метрику shareit.http.server.statements с шаблоном URI.
+@Slf4j
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+    static final String BUDGET_ATTRIBUTE = StatementBudgetInterceptor.class.getName() + ".budget";
+
+    private final int defaultBudget;
+    private final MeterRegistry meterRegistry;
+
+    public StatementBudgetInterceptor(int defaultBudget, MeterRegistry meterRegistry) {
+        this.defaultBudget = defaultBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            StatementBudget budget = ((HandlerMethod) handler).getMethodAnnotation(StatementBudget.class);
+            request.setAttribute(BUDGET_ATTRIBUTE, budget != null ? budget.value() : defaultBudget);
+            StatementCounter.start();
+        }
+        return true;
+    }
+
+    // SSE: поток возвращается в пул до конца ответа, счётчик не должен достаться следующему запросу
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        StatementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Integer budget = (Integer) request.getAttribute(BUDGET_ATTRIBUTE);
+        if (budget == null) {
+            return;
+        }
+        int count = StatementCounter.stop();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        if (meterRegistry != null) {
+            DistributionSummary.builder("shareit.http.server.statements")
+                    .description("SQL-запросы на один HTTP-запрос")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(count);
+        }
+        if (count > budget) {
+            log.warn("Запрос {} {} выполнил {} SQL-запросов при бюджете {}", request.getMethod(), uri, count, budget);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.exception.StatementBudgetExceededException;
+
+import javax.servlet.http.HttpServletRequest;
+
+// Число SQL-запросов в заголовке ответа и отказ при превышении бюджета - для тестов и стендов.
+// Заголовки надо выставить до записи тела, поэтому это совет для тела ответа, а не перехватчик.
+@RestControllerAdvice
+public class StatementBudgetResponseAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-Statement-Count";
+    private static final String EXCEEDED_ATTRIBUTE = StatementBudgetResponseAdvice.class.getName() + ".exceeded";
+
+    private final boolean responseHeader;
+    private final boolean failOnExceed;
+
+    public StatementBudgetResponseAdvice(
+            @Value("${shareit.sql.statement-budget.response-header:false}") boolean responseHeader,
+            @Value("${shareit.sql.statement-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        this.responseHeader = responseHeader;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return responseHeader || failOnExceed;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        Integer budget = (Integer) servletRequest.getAttribute(StatementBudgetInterceptor.BUDGET_ATTRIBUTE);
+        if (budget == null) {
+            return body;
+        }
+        int count = StatementCounter.current();
+        if (responseHeader) {
+            response.getHeaders().set(HEADER, String.valueOf(count));
+        }
+        // тело ответа об ошибке проходит через этот же совет - второй раз не отказываем
+        if (failOnExceed && count > budget && servletRequest.getAttribute(EXCEEDED_ATTRIBUTE) == null) {
+            servletRequest.setAttribute(EXCEEDED_ATTRIBUTE, Boolean.TRUE);
+            throw new StatementBudgetExceededException("Запрос " + servletRequest.getMethod() + " " +
+                    servletRequest.getRequestURI() + " выполнил " + count + " SQL-запросов при бюджете " + budget);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Счётчик SQL-запросов текущего HTTP-запроса. Hibernate создаёт инспектор сам по имени класса
+// (hibernate.session_factory.statement_inspector), поэтому состояние - статический ThreadLocal:
+// считаются запросы потока, обрабатывающего HTTP-запрос, параллельная загрузка страницы вещей - нет.
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
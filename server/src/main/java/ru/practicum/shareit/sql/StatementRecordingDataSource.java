@@ -0,0 +1,173 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.shareit.tracing.Tracing;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Обёртка пула соединений: время выполнения и число строк каждого запроса уходят в SqlStatsRecorder,
+// время - ещё и в текущий спан трассы.
+// Для выборок число строк известно только после чтения ResultSet, поэтому запись делается при его закрытии.
+public class StatementRecordingDataSource extends DelegatingDataSource {
+    private static final ClassLoader CLASS_LOADER = StatementRecordingDataSource.class.getClassLoader();
+
+    private final SqlStatsRecorder recorder;
+
+    public StatementRecordingDataSource(DataSource targetDataSource, SqlStatsRecorder recorder) {
+        super(targetDataSource);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementRecordingDataSource.invoke(connection, method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+            // у prepareStatement и prepareCall текст запроса - первый аргумент, у createStatement - в execute
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            Class<?> type = result instanceof CallableStatement ? CallableStatement.class :
+                    result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{type},
+                    new StatementHandler((Statement) result, sql));
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private ResultSetHandler lastResultSet;
+
+        StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                finishResultSet();
+                return StatementRecordingDataSource.invoke(statement, method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return StatementRecordingDataSource.invoke(statement, method, args);
+            }
+            String executed = sql != null ? sql :
+                    args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            long start = System.nanoTime();
+            Object result = StatementRecordingDataSource.invoke(statement, method, args);
+            long nanos = System.nanoTime() - start;
+            Tracing.recordDatabaseCall(nanos);
+            if (result instanceof ResultSet) {
+                finishResultSet();
+                lastResultSet = new ResultSetHandler((ResultSet) result, executed, nanos);
+                return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{ResultSet.class}, lastResultSet);
+            }
+            recorder.record(executed, nanos, rows(result));
+            return result;
+        }
+
+        // ResultSet, закрытый вместе с Statement, а не сам по себе
+        private void finishResultSet() {
+            if (lastResultSet != null) {
+                lastResultSet.finish();
+                lastResultSet = null;
+            }
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        // execute(): выборка или изменение - заранее неизвестно
+        return -1;
+    }
+
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final String sql;
+        private final long nanos;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet resultSet, String sql, long nanos) {
+            this.resultSet = resultSet;
+            this.sql = sql;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementRecordingDataSource.invoke(resultSet, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (name.equals("close")) {
+                finish();
+            }
+            return result;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                recorder.record(sql, nanos, rows);
+            }
+        }
+    }
+}
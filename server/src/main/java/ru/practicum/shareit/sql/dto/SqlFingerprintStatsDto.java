@@ -0,0 +1,26 @@
+package ru.practicum.shareit.sql.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlFingerprintStatsDto {
+    private String fingerprint;
+    private long count;
+    // насколько count может быть завышен после вытеснения отпечатка из таблицы
+    private long countError;
+    private double totalMs;
+    private double meanMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+    private double meanRows;
+    private long maxRows;
+    private long slowCount;
+    private String lastSlowCaller;
+}
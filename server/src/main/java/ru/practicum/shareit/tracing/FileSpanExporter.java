@@ -0,0 +1,76 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import ru.practicum.shareit.tracing.dto.SpanDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Спаны построчно в JSON (JSON Lines) в локальный файл. Запись - в отдельном потоке через
+// ограниченную очередь: при отставании диска трассы отбрасываются, запрос не ждёт.
+@Slf4j
+public class FileSpanExporter implements SpanExporter, DisposableBean {
+    private final ObjectMapper mapper;
+    private final BufferedWriter writer;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public FileSpanExporter(Path file, int queueCapacity, ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "span-exporter");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> dropped.incrementAndGet());
+    }
+
+    @Override
+    public void export(List<SpanDto> trace) {
+        executor.execute(() -> write(trace));
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void write(List<SpanDto> trace) {
+        try {
+            for (SpanDto span : trace) {
+                writer.write(mapper.writeValueAsString(span));
+                writer.newLine();
+            }
+            if (executor.getQueue().isEmpty()) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось записать трассу {}: {}", trace.get(0).getTraceId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        writer.close();
+    }
+}
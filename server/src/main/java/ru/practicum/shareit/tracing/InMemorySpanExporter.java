@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import ru.practicum.shareit.tracing.dto.SpanDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+// Последние capacity трасс в памяти, отдаются через /actuator/traces
+public class InMemorySpanExporter implements SpanExporter {
+    private final int capacity;
+    private final Deque<List<SpanDto>> traces;
+
+    public InMemorySpanExporter(int capacity) {
+        this.capacity = capacity;
+        this.traces = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public synchronized void export(List<SpanDto> trace) {
+        if (traces.size() == capacity) {
+            traces.removeFirst();
+        }
+        traces.addLast(trace);
+    }
+
+    // от новых к старым
+    public synchronized List<List<SpanDto>> recent(int limit) {
+        List<List<SpanDto>> result = new ArrayList<>(Math.min(limit, traces.size()));
+        Iterator<List<SpanDto>> iterator = traces.descendingIterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+}
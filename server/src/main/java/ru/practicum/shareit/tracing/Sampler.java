@@ -0,0 +1,32 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Решение о записи трассы: если gateway уже решил (флаг sampled в traceparent) - следуем ему,
+// иначе выбираем долю rate запросов. Долю можно менять на ходу через /actuator/traces.
+public class Sampler {
+    private volatile double rate;
+
+    public Sampler(double rate) {
+        setRate(rate);
+    }
+
+    public boolean isSampled(TraceContext incoming) {
+        if (incoming != null) {
+            return incoming.isSampled();
+        }
+        double current = rate;
+        return current > 0 && ThreadLocalRandom.current().nextDouble() < current;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Доля сэмплирования должна быть от 0 до 1: " + rate);
+        }
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Спан записи тела ответа: открывается перед конвертером, а закрывает его TracingFilter
+// вместе с корневым - у конвертера нет точки "после записи".
+@RestControllerAdvice
+public class SerializationSpanAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (Tracing.isActive()) {
+            Tracing.startChild("serialize " + selectedContentType.getSubtype(), "serialize");
+        }
+        return body;
+    }
+}
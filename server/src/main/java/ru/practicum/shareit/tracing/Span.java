@@ -0,0 +1,108 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Спан трассы HTTP-запроса. Все спаны одной трассы собираются в общий список корневого
+// и уходят в экспортёр одной пачкой, когда корневой закрывается.
+public class Span {
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final String kind;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final Span parent;
+    private final List<Span> trace;
+    private long durationNanos = -1;
+    private int dbCalls;
+    private long dbNanos;
+    private String error;
+
+    private Span(String traceId, String spanId, String parentSpanId, String name, String kind, Span parent,
+                 List<Span> trace) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.parent = parent;
+        this.trace = trace;
+        this.startEpochMicros = System.currentTimeMillis() * 1000;
+        this.startNanos = System.nanoTime();
+        trace.add(this);
+    }
+
+    // parentSpanId - спан вызывающей стороны (gateway) или null, если трасса начинается здесь
+    static Span root(String traceId, String parentSpanId, String name) {
+        return new Span(traceId, TraceContext.randomSpanId(), parentSpanId, name, "server", null,
+                new ArrayList<>());
+    }
+
+    Span child(String name, String kind) {
+        return new Span(traceId, TraceContext.randomSpanId(), spanId, name, kind, this, trace);
+    }
+
+    void end(Throwable error) {
+        if (durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+            if (error != null) {
+                this.error = error.getClass().getSimpleName();
+            }
+        }
+    }
+
+    void addDatabaseCall(long nanos) {
+        dbCalls++;
+        dbNanos += nanos;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getDbCalls() {
+        return dbCalls;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    List<Span> getTrace() {
+        return trace;
+    }
+}
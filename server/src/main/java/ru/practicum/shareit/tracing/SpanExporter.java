@@ -0,0 +1,10 @@
+package ru.practicum.shareit.tracing;
+
+import ru.practicum.shareit.tracing.dto.SpanDto;
+
+import java.util.List;
+
+// Приёмник законченных трасс; вызывается в потоке запроса, поэтому не должен блокироваться
+public interface SpanExporter {
+    void export(List<SpanDto> trace);
+}
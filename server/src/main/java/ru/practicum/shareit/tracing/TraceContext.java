@@ -0,0 +1,101 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Контекст трассы в формате W3C traceparent: 00-<trace-id 32 hex>-<parent-id 16 hex>-<флаги>.
+public final class TraceContext {
+    public static final String HEADER = "traceparent";
+    private static final int TRACE_ID_LENGTH = 32;
+    private static final int SPAN_ID_LENGTH = 16;
+    private static final int HEADER_LENGTH = 55;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    private TraceContext(String traceId, String spanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    public static TraceContext newRoot(boolean sampled) {
+        return new TraceContext(randomHex(TRACE_ID_LENGTH), randomHex(SPAN_ID_LENGTH), sampled);
+    }
+
+    // null, если заголовка нет или он не разбирается: тогда трасса начинается заново
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null || traceparent.length() != HEADER_LENGTH || traceparent.charAt(2) != '-'
+                || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-'
+                || !isHex(traceparent, 0, 2) || traceparent.startsWith("ff") || !isHex(traceparent, 53, 55)) {
+            return null;
+        }
+        String traceId = traceparent.substring(3, 35);
+        String spanId = traceparent.substring(36, 52);
+        if (!isHex(traceId, 0, TRACE_ID_LENGTH) || isZero(traceId)
+                || !isHex(spanId, 0, SPAN_ID_LENGTH) || isZero(spanId)) {
+            return null;
+        }
+        int flags = Character.digit(traceparent.charAt(54), 16);
+        return new TraceContext(traceId, spanId, (flags & 1) == 1);
+    }
+
+    // контекст для исходящего вызова или дочернего спана: та же трасса, свой идентификатор
+    public TraceContext child() {
+        return new TraceContext(traceId, randomHex(SPAN_ID_LENGTH), sampled);
+    }
+
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public static String randomSpanId() {
+        return randomHex(SPAN_ID_LENGTH);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    private static boolean isHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String randomHex(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] hex = new char[length];
+        long bits = 0;
+        for (int i = 0; i < length; i++) {
+            if (i % 16 == 0) {
+                bits = random.nextLong();
+            }
+            hex[i] = HEX_DIGITS[(int) (bits & 0xF)];
+            bits >>>= 4;
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+// Публичные методы контроллеров, сервисов и репозиториев приложения
+public class TracedComponentsPointcut extends StaticMethodMatcherPointcut {
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class
+                && TracingMethodInterceptor.isTraced(targetClass);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.tracing.dto.SpanDto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// GET /actuator/traces?limit=N - последние трассы (только для экспортёра memory),
+// POST /actuator/traces {"sampleRate": 0.05} - доля записываемых запросов без перезапуска
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final Sampler sampler;
+    private final SpanExporter exporter;
+
+    public TracesEndpoint(Sampler sampler, SpanExporter exporter) {
+        this.sampler = sampler;
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traces(@Nullable Integer limit) {
+        List<List<SpanDto>> traces = exporter instanceof InMemorySpanExporter ?
+                ((InMemorySpanExporter) exporter).recent(limit != null ? limit : DEFAULT_LIMIT) :
+                Collections.emptyList();
+        return Map.of("sampleRate", sampler.getRate(), "traces", traces);
+    }
+
+    @WriteOperation
+    public Map<String, Object> sampleRate(double sampleRate) {
+        sampler.setRate(sampleRate);
+        return Map.of("sampleRate", sampler.getRate());
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.tracing;
+
+// Текущий спан потока. Дочерние спаны открываются только внутри выбранной сэмплированием трассы:
+// для остальных запросов вся цена трассировки - чтение ThreadLocal.
+public final class Tracing {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static Span startRoot(String traceId, String parentSpanId, String name) {
+        Span root = Span.root(traceId, parentSpanId, name);
+        CURRENT.set(root);
+        return root;
+    }
+
+    // null вне трассы
+    public static Span startChild(String name, String kind) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return null;
+        }
+        Span span = parent.child(name, kind);
+        CURRENT.set(span);
+        return span;
+    }
+
+    public static void end(Span span, Throwable error) {
+        span.end(error);
+        CURRENT.set(span.getParent());
+    }
+
+    // закрывает и спаны, оставшиеся открытыми до конца запроса, например сериализацию ответа
+    static void endRoot(Span root, Throwable error) {
+        for (Span span = CURRENT.get(); span != null && span != root; span = span.getParent()) {
+            span.end(null);
+        }
+        root.end(error);
+        CURRENT.remove();
+    }
+
+    // время запроса к БД засчитывается текущему спану и всем объемлющим
+    public static void recordDatabaseCall(long nanos) {
+        for (Span span = CURRENT.get(); span != null; span = span.getParent()) {
+            span.addDatabaseCall(nanos);
+        }
+    }
+}
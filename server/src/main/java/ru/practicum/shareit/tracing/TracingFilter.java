@@ -0,0 +1,67 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.tracing.dto.SpanDto;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Корневой спан HTTP-запроса: продолжает трассу из traceparent gateway или начинает новую.
+// Трасса целиком отдаётся экспортёру после ответа.
+public class TracingFilter extends OncePerRequestFilter {
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final Sampler sampler;
+    private final SpanExporter exporter;
+
+    public TracingFilter(Sampler sampler, SpanExporter exporter) {
+        this.sampler = sampler;
+        this.exporter = exporter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TraceContext incoming = TraceContext.parse(request.getHeader(TraceContext.HEADER));
+        if (!sampler.isSampled(incoming)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Span root = incoming != null ?
+                Tracing.startRoot(incoming.getTraceId(), incoming.getSpanId(), request.getMethod()) :
+                Tracing.startRoot(TraceContext.newRoot(true).getTraceId(), null, request.getMethod());
+        Throwable error = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            Tracing.endRoot(root, error);
+            exporter.export(toDto(root.getTrace(), request, response));
+        }
+    }
+
+    private static List<SpanDto> toDto(List<Span> trace, HttpServletRequest request, HttpServletResponse response) {
+        List<SpanDto> result = new ArrayList<>(trace.size());
+        for (Span span : trace) {
+            String name = span.getName();
+            if (span.getParent() == null) {
+                // шаблон пути известен только после выбора обработчика
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                name = name + " " + (pattern != null ? pattern : request.getRequestURI()) +
+                        " " + response.getStatus();
+            }
+            result.add(new SpanDto(span.getTraceId(), span.getSpanId(), span.getParentSpanId(), name,
+                    span.getKind(), span.getStartEpochMicros(), span.getDurationNanos() / NANOS_PER_MS,
+                    span.getDbCalls(), span.getDbNanos() / NANOS_PER_MS, span.getError()));
+        }
+        return result;
+    }
+}
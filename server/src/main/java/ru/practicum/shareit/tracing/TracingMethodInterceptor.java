@@ -0,0 +1,66 @@
+package ru.practicum.shareit.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Спаны вызовов контроллеров, сервисов и репозиториев приложения: имя - класс (у репозиториев -
+// интерфейс) и метод. Вне трассы вызов проходит без записи.
+public class TracingMethodInterceptor implements MethodInterceptor {
+    static final String APP_PACKAGE = "ru.practicum.shareit.";
+
+    private final Map<Class<?>, String[]> components = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!Tracing.isActive()) {
+            return invocation.proceed();
+        }
+        String[] component = components.computeIfAbsent(AopUtils.getTargetClass(invocation.getThis()),
+                TracingMethodInterceptor::describe);
+        Span span = Tracing.startChild(component[0] + "." + invocation.getMethod().getName(), component[1]);
+        Throwable error = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            Tracing.end(span, error);
+        }
+    }
+
+    // {имя, вид спана}
+    static String[] describe(Class<?> type) {
+        if (type.isAnnotationPresent(RestController.class)) {
+            return new String[]{type.getSimpleName(), "controller"};
+        }
+        if (type.isAnnotationPresent(Service.class)) {
+            return new String[]{type.getSimpleName(), "service"};
+        }
+        for (Class<?> repository : type.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(repository) && repository.getName().startsWith(APP_PACKAGE)) {
+                return new String[]{repository.getSimpleName(), "repository"};
+            }
+        }
+        return new String[]{type.getSimpleName(), "internal"};
+    }
+
+    static boolean isTraced(Class<?> type) {
+        if (type.isAnnotationPresent(RestController.class) || type.isAnnotationPresent(Service.class)) {
+            return type.getName().startsWith(APP_PACKAGE);
+        }
+        for (Class<?> repository : type.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(repository) && repository.getName().startsWith(APP_PACKAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
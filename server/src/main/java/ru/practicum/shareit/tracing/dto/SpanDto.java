@@ -0,0 +1,22 @@
+package ru.practicum.shareit.tracing.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpanDto {
+    private String traceId;
+    private String spanId;
+    private String parentSpanId;
+    private String name;
+    private String kind;
+    private long startEpochMicros;
+    private double durationMs;
+    private int dbCalls;
+    private double dbMs;
+    private String error;
+}
@@ -21,33 +21,33 @@ public class UserController {
 
     @PostMapping
     public UserLogDto addUser(@RequestBody UserAddDto userAddDto) {
-        log.info("Получен POST-запрос к эндпоинту: '/users' на добавление пользователя: " +
+        log.debug("Получен POST-запрос к эндпоинту: '/users' на добавление пользователя: " +
                 "name: |{}, email: {}", userAddDto.getName(), userAddDto.getEmail());
         return userService.addUser(userAddDto);
     }
 
     @PatchMapping("/{userId}")
     public UserLogDto updateUser(@RequestBody UserUpdateDto userUpdateDto, @PathVariable Long userId) {
-        log.info("Получен PATCH-запрос к эндпоинту: '/users' на обновление пользователя с id {}: {}",
-                userId, userUpdateDto.toString());
+        log.debug("Получен PATCH-запрос к эндпоинту: '/users' на обновление пользователя с id {}: {}",
+                userId, userUpdateDto);
         return userService.updateUser(userUpdateDto, userId);
     }
 
     @GetMapping("/{userId}")
     public UserLogDto getUserById(@PathVariable Long userId) {
-        log.info("Получен GET-запрос к эндпоинту: '/users/{userId}' на получение пользователя по id {}", userId);
+        log.debug("Получен GET-запрос к эндпоинту: '/users/{userId}' на получение пользователя по id {}", userId);
         return userService.getUserById(userId);
     }
 
     @GetMapping
     public List<UserLogDto> getAllUsers() {
-        log.info("Получен GET-запрос к эндпоинту: '/users' на получение списка всех пользователей");
+        log.debug("Получен GET-запрос к эндпоинту: '/users' на получение списка всех пользователей");
         return userService.getAllUsers();
     }
 
     @DeleteMapping("/{userId}")
     public void deleteUserById(@PathVariable Long userId) {
-        log.info("Получен DELETE-запрос к эндпоинту: '/users/{userId}' на удаление пользователя по id {}", userId);
+        log.debug("Получен DELETE-запрос к эндпоинту: '/users/{userId}' на удаление пользователя по id {}", userId);
         userService.deleteUserById(userId);
     }
 }
@@ -4,8 +4,8 @@ import ru.practicum.shareit.user.dto.UserAddDto;
 import ru.practicum.shareit.user.dto.UserLogDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class UserMapper {
     public static User mapToUser(UserAddDto userAddDto) {
@@ -16,16 +16,14 @@ public class UserMapper {
     }
 
     public static UserLogDto mapToUserLogDto(User user) {
-        return UserLogDto.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .name(user.getName())
-                .build();
+        return new UserLogDto(user.getId(), user.getName(), user.getEmail());
     }
 
     public static List<UserLogDto> mapToListUserLogDto(List<User> users) {
-        return users.stream()
-                .map(UserMapper::mapToUserLogDto)
-                .collect(Collectors.toList());
+        List<UserLogDto> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            result.add(mapToUserLogDto(user));
+        }
+        return result;
     }
 }
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.FieldSet;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserLogDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Прогрев перед открытием трафика: Spring Boot переводит readiness в ACCEPTING_TRAFFIC только после
+// выполнения всех ApplicationRunner, поэтому пока идёт прогрев, /actuator/health/readiness отвечает 503.
+// Прогоняются основные запросы на чтение по реальным пользователям и сериализация ответов в JSON и Smile.
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "shareit.warm-up.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+    private static final int PAGE_SIZE = 20;
+    // несуществующий пользователь: если в БД пусто, прогреваются хотя бы запросы и ветки с ошибкой
+    private static final long SYNTHETIC_USER_ID = 0L;
+
+    private final UserRepository userRepository;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final int iterations;
+    private final int sampleUsers;
+    private final Duration timeout;
+
+    public WarmUpRunner(UserRepository userRepository, ItemService itemService, BookingService bookingService,
+                        ItemRequestService itemRequestService, ObjectMapper objectMapper,
+                        MappingJackson2SmileHttpMessageConverter smileConverter,
+                        @Value("${shareit.warm-up.iterations:200}") int iterations,
+                        @Value("${shareit.warm-up.sample-users:5}") int sampleUsers,
+                        @Value("${shareit.warm-up.timeout:30s}") Duration timeout) {
+        this.userRepository = userRepository;
+        this.itemService = itemService;
+        this.bookingService = bookingService;
+        this.itemRequestService = itemRequestService;
+        this.jsonMapper = objectMapper;
+        this.smileMapper = smileConverter.getObjectMapper();
+        this.iterations = iterations;
+        this.sampleUsers = sampleUsers;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + timeout.toNanos();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "warm-up"));
+        Future<Integer> warmUp = executor.submit(() -> warmUp(deadline));
+        try {
+            int completed = warmUp.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            log.info("Прогрев завершён: {} итераций за {} мс", completed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (TimeoutException e) {
+            warmUp.cancel(true);
+            log.warn("Прогрев прерван по таймауту {}", timeout);
+        } catch (ExecutionException e) {
+            log.warn("Прогрев завершился с ошибкой", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    int warmUp(long deadline) throws JsonProcessingException {
+        Sort sort = Sort.by(Sort.Order.asc("id"));
+        List<Long> userIds = userRepository.findAll(PageRequest.of(0, sampleUsers, sort)).getContent().stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+        if (userIds.isEmpty()) {
+            userIds = List.of(SYNTHETIC_USER_ID);
+        }
+        log.info("Прогрев: до {} итераций по пользователям {}, не дольше {}", iterations, userIds, timeout);
+
+        List<BookingLogDto> syntheticPage = syntheticPage();
+        int completed = 0;
+        while (completed < iterations && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            for (Long userId : userIds) {
+                readPaths(userId);
+            }
+            serialize(syntheticPage);
+            completed++;
+        }
+        return completed;
+    }
+
+    // каждый запрос прогревается независимо: ошибка одного (например, для несуществующего пользователя)
+    // не должна пропускать остальные
+    private void readPaths(Long userId) throws JsonProcessingException {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemLogDto> items = read(userId,
+                () -> itemService.getAllItemsByOwnerId(userId, 0, PAGE_SIZE, ItemSort.ID));
+        if (items != null && !items.isEmpty()) {
+            Long itemId = items.get(0).getId();
+            read(userId, () -> itemService.getItemById(itemId, userId));
+            read(userId, () -> itemService.getItemAvailability(itemId, now, now.plusDays(30)));
+        }
+        read(userId, () -> bookingService.getAllUserBookings(BookingStatus.ALL, userId, 0, PAGE_SIZE, FieldSet.ALL));
+        read(userId, () -> bookingService.getAllItemBookingsUser(userId, BookingStatus.ALL, 0, PAGE_SIZE,
+                FieldSet.ALL));
+        read(userId, () -> itemRequestService.getAllItemRequestsByUserId(userId));
+        read(userId, () -> itemRequestService.getAllItemRequests(userId, 0, PAGE_SIZE));
+        read(userId, () -> itemService.getItemsBySearchQuery("дрель", null, null, 0, PAGE_SIZE, ItemSort.BOOKINGS));
+    }
+
+    private <T> T read(Long userId, Supplier<T> path) throws JsonProcessingException {
+        T result;
+        try {
+            result = path.get();
+        } catch (RuntimeException e) {
+            log.debug("Прогрев: запрос для пользователя {} завершился ошибкой: {}", userId, e.getMessage());
+            return null;
+        }
+        serialize(result);
+        return result;
+    }
+
+    private void serialize(Object value) throws JsonProcessingException {
+        jsonMapper.writeValueAsBytes(value);
+        smileMapper.writeValueAsBytes(value);
+    }
+
+    // заполнены все вложенные поля, чтобы построились сериализаторы даже при пустой БД
+    private static List<BookingLogDto> syntheticPage() {
+        LocalDateTime now = LocalDateTime.now();
+        UserLogDto user = new UserLogDto(SYNTHETIC_USER_ID, "warm-up", "warm-up@shareit.ru");
+        ItemLogDto item = new ItemLogDto(SYNTHETIC_USER_ID, "warm-up", "warm-up", true, SYNTHETIC_USER_ID,
+                new BookingShortDto(SYNTHETIC_USER_ID, SYNTHETIC_USER_ID, now.minusDays(2), now.minusDays(1)),
+                new BookingShortDto(SYNTHETIC_USER_ID, SYNTHETIC_USER_ID, now.plusDays(1), now.plusDays(2)),
+                List.of(new CommentInItemLogDto(SYNTHETIC_USER_ID, "warm-up", "warm-up", now)),
+                SYNTHETIC_USER_ID, 0);
+        return List.of(new BookingLogDto(SYNTHETIC_USER_ID, item, user, now.plusDays(1), now.plusDays(2),
+                BookingStatus.WAITING));
+    }
+}
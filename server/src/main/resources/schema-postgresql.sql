@@ -0,0 +1,30 @@
+-- только для PostgreSQL: секционирование и частичные индексы H2 не поддерживает
+
+-- bookings секционируется по месяцам start_date: запросы с условием на start_date читают только
+-- нужные секции, а старые секции удаляются целиком после архивации. Таблица из schema.sql
+-- пересоздаётся секционированной; первичный ключ обязан включать ключ секционирования.
+-- Месячные секции создаёт BookingPartitionMaintainer, остальное попадает в bookings_default.
+DROP TABLE IF EXISTS bookings;
+
+CREATE TABLE bookings (
+    id integer not null default nextval('booking_id_seq'),
+    start_date TIMESTAMP WITHOUT TIME ZONE not null,
+    end_date TIMESTAMP WITHOUT TIME ZONE not null,
+    item_id integer not null,
+    user_id integer not null,
+    status varchar not null,
+    CONSTRAINT pk_bookings PRIMARY KEY (id, start_date)
+) PARTITION BY RANGE (start_date);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+-- уникальный индекс по одному id на секционированной таблице невозможен: уникальность id
+-- обеспечивает последовательность booking_id_seq из schema.sql, индекс нужен для поиска по id
+CREATE INDEX IF NOT EXISTS idx_bookings_id ON bookings (id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_period ON bookings (item_id, status, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (user_id, start_date);
+
+-- неподтверждённые бронирования - малая часть таблицы: списки WAITING и задача истечения
+-- читают только этот индекс, а после перевода в EXPIRED строки из него уходят
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date) WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_booker ON bookings (user_id, start_date) WHERE status = 'WAITING';
@@ -1,4 +1,5 @@
-drop table if exists users, items, bookings, comments, requests;
+drop table if exists users, items, bookings, bookings_archive, comments, requests, item_stats, idempotency_keys;
+drop sequence if exists booking_id_seq;
 
 CREATE TABLE IF NOT EXISTS users (
 	id integer generated by default as identity not null,
@@ -15,6 +16,7 @@ CREATE TABLE IF NOT EXISTS items (
     available boolean not null,
     owner_id integer not null references users (id),
     request_id integer,
+    comment_count integer default 0 not null,
     CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
@@ -28,6 +30,25 @@ CREATE TABLE IF NOT EXISTS bookings (
     CONSTRAINT pk_bookings PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_period ON bookings (item_id, status, start_date, end_date);
+
+-- id бронирований общие для bookings и bookings_archive и для всех узлов сервера
+CREATE SEQUENCE IF NOT EXISTS booking_id_seq;
+
+-- завершённые бронирования старше срока хранения, читаются только PAST-списками
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id integer not null,
+    start_date TIMESTAMP WITHOUT TIME ZONE not null,
+    end_date TIMESTAMP WITHOUT TIME ZONE not null,
+    item_id integer not null,
+    user_id integer not null,
+    status varchar not null,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_user_start ON bookings_archive (user_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_date);
+
 CREATE TABLE IF NOT EXISTS comments (
     id integer generated by default as identity not null,
     text varchar(1000) not null,
@@ -37,10 +58,29 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comments PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id, id);
+
 CREATE TABLE IF NOT EXISTS requests (
     id integer generated by default as identity not null,
     description varchar(300) not null,
     requester_id integer not null,
     created timestamp not null,
     CONSTRAINT pk_requests PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_stats (
+    item_id integer not null,
+    booking_count bigint default 0 not null,
+    CONSTRAINT pk_item_stats PRIMARY KEY (item_id)
+);
+
+-- ответы POST-запросов с заголовком Idempotency-Key, удаляются по истечении ttl
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    scope_key varchar(200) not null,
+    request_body varchar not null,
+    response_body varchar,
+    created TIMESTAMP WITHOUT TIME ZONE not null,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (scope_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created);
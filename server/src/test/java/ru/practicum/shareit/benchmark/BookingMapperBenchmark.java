@@ -0,0 +1,122 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.common.FieldSet;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserLogDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Маппинг страницы бронирований владельца: прежний вариант (builder и stream на каждый элемент,
+// свой ItemLogDto и UserLogDto на каждое бронирование) против текущего BookingMapper.
+// Аллокации на элемент - gc.alloc.rate.norm из профилировщика GC, делённый на size.
+// Запуск: mvn -pl server test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java
+//   -Dexec.classpathScope=test -Dexec.mainClass=ru.practicum.shareit.benchmark.BookingMapperBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingMapperBenchmark {
+    @Param({"20", "1000"})
+    private int size;
+    // у владельца немного вещей, бронирований на каждую - много
+    @Param({"10"})
+    private int distinctItems;
+
+    private List<Booking> bookings;
+    private Map<Long, List<CommentInItemLogDto>> commentsByItemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@email.com");
+        List<Item> items = new ArrayList<>(distinctItems);
+        commentsByItemId = new HashMap<>();
+        for (long i = 1; i <= distinctItems; i++) {
+            items.add(new Item(i, "Дрель " + i, "Аккумуляторная дрель с набором бит", true, owner, null, null,
+                    null, null, 3));
+            commentsByItemId.put(i, List.of(
+                    new CommentInItemLogDto(i, "Отличная вещь, рекомендую", "author " + i, now.minusDays(1))));
+        }
+        bookings = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            User booker = new User(100 + i % 20, "booker " + i % 20, "booker" + i % 20 + "@email.com");
+            bookings.add(new Booking(i, now.plusDays(i), now.plusDays(i + 1),
+                    items.get((int) (i % distinctItems)), booker, BookingStatus.APPROVED));
+        }
+    }
+
+    @Benchmark
+    public List<BookingLogDto> streamsAndBuilders() {
+        return legacyMapToListBookingDto(bookings, FieldSet.ALL, commentsByItemId);
+    }
+
+    @Benchmark
+    public List<BookingLogDto> bookingMapper() {
+        return BookingMapper.mapToListBookingDto(bookings, FieldSet.ALL, commentsByItemId);
+    }
+
+    // копия маппинга до перехода на конструкторы и циклы - точка отсчёта
+    private static List<BookingLogDto> legacyMapToListBookingDto(List<Booking> bookings, FieldSet fields,
+                                                                 Map<Long, List<CommentInItemLogDto>> comments) {
+        return bookings.stream()
+                .map(booking -> BookingLogDto.builder()
+                        .id(booking.getId())
+                        .item(fields.includes("item") ?
+                                legacyMapToItemLogDto(booking.getItem(), fields.includes("item.comments") ?
+                                        comments.getOrDefault(booking.getItem().getId(), Collections.emptyList()) :
+                                        null) : null)
+                        .booker(fields.includes("booker") ? UserLogDto.builder()
+                                .id(booking.getBooker().getId())
+                                .email(booking.getBooker().getEmail())
+                                .name(booking.getBooker().getName())
+                                .build() : null)
+                        .start(booking.getStart())
+                        .end(booking.getEnd())
+                        .status(booking.getStatus())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static ItemLogDto legacyMapToItemLogDto(Item item, List<CommentInItemLogDto> comments) {
+        return ItemLogDto.builder()
+                .id(item.getId())
+                .available(item.getAvailable())
+                .description(item.getDescription())
+                .name(item.getName())
+                .ownerId(item.getOwner().getId())
+                .comments(comments)
+                .requestId(item.getItemRequest() != null ? item.getItemRequest().getId() : null)
+                .commentCount(item.getCommentCount())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BookingMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
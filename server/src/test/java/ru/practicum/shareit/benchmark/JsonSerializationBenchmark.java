@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.config.JsonSerializationConfig;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.user.dto.UserLogDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сериализация списков бронирований и вещей в JSON: биновый сериализатор Jackson,
+// он же с Blackbird и потоковые сериализаторы из JsonSerializationConfig.
+// Запуск: mvn -pl server test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java
+//   -Dexec.classpathScope=test -Dexec.mainClass=ru.practicum.shareit.benchmark.JsonSerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"beans", "blackbird", "streaming"})
+    private String serializers;
+    @Param({"bookings", "items"})
+    private String payload;
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private List<?> values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonSerializationConfig config = new JsonSerializationConfig();
+        // как у Spring Boot: даты строками ISO
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("blackbird".equals(serializers)) {
+            builder.modulesToInstall(config.blackbirdModule());
+        } else if ("streaming".equals(serializers)) {
+            builder.modulesToInstall(config.blackbirdModule(), config.logDtoSerializersModule());
+        }
+        mapper = builder.build();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingLogDto> bookings = new ArrayList<>(size);
+        List<ItemLogDto> items = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            List<CommentInItemLogDto> comments = List.of(
+                    new CommentInItemLogDto(i, "Отличная вещь, рекомендую", "author " + i, now.minusDays(1)));
+            ItemLogDto item = new ItemLogDto(i, "Дрель " + i, "Аккумуляторная дрель с набором бит", true, 1L,
+                    new BookingShortDto(i, i, now.minusDays(3), now.minusDays(2)),
+                    new BookingShortDto(i + 1, i, now.plusDays(2), now.plusDays(3)),
+                    comments, null, 1);
+            items.add(item);
+            bookings.add(new BookingLogDto(i, item, new UserLogDto(i, "booker " + i, "booker" + i + "@email.com"),
+                    now.plusDays(i), now.plusDays(i + 1), BookingStatus.WAITING));
+        }
+        values = "items".equals(payload) ? items : bookings;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(values);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение последовательной и параллельной загрузки страницы вещей владельца на H2.
+// Запуск: mvn -pl server test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java
+//   -Dexec.classpathScope=test -Dexec.mainClass=ru.practicum.shareit.benchmark.OwnerItemsPageBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerItemsPageBenchmark {
+    @Param({"false", "true"})
+    private boolean parallel;
+    @Param({"20", "200"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "shareit.items.owner-page.parallel=" + parallel,
+                        "logging.level.root=WARN")
+                .run();
+        itemService = context.getBean(ItemService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        User owner = userRepository.save(new User(null, "owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email.com"));
+        ownerId = owner.getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Item item = itemRepository.save(new Item(null, "item " + i, "description " + i, true, owner,
+                    null, null, null, null, 0));
+            for (int j = 1; j <= 5; j++) {
+                bookings.add(new Booking(null, now.minusDays(j * 2L), now.minusDays(j * 2L - 1), item, booker,
+                        BookingStatus.APPROVED));
+                bookings.add(new Booking(null, now.plusDays(j * 2L), now.plusDays(j * 2L + 1), item, booker,
+                        BookingStatus.WAITING));
+                comments.add(new Comment(null, "comment " + j, item.getId(), booker, now.minusDays(j)));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemLogDto> getAllItemsByOwnerId() {
+        return itemService.getAllItemsByOwnerId(ownerId, 0, pageSize, ItemSort.ID);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OwnerItemsPageBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
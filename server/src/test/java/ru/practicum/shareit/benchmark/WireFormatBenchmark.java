@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.user.dto.UserLogDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON против Smile на списке бронирований: сериализация на сервере и чтение в Object на gateway.
+// Запуск: mvn -pl server test-compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java
+//   -Dexec.classpathScope=test -Dexec.mainClass=ru.practicum.shareit.benchmark.WireFormatBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"json", "smile"})
+    private String format;
+    @Param({"10", "100"})
+    private int bookingsCount;
+
+    private ObjectMapper mapper;
+    private List<BookingLogDto> bookings;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // как у Spring Boot: даты строками ISO
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("smile".equals(format)) {
+            builder.factory(new SmileFactory());
+        }
+        mapper = builder.build();
+
+        LocalDateTime now = LocalDateTime.now();
+        bookings = new ArrayList<>(bookingsCount);
+        for (long i = 1; i <= bookingsCount; i++) {
+            UserLogDto booker = new UserLogDto(i, "booker " + i, "booker" + i + "@email.com");
+            List<CommentInItemLogDto> comments = List.of(
+                    new CommentInItemLogDto(i, "Отличная вещь, рекомендую", "author " + i, now.minusDays(1)));
+            ItemLogDto item = new ItemLogDto(i, "Дрель " + i, "Аккумуляторная дрель с набором бит", true, 1L,
+                    new BookingShortDto(i, i, now.minusDays(3), now.minusDays(2)),
+                    new BookingShortDto(i + 1, i, now.plusDays(2), now.plusDays(3)),
+                    comments, null, 0);
+            bookings.add(new BookingLogDto(i, item, booker, now.plusDays(i), now.plusDays(i + 1),
+                    BookingStatus.WAITING));
+        }
+        encoded = mapper.writeValueAsBytes(bookings);
+        System.out.println(format + ": " + bookingsCount + " бронирований = " + encoded.length + " байт");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public Object deserializeToObject() throws IOException {
+        return mapper.readValue(encoded, Object.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -6,13 +6,21 @@ import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.events.BookingEventHub;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.FieldSet;
+import ru.practicum.shareit.config.WireFormatConfig;
+import ru.practicum.shareit.idempotency.IdempotencyRecordRepository;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.user.dto.UserLogDto;
 
@@ -20,23 +28,32 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import({WireFormatConfig.class, IdempotencyStore.class})
 public class BookingControllerTest {
     @InjectMocks
     private BookingController controller;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @MockBean
+    private BookingEventHub bookingEventHub;
     @Autowired
     private final ObjectMapper mapper = new ObjectMapper();
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
 
     @Test
     public void shouldAddBooking() throws Exception {
@@ -47,7 +64,7 @@ public class BookingControllerTest {
         LocalDateTime end = LocalDateTime.of(2023, 10, 26, 22, 30);
         UserLogDto userLogDto = new UserLogDto(userId, "owner name", "owner@email.com");
         ItemLogDto itemLogDto = new ItemLogDto(itemId, "item name", "item description", true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         BookingAddDto bookingAddDto = new BookingAddDto(itemId, start, end);
         BookingLogDto bookingLogDto = new BookingLogDto(bookingId, itemLogDto, userLogDto, start, end, BookingStatus.PAST);
 
@@ -70,6 +87,58 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).addBooking(userId, bookingAddDto);
     }
 
+    @Test
+    public void shouldReplayAddBookingWithSameIdempotencyKey() throws Exception {
+        long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2030, 10, 25, 22, 30);
+        LocalDateTime end = LocalDateTime.of(2030, 10, 26, 22, 30);
+        BookingAddDto bookingAddDto = new BookingAddDto(1L, start, end);
+        BookingLogDto bookingLogDto = new BookingLogDto(7L, null, null, start, end, BookingStatus.WAITING);
+
+        when(bookingService.addBooking(userId, bookingAddDto)).thenReturn(bookingLogDto);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/bookings")
+                            .content(mapper.writeValueAsString(bookingAddDto))
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", userId)
+                            .header("Idempotency-Key", "9f1c2b7e-booking"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(7)));
+        }
+
+        verify(bookingService, times(1)).addBooking(userId, bookingAddDto);
+    }
+
+    @Test
+    public void shouldRejectIdempotencyKeyReusedForOtherBooking() throws Exception {
+        long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2030, 10, 25, 22, 30);
+        LocalDateTime end = LocalDateTime.of(2030, 10, 26, 22, 30);
+        BookingAddDto first = new BookingAddDto(1L, start, end);
+        BookingAddDto second = new BookingAddDto(2L, start, end);
+
+        when(bookingService.addBooking(userId, first))
+                .thenReturn(new BookingLogDto(7L, null, null, start, end, BookingStatus.WAITING));
+
+        mockMvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(first))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("Idempotency-Key", "reused-key"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(second))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("Idempotency-Key", "reused-key"))
+                .andExpect(status().isConflict());
+
+        verify(bookingService, never()).addBooking(userId, second);
+    }
+
     @Test
     public void shouldUpdateBookingStatus() throws Exception {
         long userId = 1L;
@@ -80,7 +149,7 @@ public class BookingControllerTest {
         LocalDateTime end = LocalDateTime.of(2023, 10, 26, 22, 30);
         UserLogDto userLogDto = new UserLogDto(userId, "owner name", "owner@email.com");
         ItemLogDto itemLogDto = new ItemLogDto(itemId, "item name", "item description", true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         BookingLogDto bookingLogDto = new BookingLogDto(bookingId, itemLogDto, userLogDto, start, end, BookingStatus.PAST);
 
         when(bookingService.updateBookingStatus(userId, approved, bookingId)).thenReturn(bookingLogDto);
@@ -151,7 +220,7 @@ public class BookingControllerTest {
         LocalDateTime end = LocalDateTime.of(2023, 10, 26, 22, 30);
         UserLogDto userLogDto = new UserLogDto(userId, "owner name", "owner@email.com");
         ItemLogDto itemLogDto = new ItemLogDto(itemId, "item name", "item description", true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         BookingLogDto bookingLogDto = new BookingLogDto(bookingId, itemLogDto, userLogDto, start, end, BookingStatus.PAST);
 
         when(bookingService.getBookingById(userId, bookingId)).thenReturn(bookingLogDto);
@@ -184,16 +253,16 @@ public class BookingControllerTest {
         LocalDateTime endBooking2 = LocalDateTime.of(2023, 1, 26, 22, 30);
         UserLogDto userLogDto = new UserLogDto(userId, "owner name", "owner@email.com");
         ItemLogDto itemLogDto1 = new ItemLogDto(itemId, "item1 name", "item1 description", true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         ItemLogDto itemLogDto2 = new ItemLogDto(itemId, "item2 name", "item2 description", true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         BookingLogDto bookingLogDto1 = new BookingLogDto(bookingId, itemLogDto1, userLogDto,
                 startBooking1, endBooking1, BookingStatus.PAST);
         BookingLogDto bookingLogDto2 = new BookingLogDto(2L, itemLogDto2, userLogDto,
                 startBooking2, endBooking2, BookingStatus.PAST);
         List<BookingLogDto> bookingLogDtos = List.of(bookingLogDto1, bookingLogDto2);
 
-        when(bookingService.getAllUserBookings(BookingStatus.ALL, userId, from, size)).thenReturn(bookingLogDtos);
+        when(bookingService.getAllUserBookings(BookingStatus.ALL, userId, from, size, FieldSet.ALL)).thenReturn(bookingLogDtos);
 
         mockMvc.perform(get("/bookings")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -216,7 +285,7 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[1].item.name", is(itemLogDto2.getName())))
                 .andExpect(jsonPath("$[1].item.description", is(itemLogDto2.getDescription())));
 
-        verify(bookingService, times(1)).getAllUserBookings(BookingStatus.ALL, userId, from, size);
+        verify(bookingService, times(1)).getAllUserBookings(BookingStatus.ALL, userId, from, size, FieldSet.ALL);
     }
 
     @Test
@@ -232,16 +301,16 @@ public class BookingControllerTest {
         LocalDateTime endBooking2 = LocalDateTime.of(2023, 1, 26, 22, 30);
         UserLogDto userLogDto = new UserLogDto(userId, "owner name", "owner@email.com");
         ItemLogDto itemLogDto1 = new ItemLogDto(itemId, "item1 name", "item1 description", true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         ItemLogDto itemLogDto2 = new ItemLogDto(itemId, "item2 name", "item2 description", true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         BookingLogDto bookingLogDto1 = new BookingLogDto(bookingId, itemLogDto1, userLogDto,
                 startBooking1, endBooking1, BookingStatus.PAST);
         BookingLogDto bookingLogDto2 = new BookingLogDto(2L, itemLogDto2, userLogDto,
                 startBooking2, endBooking2, BookingStatus.PAST);
         List<BookingLogDto> bookingLogDtos = List.of(bookingLogDto1, bookingLogDto2);
 
-        when(bookingService.getAllItemBookingsUser(userId, BookingStatus.ALL, from, size)).thenReturn(bookingLogDtos);
+        when(bookingService.getAllItemBookingsUser(userId, BookingStatus.ALL, from, size, FieldSet.ALL)).thenReturn(bookingLogDtos);
 
         mockMvc.perform(get("/bookings/owner")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -264,6 +333,72 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[1].item.name", is(itemLogDto2.getName())))
                 .andExpect(jsonPath("$[1].item.description", is(itemLogDto2.getDescription())));
 
-        verify(bookingService, times(1)).getAllItemBookingsUser(userId, BookingStatus.ALL, from, size);
+        verify(bookingService, times(1)).getAllItemBookingsUser(userId, BookingStatus.ALL, from, size, FieldSet.ALL);
+    }
+
+    @Test
+    public void shouldOpenOwnerBookingEventStream() throws Exception {
+        long userId = 1L;
+        when(bookingEventHub.subscribe(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/bookings/owner/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(bookingEventHub, times(1)).subscribe(userId);
+    }
+
+    @Test
+    public void shouldOmitItemWhenFieldsContainOnlyBooker() throws Exception {
+        long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2023, 10, 25, 22, 30);
+        LocalDateTime end = LocalDateTime.of(2023, 10, 26, 22, 30);
+        UserLogDto userLogDto = new UserLogDto(userId, "booker name", "booker@email.com");
+        BookingLogDto bookingLogDto = new BookingLogDto(1L, null, userLogDto, start, end, BookingStatus.PAST);
+
+        when(bookingService.getAllItemBookingsUser(userId, BookingStatus.ALL, 0, 10, FieldSet.parse("booker")))
+                .thenReturn(List.of(bookingLogDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("state", "ALL")
+                        .param("fields", "booker")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booker.name", is(userLogDto.getName())))
+                .andExpect(jsonPath("$[0].item").doesNotExist());
+
+        verify(bookingService, times(1)).getAllItemBookingsUser(userId, BookingStatus.ALL, 0, 10,
+                FieldSet.parse("booker"));
+    }
+
+    @Test
+    public void shouldReturnBookingInSmileWhenRequested() throws Exception {
+        long userId = 1L;
+        long bookingId = 1L;
+        LocalDateTime start = LocalDateTime.of(2023, 10, 25, 22, 30);
+        LocalDateTime end = LocalDateTime.of(2023, 10, 26, 22, 30);
+        UserLogDto userLogDto = new UserLogDto(userId, "owner name", "owner@email.com");
+        ItemLogDto itemLogDto = new ItemLogDto(1L, "item name", "item description", true, userId,
+                null, null, Collections.emptyList(), null, 0);
+        BookingLogDto bookingLogDto = new BookingLogDto(bookingId, itemLogDto, userLogDto, start, end,
+                BookingStatus.WAITING);
+        MediaType smile = new MediaType("application", "x-jackson-smile");
+
+        when(bookingService.getBookingById(userId, bookingId)).thenReturn(bookingLogDto);
+
+        byte[] body = mockMvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .accept(smile)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Map<?, ?> decoded = smileConverter.getObjectMapper().readValue(body, Map.class);
+        assertEquals(start.toString(), decoded.get("start").toString().substring(0, 16));
+        assertEquals(itemLogDto.getName(), ((Map<?, ?>) decoded.get("item")).get("name"));
     }
 }
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final LocalDateTime to = LocalDateTime.of(2030, 1, 8, 0, 0);
+    private ItemAvailabilityIndex index;
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ItemAvailabilityIndex(bookingRepository, 2);
+    }
+
+    @Test
+    public void shouldReturnBusyIntervalsFromApprovedBookings() {
+        Booking booking1 = new Booking(from.plusHours(10), from.plusHours(12));
+        Booking booking2 = new Booking(from.plusDays(3).plusMinutes(30), from.plusDays(4));
+
+        when(bookingRepository.findAllByItemIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(booking1, booking2));
+
+        List<AvailabilityInterval> busy = index.getBusyIntervals(1L, from, to);
+
+        assertEquals(List.of(new AvailabilityInterval(from.plusHours(10), from.plusHours(12)),
+                new AvailabilityInterval(from.plusDays(3), from.plusDays(4))), busy);
+    }
+
+    @Test
+    public void shouldLoadBookingsOnlyOncePerItem() {
+        when(bookingRepository.findAllByItemIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(Collections.emptyList());
+
+        index.getBusyIntervals(1L, from, to);
+        index.getBusyIntervals(1L, from, to);
+
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatus(1L, BookingStatus.APPROVED);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedItemOverLimit() {
+        when(bookingRepository.findAllByItemIdAndStatus(anyLong(), eq(BookingStatus.APPROVED)))
+                .thenReturn(Collections.emptyList());
+
+        index.getBusyIntervals(1L, from, to);
+        index.getBusyIntervals(2L, from, to);
+        index.getBusyIntervals(1L, from, to);
+        index.getBusyIntervals(3L, from, to);
+
+        assertEquals(2, index.size());
+        index.getBusyIntervals(1L, from, to);
+        index.getBusyIntervals(2L, from, to);
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatus(1L, BookingStatus.APPROVED);
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatus(2L, BookingStatus.APPROVED);
+    }
+
+    @Test
+    public void shouldMergeAdjacentBookingsAndClipToRequestedPeriod() {
+        when(bookingRepository.findAllByItemIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(Collections.emptyList());
+        index.getBusyIntervals(1L, from, to);
+
+        index.markBusy(1L, from.minusDays(1), from.plusHours(60));
+        index.markBusy(1L, from.plusHours(60), from.plusHours(70));
+
+        List<AvailabilityInterval> busy = index.getBusyIntervals(1L, from.plusMinutes(15), to);
+
+        assertEquals(List.of(new AvailabilityInterval(from.plusMinutes(15), from.plusHours(70))), busy);
+    }
+
+    @Test
+    public void shouldNotTrackItemsThatWereNotLoaded() {
+        index.markBusy(1L, from, from.plusHours(1));
+
+        verify(bookingRepository, never()).findAllByItemIdAndStatus(anyLong(), any(BookingStatus.class));
+    }
+
+    @Test
+    public void shouldReloadItemAfterEvict() {
+        when(bookingRepository.findAllByItemIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(Collections.emptyList());
+
+        index.getBusyIntervals(1L, from, to);
+        index.evict(1L);
+        index.getBusyIntervals(1L, from, to);
+
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatus(1L, BookingStatus.APPROVED);
+    }
+
+    @Test
+    public void shouldReturnFreeIntervalsBetweenBusyOnes() {
+        List<AvailabilityInterval> busy = List.of(new AvailabilityInterval(from, from.plusHours(2)),
+                new AvailabilityInterval(from.plusHours(5), from.plusHours(6)));
+
+        List<AvailabilityInterval> free = index.getFreeIntervals(busy, from, to);
+
+        assertEquals(List.of(new AvailabilityInterval(from.plusHours(2), from.plusHours(5)),
+                new AvailabilityInterval(from.plusHours(6), to)), free);
+    }
+
+    @Test
+    public void shouldHandleRunsCrossingBitmapBlocks() {
+        HourBitmap bitmap = new HourBitmap();
+        bitmap.set(60, 200);
+        bitmap.set(255, 256);
+
+        assertTrue(bitmap.isSet(60));
+        assertTrue(bitmap.isSet(199));
+        assertFalse(bitmap.isSet(200));
+        assertTrue(bitmap.isSet(255));
+        assertEquals(4, bitmap.blockCount());
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.config.JsonSerializationConfig;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.user.dto.UserLogDto;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingLogDtoSerializerTest {
+    private final JsonSerializationConfig config = new JsonSerializationConfig();
+
+    @Test
+    public void shouldWriteSameJsonAsBeanSerializer() throws Exception {
+        ObjectMapper beans = mapper(false);
+        ObjectMapper streaming = mapper(true);
+
+        for (LocalDateTime date : dates()) {
+            for (Object value : values(date)) {
+                assertEquals(beans.writeValueAsString(value), streaming.writeValueAsString(value));
+            }
+        }
+    }
+
+    @Test
+    public void shouldFollowMapperSettingsForDates() throws Exception {
+        ObjectMapper beans = mapper(false).enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper streaming = mapper(true).enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        for (Object value : values(LocalDateTime.of(2023, 10, 25, 22, 30, 5, 120_000))) {
+            assertEquals(beans.writeValueAsString(value), streaming.writeValueAsString(value));
+        }
+    }
+
+    private ObjectMapper mapper(boolean streaming) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (streaming) {
+            builder.modulesToInstall(config.logDtoSerializersModule());
+        }
+        return builder.build();
+    }
+
+    private List<LocalDateTime> dates() {
+        return Arrays.asList(
+                LocalDateTime.of(2023, 1, 2, 3, 4),
+                LocalDateTime.of(2023, 10, 25, 22, 30, 5, 120_000),
+                LocalDateTime.of(99, 1, 1, 0, 0, 0, 123_456_789),
+                LocalDateTime.of(12345, 1, 1, 0, 0),
+                LocalDateTime.now(),
+                null);
+    }
+
+    private List<Object> values(LocalDateTime date) {
+        ItemLogDto item = new ItemLogDto(1L, "Дрель \"Макита\"", null, true, 1L,
+                new BookingShortDto(1L, 2L, date, date), null,
+                Arrays.asList(new CommentInItemLogDto(1L, "Отличная\nвещь", "author", date), null), null, 3);
+        return List.of(
+                List.of(new BookingLogDto(1L, item, new UserLogDto(2L, "booker", null), date, date,
+                        BookingStatus.WAITING)),
+                List.of(new BookingLogDto(1L, null, null, date, null, null)),
+                List.of(item, new ItemLogDto()));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.EntityNotAvailableException;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingEventHubTest {
+    private BookingEventHub hub;
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        hub = new BookingEventHub(userRepository, 60000, 2, 100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hub.destroy();
+    }
+
+    @Test
+    public void shouldSubscribeExistingOwner() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        SseEmitter emitter = hub.subscribe(1L);
+
+        assertNotNull(emitter);
+        assertEquals(1, hub.subscriberCount(1L));
+        assertEquals(0, hub.subscriberCount(2L));
+    }
+
+    @Test
+    public void shouldRejectSubscriptionOfUnknownUser() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        Exception exception = assertThrows(EntityNotFoundException.class, () -> hub.subscribe(1L));
+
+        assertEquals("Пользователя с id 1 не существует", exception.getMessage());
+        assertEquals(0, hub.subscriberCount(1L));
+    }
+
+    @Test
+    public void shouldLimitSubscriptionsPerOwner() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+
+        assertThrows(EntityNotAvailableException.class, () -> hub.subscribe(1L));
+
+        assertEquals(2, hub.subscriberCount(1L));
+    }
+
+    @Test
+    public void shouldDropSubscriberThatCannotBeWritten() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        SseEmitter emitter = hub.subscribe(1L);
+        // соединение ещё не передано контейнеру: завершённый emitter отклоняет отправку
+        emitter.complete();
+
+        hub.publish(1L, new BookingEventDto(BookingEventType.CREATED, 1L, 1L, 2L, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), BookingStatus.WAITING));
+
+        for (int i = 0; i < 50 && hub.subscriberCount(1L) > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, hub.subscriberCount(1L));
+    }
+
+    @Test
+    public void shouldIgnoreEventWithoutSubscribers() {
+        hub.publish(1L, new BookingEventDto(BookingEventType.APPROVED, 1L, 1L, 2L, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), BookingStatus.APPROVED));
+
+        assertEquals(0, hub.subscriberCount(1L));
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiveJobTest {
+    private BookingArchiveJob job;
+    private MeterRegistry meterRegistry;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new BookingArchiveJob(bookingRepository, archivedBookingRepository, transactionManager,
+                meterRegistry, Duration.ofDays(365), 2, 5, 0);
+    }
+
+    @Test
+    public void shouldCopyAndDeleteBookingsOlderThanRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = now.minusDays(365);
+
+        when(bookingRepository.findIdsToArchive(eq(before), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(bookingRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(bookingRepository.deleteByIdIn(List.of(3L))).thenReturn(1);
+
+        assertEquals(3, job.archiveBookings(now));
+
+        verify(archivedBookingRepository, times(1)).copyFromBookings(List.of(1L, 2L));
+        verify(archivedBookingRepository, times(1)).copyFromBookings(List.of(3L));
+        verify(bookingRepository, times(2)).findIdsToArchive(eq(before), any(Pageable.class));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3.0, meterRegistry.counter("shareit.bookings.archived").count());
+    }
+
+    @Test
+    public void shouldNotDeleteWhenNothingToArchive() {
+        LocalDateTime now = LocalDateTime.now();
+
+        when(bookingRepository.findIdsToArchive(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(0, job.archiveBookings(now));
+
+        verify(archivedBookingRepository, never()).copyFromBookings(anyCollection());
+        verify(bookingRepository, never()).deleteByIdIn(anyCollection());
+    }
+}
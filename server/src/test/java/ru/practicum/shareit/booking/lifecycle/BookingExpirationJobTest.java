@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpirationJobTest {
+    private BookingExpirationJob job;
+    private MeterRegistry meterRegistry;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new BookingExpirationJob(bookingRepository, transactionManager, meterRegistry, 2, 3, 0);
+    }
+
+    @Test
+    public void shouldExpireWaitingBookingsInBatchesUntilBatchIsNotFull() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking first = waiting(1L, now);
+        Booking second = waiting(2L, now);
+        Booking third = waiting(3L, now);
+
+        when(bookingRepository.findForUpdateSkipLockedByStatusAndStartBefore(eq(BookingStatus.WAITING), eq(now),
+                any(Pageable.class)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        assertEquals(3, job.expireWaitingBookings(now));
+
+        assertEquals(BookingStatus.EXPIRED, first.getStatus());
+        assertEquals(BookingStatus.EXPIRED, second.getStatus());
+        assertEquals(BookingStatus.EXPIRED, third.getStatus());
+        assertEquals(3.0, meterRegistry.counter("shareit.bookings.expired").count());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void shouldStopAfterMaxBatchesPerRun() {
+        LocalDateTime now = LocalDateTime.now();
+
+        when(bookingRepository.findForUpdateSkipLockedByStatusAndStartBefore(eq(BookingStatus.WAITING), eq(now),
+                any(Pageable.class)))
+                .thenAnswer(invocation -> List.of(waiting(1L, now), waiting(2L, now)));
+
+        assertEquals(6, job.expireWaitingBookings(now));
+
+        verify(bookingRepository, times(3)).findForUpdateSkipLockedByStatusAndStartBefore(
+                eq(BookingStatus.WAITING), eq(now), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldNotCountBatchWhenTransactionFails() {
+        when(bookingRepository.findForUpdateSkipLockedByStatusAndStartBefore(eq(BookingStatus.WAITING),
+                any(LocalDateTime.class), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("БД недоступна"));
+
+        job.scheduledRun();
+
+        assertEquals(0.0, meterRegistry.counter("shareit.bookings.expired").count());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    private static Booking waiting(Long id, LocalDateTime now) {
+        return new Booking(id, now.minusHours(1), now.plusDays(1), null, null, BookingStatus.WAITING);
+    }
+}
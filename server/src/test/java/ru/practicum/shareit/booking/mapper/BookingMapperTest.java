@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.common.FieldSet;
+import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingMapperTest {
+    private final LocalDateTime now = LocalDateTime.now();
+    private final User owner = new User(1L, "owner", "owner@email.com");
+    private final User booker = new User(2L, "booker", "booker@email.com");
+    private final Item item = new Item(1L, "item", "description", true, owner, null, null, null, null, 1);
+    private final Item otherItem = new Item(2L, "other", "description", true, owner, null, null, null, null, 0);
+
+    @Test
+    public void shouldMapItemOnceForAllBookingsOfPage() {
+        CommentInItemLogDto comment = new CommentInItemLogDto(1L, "text", "booker", now);
+        List<Booking> bookings = List.of(booking(1L, item), booking(2L, otherItem), booking(3L, item));
+
+        List<BookingLogDto> result = BookingMapper.mapToListBookingDto(bookings, FieldSet.ALL,
+                Map.of(item.getId(), List.of(comment)));
+
+        assertEquals(3, result.size());
+        assertSame(result.get(0).getItem(), result.get(2).getItem());
+        assertEquals(List.of(comment), result.get(0).getItem().getComments());
+        assertEquals(List.of(), result.get(1).getItem().getComments());
+        assertEquals(1, result.get(0).getItem().getCommentCount());
+        assertEquals(booker.getName(), result.get(1).getBooker().getName());
+        assertEquals(BookingMapper.mapToBookingLogDto(bookings.get(1), FieldSet.ALL,
+                Map.of(item.getId(), List.of(comment))), result.get(1));
+    }
+
+    @Test
+    public void shouldSkipPartsNotRequestedInFields() {
+        List<BookingLogDto> result = BookingMapper.mapToListBookingDto(List.of(booking(1L, item)),
+                FieldSet.parse("booker"));
+
+        assertNull(result.get(0).getItem());
+        assertEquals(booker.getId(), result.get(0).getBooker().getId());
+    }
+
+    private Booking booking(Long id, Item item) {
+        return new Booking(id, now.plusDays(id), now.plusDays(id + 1), item, booker, BookingStatus.WAITING);
+    }
+}
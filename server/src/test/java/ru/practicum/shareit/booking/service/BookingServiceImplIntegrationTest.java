@@ -1,26 +1,44 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.lifecycle.BookingArchiveJob;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.FieldSet;
 import ru.practicum.shareit.exception.EntityAccessException;
+import ru.practicum.shareit.exception.EntityNotAvailableException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemAddDto;
 import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserAddDto;
 import ru.practicum.shareit.user.dto.UserLogDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -32,6 +50,16 @@ public class BookingServiceImplIntegrationTest {
     private UserService userService;
     @Autowired
     private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Test
     public void integrationItemTest() throws InterruptedException {
@@ -56,11 +84,11 @@ public class BookingServiceImplIntegrationTest {
         Thread.sleep(2000);
         assertEquals(BookingStatus.APPROVED, bookingLogDtoApproved.getStatus());
         assertEquals(bookingLogDtoApproved,
-                bookingService.getAllUserBookings(BookingStatus.PAST, userLogDto1.getId(), 0, 10).get(0));
+                bookingService.getAllUserBookings(BookingStatus.PAST, userLogDto1.getId(), 0, 10, FieldSet.ALL).get(0));
         assertEquals(bookingLogDtoApproved,
-                bookingService.getAllItemBookingsUser(userLogDto2.getId(), BookingStatus.ALL, 0, 10).get(0));
-        assertEquals(1, bookingService.getAllUserBookings(BookingStatus.PAST, userLogDto1.getId(), 0, 10).size());
-        assertEquals(1, bookingService.getAllItemBookingsUser(userLogDto2.getId(), BookingStatus.ALL, 0, 10).size());
+                bookingService.getAllItemBookingsUser(userLogDto2.getId(), BookingStatus.ALL, 0, 10, FieldSet.ALL).get(0));
+        assertEquals(1, bookingService.getAllUserBookings(BookingStatus.PAST, userLogDto1.getId(), 0, 10, FieldSet.ALL).size());
+        assertEquals(1, bookingService.getAllItemBookingsUser(userLogDto2.getId(), BookingStatus.ALL, 0, 10, FieldSet.ALL).size());
         assertEquals(itemLogDto2.getName(), bookingLogDtoApproved.getItem().getName());
         assertEquals(itemLogDto2.getDescription(), bookingLogDtoApproved.getItem().getDescription());
         assertEquals(itemLogDto2.getAvailable(), bookingLogDtoApproved.getItem().getAvailable());
@@ -75,8 +103,8 @@ public class BookingServiceImplIntegrationTest {
         BookingLogDto bookingLogDtoRejected = bookingService.getBookingById(userLogDto2.getId(), bookingLogDto2.getId());
         Thread.sleep(2000);
         assertEquals(BookingStatus.REJECTED, bookingLogDtoRejected.getStatus());
-        assertEquals(bookingLogDtoRejected, bookingService.getAllUserBookings(BookingStatus.REJECTED, userLogDto2.getId(), 0, 10).get(0));
-        assertEquals(bookingLogDtoRejected, bookingService.getAllItemBookingsUser(userLogDto1.getId(), BookingStatus.ALL, 0, 10).get(0));
+        assertEquals(bookingLogDtoRejected, bookingService.getAllUserBookings(BookingStatus.REJECTED, userLogDto2.getId(), 0, 10, FieldSet.ALL).get(0));
+        assertEquals(bookingLogDtoRejected, bookingService.getAllItemBookingsUser(userLogDto1.getId(), BookingStatus.ALL, 0, 10, FieldSet.ALL).get(0));
         assertEquals(itemLogDto1.getName(), bookingLogDtoRejected.getItem().getName());
         assertEquals(itemLogDto1.getDescription(), bookingLogDtoRejected.getItem().getDescription());
         assertEquals(itemLogDto1.getAvailable(), bookingLogDtoRejected.getItem().getAvailable());
@@ -88,11 +116,87 @@ public class BookingServiceImplIntegrationTest {
         assertEquals("Просмотр бронирования item с id 2 доступно только для владельца", exception1.getMessage());
 
         Exception exception2 = assertThrows(EntityNotFoundException.class,
-                () ->  bookingService.getAllUserBookings(BookingStatus.ALL, 150L, 0, 10));
+                () ->  bookingService.getAllUserBookings(BookingStatus.ALL, 150L, 0, 10, FieldSet.ALL));
         assertEquals("Пользователя с id 150 не существует", exception2.getMessage());
 
         Exception exception3 = assertThrows(EntityNotFoundException.class,
-                () ->  bookingService.getAllItemBookingsUser(150L, BookingStatus.ALL, 0, 10));
+                () ->  bookingService.getAllItemBookingsUser(150L, BookingStatus.ALL, 0, 10, FieldSet.ALL));
         assertEquals("Пользователя с id 150 не существует", exception3.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnArchivedBookingsInPastList() {
+        UserLogDto owner = userService.addUser(new UserAddDto("owner name", "owner@email.com"));
+        UserLogDto booker = userService.addUser(new UserAddDto("booker name", "booker@email.com"));
+        ItemLogDto itemLogDto = itemService.addItem(new ItemAddDto("Дрель", "Аккумуляторная", true, null),
+                owner.getId());
+        Item item = itemRepository.findById(itemLogDto.getId()).orElseThrow();
+        User user = userRepository.findById(booker.getId()).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        Booking old = bookingRepository.save(new Booking(null, now.minusYears(2), now.minusYears(2).plusDays(1),
+                item, user, BookingStatus.APPROVED));
+        Booking recent = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2),
+                item, user, BookingStatus.APPROVED));
+
+        BookingArchiveJob job = new BookingArchiveJob(bookingRepository, archivedBookingRepository,
+                transactionManager, new SimpleMeterRegistry(), Duration.ofDays(365), 10, 1, 0);
+
+        assertEquals(1, job.archiveBookings(now));
+        assertFalse(bookingRepository.existsById(old.getId()));
+        assertTrue(archivedBookingRepository.existsById(old.getId()));
+
+        List<BookingLogDto> past = bookingService.getAllUserBookings(BookingStatus.PAST, booker.getId(), 0, 10,
+                FieldSet.ALL);
+        assertEquals(List.of(recent.getId(), old.getId()),
+                past.stream().map(BookingLogDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(old.getId()), bookingService.getAllItemBookingsUser(owner.getId(), BookingStatus.PAST,
+                1, 1, FieldSet.ALL).stream().map(BookingLogDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldNotApproveBookingExpiredWhileApprovalWaitedForRowLock() throws Exception {
+        UserLogDto owner = userService.addUser(new UserAddDto("owner name", "owner@email.com"));
+        UserLogDto booker = userService.addUser(new UserAddDto("booker name", "booker@email.com"));
+        ItemLogDto item = itemService.addItem(new ItemAddDto("Дрель", "Аккумуляторная", true, null),
+                owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long bookingId = bookingService.addBooking(booker.getId(),
+                new BookingAddDto(item.getId(), start, start.plusDays(1))).getId();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Throwable> approvalError = new AtomicReference<>();
+        // как задача истечения: строка захвачена и переводится в EXPIRED, пока подтверждение ждёт блокировку
+        Thread expiration = new Thread(() -> transaction.executeWithoutResult(status -> {
+            bookingRepository.findForUpdateById(bookingId).orElseThrow().setStatus(BookingStatus.EXPIRED);
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Thread approval = new Thread(() -> {
+            try {
+                bookingService.updateBookingStatus(owner.getId(), true, bookingId);
+            } catch (Throwable e) {
+                approvalError.set(e);
+            }
+        });
+        expiration.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        approval.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (approval.getState() != Thread.State.TIMED_WAITING && approval.getState() != Thread.State.WAITING
+                && approval.isAlive() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        expiration.join(5000);
+        approval.join(5000);
+
+        assertTrue(approvalError.get() instanceof EntityNotAvailableException);
+        assertEquals(BookingStatus.EXPIRED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+}
@@ -5,16 +5,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.booking.events.BookingEventHub;
+import ru.practicum.shareit.booking.events.BookingEventType;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.FieldSet;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.stats.ItemStatsAccumulator;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -23,9 +36,12 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,10 +53,22 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemStatsAccumulator itemStatsAccumulator;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingEventHub bookingEventHub;
 
     @BeforeEach
     public void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                itemAvailabilityIndex, commentRepository, itemStatsAccumulator, archivedBookingRepository,
+                bookingEventHub);
     }
 
     @Test
@@ -51,7 +79,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(itemId, "item name", "item description", true, new User(), null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         BookingAddDto bookingAddDtoLastBooking = new BookingAddDto(itemId, start, end);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
@@ -152,7 +180,7 @@ class BookingServiceImplTest {
         LocalDateTime start = LocalDateTime.now().plusDays(3);
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         Item item = new Item(itemId, "item name", "item description", true, new User(), null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         BookingAddDto bookingAddDtoLastBooking = new BookingAddDto(itemId, start, end);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
@@ -176,7 +204,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(itemId, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         BookingAddDto bookingAddDtoLastBooking = new BookingAddDto(itemId, start, end);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
@@ -200,7 +228,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(itemId, "item name", "item description", false, new User(), null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         BookingAddDto bookingAddDtoLastBooking = new BookingAddDto(itemId, start, end);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
@@ -225,10 +253,10 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.existsByItem_IdAndStartBeforeAndEndAfter(booking.getItem().getId(),
                 booking.getStart(), booking.getEnd())).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
@@ -238,11 +266,15 @@ class BookingServiceImplTest {
         assertNotNull(bookingLogDto);
         assertEquals(BookingStatus.APPROVED, bookingLogDto.getStatus());
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findForUpdateById(bookingId);
         verify(bookingRepository, times(1))
                 .existsByItem_IdAndStartBeforeAndEndAfter(booking.getItem().getId(),
                 booking.getStart(), booking.getEnd());
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(itemAvailabilityIndex, times(1)).markBusy(item.getId(), start, end);
+        verify(itemStatsAccumulator, times(1)).bookingApproved(item.getId());
+        verify(bookingEventHub, times(1)).publish(eq(userId), argThat((BookingEventDto event) ->
+                event.getType() == BookingEventType.APPROVED && event.getBookingId() == bookingId));
     }
 
     @Test
@@ -254,10 +286,10 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.existsByItem_IdAndStartBeforeAndEndAfter(booking.getItem().getId(),
                 booking.getStart(), booking.getEnd())).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
@@ -267,11 +299,14 @@ class BookingServiceImplTest {
         assertNotNull(bookingLogDto);
         assertEquals(BookingStatus.REJECTED, bookingLogDto.getStatus());
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findForUpdateById(bookingId);
         verify(bookingRepository, times(1))
                 .existsByItem_IdAndStartBeforeAndEndAfter(booking.getItem().getId(),
                         booking.getStart(), booking.getEnd());
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(itemAvailabilityIndex, never()).markBusy(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+        verify(itemStatsAccumulator, never()).bookingApproved(anyLong());
     }
 
     @Test
@@ -280,14 +315,14 @@ class BookingServiceImplTest {
         long bookingId = 1L;
         Boolean approved = false;
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class,
                 () -> bookingService.updateBookingStatus(userId, approved, bookingId));
 
         assertEquals("Бронирования с id 1 не существует", exception.getMessage());
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findForUpdateById(bookingId);
         verify(bookingRepository, never())
                 .existsByItem_IdAndStartBeforeAndEndAfter(anyLong(),
                         any(LocalDateTime.class), any(LocalDateTime.class));
@@ -303,23 +338,70 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(1L, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.of(booking));
 
         Exception exception = assertThrows(EntityAccessException.class,
                 () -> bookingService.updateBookingStatus(userId, approved, bookingId));
 
         assertEquals("Бронирование может подтвердить только владелец вещи", exception.getMessage());
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findForUpdateById(bookingId);
         verify(bookingRepository, never())
                 .existsByItem_IdAndStartBeforeAndEndAfter(anyLong(),
                         any(LocalDateTime.class), any(LocalDateTime.class));
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    public void shouldThrowEntityNotAvailableExceptionWhenUpdateBookingStatusIsExpired() {
+        long userId = 1L;
+        long bookingId = 1L;
+        Boolean approved = true;
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        User user = new User(userId, "owner name", "owner@email.com");
+        Item item = new Item(1L, "item name", "item description", true, user, null, null,
+                Collections.emptyList(), null, 0);
+        Booking booking = new Booking(bookingId, start, end, item, new User(), BookingStatus.EXPIRED);
+
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.of(booking));
+
+        Exception exception = assertThrows(EntityNotAvailableException.class,
+                () -> bookingService.updateBookingStatus(userId, approved, bookingId));
+
+        assertEquals("Бронирование с id 1 истекло: время начала прошло без подтверждения", exception.getMessage());
+
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(itemStatsAccumulator, never()).bookingApproved(anyLong());
+    }
+
+    @Test
+    public void shouldThrowEntityNotAvailableExceptionWhenApprovingBookingThatAlreadyStarted() {
+        long userId = 1L;
+        long bookingId = 1L;
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        User user = new User(userId, "owner name", "owner@email.com");
+        Item item = new Item(1L, "item name", "item description", true, user, null, null,
+                Collections.emptyList(), null, 0);
+        Booking booking = new Booking(bookingId, start, end, item, new User(), BookingStatus.WAITING);
+
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.of(booking));
+
+        Exception exception = assertThrows(EntityNotAvailableException.class,
+                () -> bookingService.updateBookingStatus(userId, true, bookingId));
+
+        assertEquals("Бронирование с id 1 нельзя подтвердить: время начала уже прошло", exception.getMessage());
+
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(itemAvailabilityIndex, never()).markBusy(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+        verify(itemStatsAccumulator, never()).bookingApproved(anyLong());
+    }
+
     @Test
     public void shouldThrowDuplicateDataExceptionWhenUpdateBookingStatusIsAlreadyApproved() {
         long userId = 1L;
@@ -329,17 +411,17 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.APPROVED);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.of(booking));
 
         Exception exception = assertThrows(DuplicateDataException.class,
                 () -> bookingService.updateBookingStatus(userId, approved, bookingId));
 
         assertEquals("Бронирование с id 1 уже подтверждено", exception.getMessage());
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findForUpdateById(bookingId);
         verify(bookingRepository, never())
                 .existsByItem_IdAndStartBeforeAndEndAfter(anyLong(),
                         any(LocalDateTime.class), any(LocalDateTime.class));
@@ -355,10 +437,10 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.existsByItem_IdAndStartBeforeAndEndAfter(booking.getItem().getId(),
                 booking.getStart(), booking.getEnd())).thenReturn(true);
 
@@ -367,7 +449,7 @@ class BookingServiceImplTest {
 
         assertEquals("Вещь с id 1  не доступна к бронированию на выбранное время", exception.getMessage());
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findForUpdateById(bookingId);
         verify(bookingRepository, times(1))
                 .existsByItem_IdAndStartBeforeAndEndAfter(booking.getItem().getId(),
                         booking.getStart(), booking.getEnd());
@@ -382,7 +464,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(bookingId, start, end, item, user, BookingStatus.WAITING);
         BookingLogDto bookingLogDto = new BookingLogDto(bookingId, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.WAITING);
@@ -419,7 +501,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(1L, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(bookingId, start, end, item, user, BookingStatus.WAITING);
 
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
@@ -442,7 +524,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().minusDays(2);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.PAST);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.PAST);
@@ -450,7 +532,7 @@ class BookingServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(bookingRepository.findByBookerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size);
+        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -467,6 +549,39 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).findByStatusAndBookerId(any(BookingStatus.class), anyLong(), any(Pageable.class));
     }
 
+    @Test
+    public void shouldMergeArchivedBookingsIntoPastPage() {
+        long userId = 1L;
+        LocalDateTime now = LocalDateTime.now();
+        User user = new User(userId, "owner name", "owner@email.com");
+        Item item = new Item(1L, "item name", "item description", true, user, null, null,
+                Collections.emptyList(), null, 0);
+        Booking recent = new Booking(3L, now.minusDays(3), now.minusDays(2), item, user, BookingStatus.APPROVED);
+        Booking older = new Booking(2L, now.minusYears(1), now.minusYears(1).plusDays(1), item, user,
+                BookingStatus.APPROVED);
+        ArchivedBooking archived = new ArchivedBooking(1L, now.minusYears(2), now.minusYears(2).plusDays(1),
+                item, user, BookingStatus.APPROVED);
+        ArchivedBooking archivedBetween = new ArchivedBooking(4L, now.minusMonths(18),
+                now.minusMonths(18).plusDays(1), item, user, BookingStatus.APPROVED);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingRepository.findByEndIsBeforeAndBookerId(any(LocalDateTime.class), eq(userId), any(Pageable.class)))
+                .thenReturn(List.of(recent, older));
+        when(archivedBookingRepository.findByEndIsBeforeAndBookerId(any(LocalDateTime.class), eq(userId),
+                any(Pageable.class))).thenReturn(List.of(archivedBetween, archived));
+
+        List<BookingLogDto> result = bookingService.getAllUserBookings(BookingStatus.PAST, userId, 2, 2,
+                FieldSet.ALL);
+
+        assertEquals(List.of(4L, 1L), result.stream().map(BookingLogDto::getId).collect(Collectors.toList()));
+
+        // из каждой таблицы читаются первые offset + size строк
+        verify(bookingRepository, times(1)).findByEndIsBeforeAndBookerId(any(LocalDateTime.class), eq(userId),
+                eq(PageRequest.of(0, 4, Sort.by(Sort.Order.desc("start")))));
+        verify(archivedBookingRepository, times(1)).findByEndIsBeforeAndBookerId(any(LocalDateTime.class),
+                eq(userId), eq(PageRequest.of(0, 4, Sort.by(Sort.Order.desc("start")))));
+    }
+
     @Test
     public void shouldReturnAllUserBookingsByStatePast() {
         BookingStatus bookingStatus = BookingStatus.PAST;
@@ -477,7 +592,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().minusDays(2);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.PAST);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.PAST);
@@ -486,7 +601,7 @@ class BookingServiceImplTest {
         when(bookingRepository.findByEndIsBeforeAndBookerId(any(LocalDateTime.class),anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size);
+        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -513,7 +628,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(4);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.FUTURE);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.FUTURE);
@@ -522,7 +637,7 @@ class BookingServiceImplTest {
         when(bookingRepository.findByStartIsAfterAndBookerId(any(LocalDateTime.class), anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size);
+        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -549,7 +664,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(1);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.CURRENT);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.CURRENT);
@@ -559,7 +674,7 @@ class BookingServiceImplTest {
                 any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size);
+        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -586,7 +701,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(1);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.WAITING);
@@ -596,7 +711,7 @@ class BookingServiceImplTest {
                         anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size);
+        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -624,7 +739,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(1);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.REJECTED);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.REJECTED);
@@ -634,7 +749,7 @@ class BookingServiceImplTest {
                 anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size);
+        List<BookingLogDto> result = bookingService.getAllUserBookings(bookingStatus, userId, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -662,7 +777,7 @@ class BookingServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class, () ->
-                bookingService.getAllUserBookings(bookingStatus, userId, from, size));
+                bookingService.getAllUserBookings(bookingStatus, userId, from, size, FieldSet.ALL));
 
         assertEquals("Пользователя с id 1 не существует", exception.getMessage());
 
@@ -688,7 +803,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().minusDays(2);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.PAST);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.PAST);
@@ -696,7 +811,7 @@ class BookingServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(bookingRepository.findByItem_OwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size);
+        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -711,6 +826,58 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).findByItem_OwnerIdAndStatus(anyLong(), any(BookingStatus.class), any(Pageable.class));
     }
 
+    @Test
+    public void shouldNotLoadItemWhenFieldsExcludeIt() {
+        long userId = 1L;
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        LocalDateTime end = LocalDateTime.now().minusDays(2);
+        User user = new User(userId, "owner name", "owner@email.com");
+        Booking booking = mock(Booking.class);
+        when(booking.getId()).thenReturn(1L);
+        when(booking.getBooker()).thenReturn(user);
+        when(booking.getStart()).thenReturn(start);
+        when(booking.getEnd()).thenReturn(end);
+        when(booking.getStatus()).thenReturn(BookingStatus.PAST);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.findByItem_OwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+
+        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, BookingStatus.ALL, 0, 10,
+                FieldSet.parse("booker"));
+
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getItem());
+        assertEquals(UserMapper.mapToUserLogDto(user), result.get(0).getBooker());
+        verify(booking, never()).getItem();
+        verify(commentRepository, never()).findLatestWithAuthorByItemIdIn(anyCollection());
+    }
+
+    @Test
+    public void shouldLoadLatestCommentsOnceForPage() {
+        long userId = 1L;
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        LocalDateTime end = LocalDateTime.now().minusDays(2);
+        User user = new User(userId, "owner name", "owner@email.com");
+        Item item = new Item(1L, "item name", "item description", true, user, null, null,
+                null, null, 1);
+        Booking booking1 = new Booking(1L, start, end, item, user, BookingStatus.PAST);
+        Booking booking2 = new Booking(2L, start.minusDays(1), end.minusDays(1), item, user, BookingStatus.PAST);
+        Comment comment = new Comment(1L, "comment text", 1L, user, end);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.findByItem_OwnerId(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(booking1, booking2));
+        when(commentRepository.findLatestWithAuthorByItemIdIn(Set.of(1L))).thenReturn(List.of(comment));
+
+        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, BookingStatus.ALL, 0, 10,
+                FieldSet.ALL);
+
+        assertEquals(2, result.size());
+        assertEquals(List.of(CommentMapper.mapToCommentInItemLogDto(comment)), result.get(0).getItem().getComments());
+        assertEquals(1, result.get(1).getItem().getCommentCount());
+        verify(commentRepository, times(1)).findLatestWithAuthorByItemIdIn(anyCollection());
+    }
+
     @Test
     public void shouldReturnAllItemBookingsUserByStatePast() {
         BookingStatus bookingStatus = BookingStatus.PAST;
@@ -721,7 +888,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().minusDays(2);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.PAST);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.PAST);
@@ -730,7 +897,7 @@ class BookingServiceImplTest {
         when(bookingRepository.findByItem_OwnerIdAndEndIsBefore(anyLong(),
                 any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size);
+        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -756,7 +923,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(5);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.FUTURE);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.FUTURE);
@@ -765,7 +932,7 @@ class BookingServiceImplTest {
         when(bookingRepository.findByItem_OwnerIdAndEndIsAfter(anyLong(),
                 any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size);
+        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -792,7 +959,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(2);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.CURRENT);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.CURRENT);
@@ -801,7 +968,7 @@ class BookingServiceImplTest {
         when(bookingRepository.findByItem_OwnerIdAndStartBeforeAndEndAfter(anyLong(),
                 any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size);
+        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -828,7 +995,7 @@ class BookingServiceImplTest {
         LocalDateTime end = LocalDateTime.now().plusDays(2);
         User user = new User(userId, "owner name", "owner@email.com");
         Item item = new Item(1L, "item name", "item description", true, user, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
         BookingLogDto bookingLogDto = new BookingLogDto(1L, ItemMapper.mapToItemLogDto(item),
                 UserMapper.mapToUserLogDto(user), start, end, BookingStatus.WAITING);
@@ -837,7 +1004,7 @@ class BookingServiceImplTest {
         when(bookingRepository.findByItem_OwnerIdAndStatus(anyLong(),
                 any(BookingStatus.class), any(Pageable.class))).thenReturn(List.of(booking));
 
-        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size);
+        List<BookingLogDto> result = bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size, FieldSet.ALL);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -865,7 +1032,7 @@ class BookingServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class, () ->
-                bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size));
+                bookingService.getAllItemBookingsUser(userId, bookingStatus, from, size, FieldSet.ALL));
 
         assertEquals("Пользователя с id 1 не существует", exception.getMessage());
 
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSetTest {
+    @Test
+    public void shouldIncludeEverythingWhenFieldsNotSet() {
+        FieldSet fields = FieldSet.parse(null);
+
+        assertSame(FieldSet.ALL, fields);
+        assertTrue(fields.includes("item"));
+        assertTrue(fields.includes("item.comments"));
+        assertTrue(fields.includes("booker"));
+    }
+
+    @Test
+    public void shouldIncludeParentOfListedNestedPath() {
+        FieldSet fields = FieldSet.parse("item.comments");
+
+        assertTrue(fields.includes("item"));
+        assertTrue(fields.includes("item.comments"));
+        assertFalse(fields.includes("booker"));
+    }
+
+    @Test
+    public void shouldExcludeChildrenOfListedPath() {
+        FieldSet fields = FieldSet.parse(" booker, item ");
+
+        assertTrue(fields.includes("booker"));
+        assertTrue(fields.includes("item"));
+        assertFalse(fields.includes("item.comments"));
+    }
+
+    @Test
+    public void shouldExcludeAllNestedPartsWhenFieldsEmpty() {
+        FieldSet fields = FieldSet.parse("");
+
+        assertFalse(fields.includes("item"));
+        assertFalse(fields.includes("booker"));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffsetPageRequestTest {
+    @Test
+    public void shouldUseFromAsOffset() {
+        OffsetPageRequest pageable = OffsetPageRequest.of(5, 10);
+
+        assertEquals(5, pageable.getOffset());
+        assertEquals(10, pageable.getPageSize());
+        assertEquals(0, pageable.getPageNumber());
+        assertTrue(pageable.hasPrevious());
+        assertEquals(15, pageable.next().getOffset());
+        assertEquals(0, pageable.previousOrFirst().getOffset());
+    }
+
+    @Test
+    public void shouldKeepSort() {
+        Sort sort = Sort.by(Sort.Order.desc("created"));
+
+        assertEquals(sort, OffsetPageRequest.of(0, 10, sort).next().getSort());
+    }
+
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfFromNegativeOrSizeNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
@@ -0,0 +1,243 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.IdempotencyKeyConflictException;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Test
+    public void shouldReplayResponseForSameKey() {
+        IdempotencyStore store = store(10, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = store.execute("POST /items", 1L, "key", "request", String.class,
+                () -> "response " + calls.incrementAndGet());
+        String second = store.execute("POST /items", 1L, "key", "request", String.class,
+                () -> "response " + calls.incrementAndGet());
+
+        assertEquals("response 1", first);
+        assertEquals("response 1", second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void shouldScopeKeyByUserAndOperation() {
+        IdempotencyStore store = store(10, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute("POST /items", 1L, "key", "request", Integer.class, calls::incrementAndGet);
+        store.execute("POST /items", 2L, "key", "request", Integer.class, calls::incrementAndGet);
+        store.execute("POST /bookings", 1L, "key", "request", Integer.class, calls::incrementAndGet);
+        store.execute("POST /items", 1L, null, "request", Integer.class, calls::incrementAndGet);
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void shouldRejectKeyReusedWithOtherRequest() {
+        IdempotencyStore store = store(10, false);
+        store.execute("POST /items", 1L, "key", "request", String.class, () -> "response");
+
+        Exception exception = assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("POST /items", 1L, "key", "other request", String.class, () -> "other"));
+
+        assertEquals("Ключ идемпотентности key уже использован для другого запроса", exception.getMessage());
+    }
+
+    @Test
+    public void shouldNotRememberFailedRequest() {
+        IdempotencyStore store = store(10, false);
+
+        assertThrows(EntityNotFoundException.class, () -> store.execute("POST /items", 1L, "key", "request",
+                String.class, () -> {
+                    throw new EntityNotFoundException("Пользователя с id 1 не существует");
+                }));
+
+        assertEquals("response", store.execute("POST /items", 1L, "key", "request", String.class,
+                () -> "response"));
+    }
+
+    @Test
+    public void shouldWaitForInFlightDuplicate() throws Exception {
+        IdempotencyStore store = store(10, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> store.execute("POST /bookings", 1L, "key", "request",
+                    String.class, () -> {
+                        calls.incrementAndGet();
+                        started.countDown();
+                        awaitQuietly(release);
+                        return "booking";
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> duplicate = executor.submit(() -> store.execute("POST /bookings", 1L, "key", "request",
+                    String.class, () -> "duplicate " + calls.incrementAndGet()));
+
+            release.countDown();
+
+            assertEquals("booking", first.get(5, TimeUnit.SECONDS));
+            assertEquals("booking", duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldEvictOldestCompletedEntriesOverLimit() {
+        IdempotencyStore store = store(2, false);
+
+        for (int i = 0; i < 5; i++) {
+            store.execute("POST /items", 1L, "key" + i, "request", Integer.class, () -> 1);
+        }
+
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void shouldReplayResponseStoredInDatabase() throws Exception {
+        IdempotencyStore store = store(10, true);
+        String scopeKey = "POST /items:1:key";
+        when(repository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById(scopeKey)).thenReturn(Optional.of(record(scopeKey, "stored",
+                LocalDateTime.now().minusMinutes(1))));
+
+        String response = store.execute("POST /items", 1L, "key", "request", String.class,
+                () -> fail("запрос не должен выполняться повторно"));
+
+        assertEquals("stored", response);
+        verify(repository, never()).complete(anyString(), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    public void shouldClaimKeyBeforeExecutingAndSaveResponse() {
+        IdempotencyStore store = store(10, true);
+
+        store.execute("POST /items", 1L, "key", "request", String.class, () -> "response");
+
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository, times(1)).saveAndFlush(captor.capture());
+        assertEquals("POST /items:1:key", captor.getValue().getScopeKey());
+        assertEquals("\"request\"", captor.getValue().getRequestBody());
+        assertNull(captor.getValue().getResponseBody());
+        verify(repository, times(1)).complete("POST /items:1:key", captor.getValue().getCreated(),
+                "\"response\"");
+    }
+
+    @Test
+    public void shouldWaitForDuplicateRunningOnOtherNode() throws Exception {
+        IdempotencyStore store = store(10, true);
+        String scopeKey = "POST /bookings:1:key";
+        LocalDateTime claimedAt = LocalDateTime.now().minusSeconds(1);
+        when(repository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById(scopeKey)).thenReturn(
+                Optional.of(record(scopeKey, null, claimedAt)),
+                Optional.of(record(scopeKey, "booking", claimedAt)));
+
+        String response = store.execute("POST /bookings", 1L, "key", "request", String.class,
+                () -> fail("запрос не должен выполняться повторно"));
+
+        assertEquals("booking", response);
+        verify(repository, times(2)).findById(scopeKey);
+    }
+
+    @Test
+    public void shouldRejectDuplicateWhenOtherNodeDoesNotFinishInTime() throws Exception {
+        IdempotencyStore store = store(10, true, Duration.ofMillis(100));
+        String scopeKey = "POST /bookings:1:key";
+        when(repository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById(scopeKey)).thenReturn(Optional.of(record(scopeKey, null, LocalDateTime.now())));
+
+        Exception exception = assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("POST /bookings", 1L, "key", "request", String.class,
+                        () -> fail("запрос не должен выполняться повторно")));
+
+        assertEquals("Запрос с ключом идемпотентности key ещё выполняется, повторите позже",
+                exception.getMessage());
+    }
+
+    @Test
+    public void shouldReleaseClaimWhenRequestFails() {
+        IdempotencyStore store = store(10, true);
+
+        assertThrows(EntityNotFoundException.class, () -> store.execute("POST /items", 1L, "key", "request",
+                String.class, () -> {
+                    throw new EntityNotFoundException("Пользователя с id 1 не существует");
+                }));
+
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(captor.capture());
+        verify(repository).deleteClaim("POST /items:1:key", captor.getValue().getCreated());
+        verify(repository, never()).complete(anyString(), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    public void shouldTakeOverAbandonedClaim() throws Exception {
+        IdempotencyStore store = store(10, true);
+        String scopeKey = "POST /items:1:key";
+        LocalDateTime abandonedAt = LocalDateTime.now().minusMinutes(5);
+        when(repository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.findById(scopeKey)).thenReturn(Optional.of(record(scopeKey, null, abandonedAt)));
+
+        String response = store.execute("POST /items", 1L, "key", "request", String.class, () -> "response");
+
+        assertEquals("response", response);
+        verify(repository).deleteClaim(scopeKey, abandonedAt);
+        verify(repository, times(2)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    private IdempotencyStore store(int maxEntries, boolean databaseEnabled) {
+        return store(maxEntries, databaseEnabled, Duration.ofSeconds(5));
+    }
+
+    private IdempotencyStore store(int maxEntries, boolean databaseEnabled, Duration waitTimeout) {
+        return new IdempotencyStore(repository, objectMapper, Duration.ofHours(24), maxEntries,
+                waitTimeout, Duration.ofMinutes(1), databaseEnabled);
+    }
+
+    private IdempotencyRecord record(String scopeKey, String response, LocalDateTime created) throws Exception {
+        return new IdempotencyRecord(scopeKey, objectMapper.writeValueAsString("request"),
+                response == null ? null : objectMapper.writeValueAsString(response), created);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,12 +6,17 @@ import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.idempotency.IdempotencyRecordRepository;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.comment.dto.CommentAddDto;
 import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityLogDto;
 import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -27,11 +32,14 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(IdempotencyStore.class)
 public class ItemControllerTest {
     @InjectMocks
     private ItemController controller;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
     @Autowired
     private final ObjectMapper mapper = new ObjectMapper();
     @Autowired
@@ -42,7 +50,7 @@ public class ItemControllerTest {
         long userId = 1L;
         ItemAddDto itemAddDto = new ItemAddDto("item name", "item description", true, null);
         ItemLogDto itemLogDto = new ItemLogDto(1L, itemAddDto.getName(), itemAddDto.getDescription(), true, userId,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
 
         when(itemService.addItem(itemAddDto, userId)).thenReturn(itemLogDto);
 
@@ -67,7 +75,7 @@ public class ItemControllerTest {
         ItemUpdateDto itemUpdateDto = new ItemUpdateDto(1L, "item name", "item description",
                 true, null);
         ItemLogDto itemLogDto = new ItemLogDto(1L, itemUpdateDto.getName(), itemUpdateDto.getDescription(),
-                true, userId,null, null, Collections.emptyList(), null);
+                true, userId,null, null, Collections.emptyList(), null, 0);
 
         when(itemService.updateItem(itemUpdateDto, itemId, userId)).thenReturn(itemLogDto);
 
@@ -90,7 +98,7 @@ public class ItemControllerTest {
         long itemId = 1L;
         long userId = 1L;
         ItemLogDto itemLogDto = new ItemLogDto(itemId, "item name", "item description",
-                true, userId,null, null, Collections.emptyList(), null);
+                true, userId,null, null, Collections.emptyList(), null, 0);
 
         when(itemService.getItemById(itemId, userId)).thenReturn(itemLogDto);
 
@@ -112,12 +120,12 @@ public class ItemControllerTest {
         int from = 0;
         int size = 10;
         ItemLogDto itemLogDto1 = new ItemLogDto(1L, "item1 name", "item1 description",
-                true, userId,null, null, Collections.emptyList(), null);
+                true, userId,null, null, Collections.emptyList(), null, 0);
         ItemLogDto itemLogDto2 = new ItemLogDto(2L, "item2 name", "item2 description",
-                true, userId,null, null, Collections.emptyList(), null);
+                true, userId,null, null, Collections.emptyList(), null, 0);
         List<ItemLogDto> itemLogDtos = List.of(itemLogDto1, itemLogDto2);
 
-        when(itemService.getAllItemsByOwnerId(userId, from, size)).thenReturn(itemLogDtos);
+        when(itemService.getAllItemsByOwnerId(userId, from, size, null)).thenReturn(itemLogDtos);
 
         mockMvc.perform(get("/items")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -131,7 +139,7 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[1].description", is(itemLogDto2.getDescription())))
                 .andExpect(jsonPath("$[1].available", is(itemLogDto2.getAvailable())));
 
-        verify(itemService, times(1)).getAllItemsByOwnerId(userId, from, size);
+        verify(itemService, times(1)).getAllItemsByOwnerId(userId, from, size, null);
     }
 
     @Test
@@ -149,12 +157,12 @@ public class ItemControllerTest {
         int from = 0;
         int size = 10;
         ItemLogDto itemLogDto1 = new ItemLogDto(1L, "item1 name", "item1 description",
-                true, userId,null, null, Collections.emptyList(), null);
+                true, userId,null, null, Collections.emptyList(), null, 0);
         ItemLogDto itemLogDto2 = new ItemLogDto(2L, "item2 name", "item2 description",
-                true, userId,null, null, Collections.emptyList(), null);
+                true, userId,null, null, Collections.emptyList(), null, 0);
         List<ItemLogDto> itemLogDtos = List.of(itemLogDto1, itemLogDto2);
 
-        when(itemService.getItemsBySearchQuery(text, from, size)).thenReturn(itemLogDtos);
+        when(itemService.getItemsBySearchQuery(text, null, null, from, size, null)).thenReturn(itemLogDtos);
 
         mockMvc.perform(get("/items/search")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -170,7 +178,30 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[1].description", is(itemLogDto2.getDescription())))
                 .andExpect(jsonPath("$[1].available", is(itemLogDto2.getAvailable())));
 
-        verify(itemService, times(1)).getItemsBySearchQuery(text, from, size);
+        verify(itemService, times(1)).getItemsBySearchQuery(text, null, null, from, size, null);
+    }
+
+    @Test
+    public void shouldReturnItemsBySearchQueryAvailableForPeriod() throws Exception {
+        String text = "name";
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 2, 10, 0);
+        ItemLogDto itemLogDto = new ItemLogDto(1L, "item1 name", "item1 description",
+                true, 1L, null, null, Collections.emptyList(), null, 0);
+
+        when(itemService.getItemsBySearchQuery(text, start, end, 0, 10, null)).thenReturn(List.of(itemLogDto));
+
+        mockMvc.perform(get("/items/search")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("text", text)
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].name", is(itemLogDto.getName())));
+
+        verify(itemService, times(1)).getItemsBySearchQuery(text, start, end, 0, 10, null);
     }
 
     @Test
@@ -194,4 +225,51 @@ public class ItemControllerTest {
 
         verify(itemService, times(1)).addComment(commentAddDto, authorId, itemId);
     }
+
+    @Test
+    public void shouldReturnItemAvailability() throws Exception {
+        long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 0, 0);
+        ItemAvailabilityLogDto availability = new ItemAvailabilityLogDto(itemId, from, to,
+                List.of(new AvailabilityIntervalDto(from.plusHours(2), from.plusHours(5))),
+                List.of(new AvailabilityIntervalDto(from, from.plusHours(2)),
+                        new AvailabilityIntervalDto(from.plusHours(5), to)));
+
+        when(itemService.getItemAvailability(itemId, from, to)).thenReturn(availability);
+
+        mockMvc.perform(get("/items/{itemId}/availability", itemId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.busy[0].start", is("2030-01-01T02:00:00")))
+                .andExpect(jsonPath("$.busy[0].end", is("2030-01-01T05:00:00")))
+                .andExpect(jsonPath("$.free.length()", is(2)));
+
+        verify(itemService, times(1)).getItemAvailability(itemId, from, to);
+    }
+
+    @Test
+    public void shouldReturnItemCommentsPage() throws Exception {
+        long itemId = 1L;
+        CommentInItemLogDto comment = new CommentInItemLogDto(3L, "Хорошая вещь", "user name",
+                LocalDateTime.of(2030, 1, 1, 0, 0));
+
+        when(itemService.getItemComments(itemId, 4L, 1)).thenReturn(List.of(comment));
+
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("before", "4")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[0].text", is("Хорошая вещь")));
+
+        verify(itemService, times(1)).getItemComments(itemId, 4L, 1);
+    }
 }
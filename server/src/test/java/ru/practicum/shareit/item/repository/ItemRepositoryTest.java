@@ -5,11 +5,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.stats.ItemStatsRepository;
+import ru.practicum.shareit.item.stats.model.ItemStats;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -20,6 +29,12 @@ class ItemRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemStatsRepository itemStatsRepository;
     private final Sort sort = Sort.by(Sort.Order.asc("id"));
     private final User user = User.builder()
             .name("Вася")
@@ -86,4 +101,55 @@ class ItemRepositoryTest {
         List<Item> items = itemRepository.getItemsBySearchQuery("чКи", PageRequest.of(0, 10, sort));
         assertEquals(0, items.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnOnlyItemsWithoutApprovedBookingsInPeriodBySearchQuery() {
+        userRepository.save(user);
+        Item item1Expected = itemRepository.save(item);
+        Item item2Booked = itemRepository.save(item2);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 12, 12, 0);
+        bookingRepository.save(new Booking(null, start.minusDays(1), start.plusHours(1), item2Booked,
+                user, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, start, end, item1Expected, user, BookingStatus.REJECTED));
+        bookingRepository.save(new Booking(null, end, end.plusDays(1), item1Expected, user, BookingStatus.APPROVED));
+
+        List<Item> items = itemRepository.getAvailableItemsBySearchQuery("чКи", start, end,
+                BookingStatus.APPROVED, PageRequest.of(0, 10, sort));
+        assertEquals(1, items.size());
+        assertEquals(item1Expected, items.get(0));
+    }
+
+    @Test
+    public void shouldReturnItemsOfRequestedItemRequests() {
+        userRepository.save(user);
+        ItemRequest itemRequest1 = itemRequestRepository.save(new ItemRequest(null, "Нужны очки", user,
+                LocalDateTime.now(), null));
+        ItemRequest itemRequest2 = itemRequestRepository.save(new ItemRequest(null, "Нужна кружка", user,
+                LocalDateTime.now(), null));
+        item.setItemRequest(itemRequest1);
+        item2.setItemRequest(itemRequest2);
+        Item item1Expected = itemRepository.save(item);
+        itemRepository.save(item2);
+        itemRepository.save(item3);
+
+        List<Item> items = itemRepository.findAllByItemRequestIdIn(List.of(itemRequest1.getId()));
+        assertEquals(1, items.size());
+        assertEquals(item1Expected.getId(), items.get(0).getId());
+        assertEquals(itemRequest1.getId(), items.get(0).getItemRequest().getId());
+    }
+
+    @Test
+    public void shouldSortOwnerItemsByBookingCountFromItemStats() {
+        userRepository.save(user);
+        Item rare = itemRepository.save(item);
+        Item popular = itemRepository.save(item2);
+        Item unknown = itemRepository.save(item3);
+        itemStatsRepository.saveAll(List.of(new ItemStats(rare.getId(), 1), new ItemStats(popular.getId(), 5)));
+
+        Sort byBookings = JpaSort.unsafe(Sort.Direction.DESC, ItemRepository.ITEM_STATS_BOOKINGS).and(sort);
+        List<Item> items = itemRepository.findByOwnerId(user.getId(), PageRequest.of(0, 10, byBookings));
+
+        assertEquals(List.of(popular, rare, unknown), items);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemOwnerPageLoaderTest {
+    private ItemOwnerPageLoader loader;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        loader = new ItemOwnerPageLoader(bookingRepository, commentRepository, transactionManager, true, 2, 10, false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loader.destroy();
+    }
+
+    @Test
+    public void shouldMergeBookingsAndCommentsLoadedInParallel() {
+        User owner = new User(1L, "owner name", "owner@email.com");
+        User booker = new User(2L, "booker name", "booker@email.com");
+        Item item1 = new Item(1L, "item1 name", "item1 description", true, owner,
+                null, null, null, null, 0);
+        Item item2 = new Item(2L, "item2 name", "item2 description", true, owner,
+                null, null, null, null, 0);
+        Booking past = new Booking(1L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
+                item1, booker, BookingStatus.APPROVED);
+        Booking older = new Booking(2L, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4),
+                item1, booker, BookingStatus.APPROVED);
+        Booking future = new Booking(3L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item1, booker, BookingStatus.WAITING);
+        Comment comment = new Comment(1L, "comment text", 2L, booker, LocalDateTime.now());
+
+        when(bookingRepository.findAllByItemIdInAndStatusNot(List.of(1L, 2L), BookingStatus.REJECTED))
+                .thenReturn(List.of(older, future, past));
+        when(commentRepository.findLatestWithAuthorByItemIdIn(List.of(1L, 2L))).thenReturn(List.of(comment));
+
+        List<ItemLogDto> result = loader.load(List.of(item1, item2));
+
+        assertEquals(2, result.size());
+        assertEquals(BookingMapper.mapToBookingShortDto(past), result.get(0).getLastBooking());
+        assertEquals(BookingMapper.mapToBookingShortDto(future), result.get(0).getNextBooking());
+        assertEquals(Collections.emptyList(), result.get(0).getComments());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(List.of(CommentMapper.mapToCommentInItemLogDto(comment)), result.get(1).getComments());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void shouldNotQueryWhenPageIsEmpty() {
+        assertTrue(loader.load(Collections.emptyList()).isEmpty());
+
+        verify(bookingRepository, never()).findAllByItemIdInAndStatusNot(anyList(), any(BookingStatus.class));
+        verify(commentRepository, never()).findLatestWithAuthorByItemIdIn(anyList());
+    }
+
+    @Test
+    public void shouldBeDisabledByDefault() {
+        ItemOwnerPageLoader sequential = new ItemOwnerPageLoader(bookingRepository, commentRepository,
+                transactionManager, false, 2, 10, false);
+
+        assertFalse(sequential.isParallel());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.user.dto.UserAddDto;
+import ru.practicum.shareit.user.dto.UserLogDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Пул из двух соединений меньше, чем нужно одной странице в параллельном режиме вместе с вызывающим
+// потоком. Если вызывающий поток держит соединение, пока ждёт загрузчик, одновременные запросы
+// разбирают весь пул, загрузчик ждёт соединение до connection-timeout и запрос падает с 500.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:owner-page-pool",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "shareit.items.owner-page.parallel=true",
+        "shareit.items.owner-page.pool-size=4"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemOwnerPagePoolIntegrationTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int CLIENTS = 8;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Test
+    public void shouldServeConcurrentOwnerPagesWithSmallPool() throws Exception {
+        String owner = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new UserAddDto("owner", "pool-owner@email.com"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long ownerId = mapper.readValue(owner, UserLogDto.class).getId();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/items").header(USER_HEADER, ownerId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(new ItemAddDto("Дрель " + i, "Дрель", true, null))))
+                    .andExpect(status().isOk());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> {
+                    start.await();
+                    int ok = 0;
+                    for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                        int status = mockMvc.perform(get("/items").header(USER_HEADER, ownerId))
+                                .andReturn().getResponse().getStatus();
+                        ok += status == 200 ? 1 : 0;
+                    }
+                    return ok;
+                }));
+            }
+            start.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(REQUESTS_PER_CLIENT, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingAddDto;
 import ru.practicum.shareit.booking.dto.BookingLogDto;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -21,6 +23,8 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -36,6 +40,8 @@ public class ItemServiceImplIntegrationTest {
     private BookingService bookingService;
     @Autowired
     private ItemRequestService itemRequestService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Test
     public void integrationItemTest() throws InterruptedException {
@@ -58,7 +64,7 @@ public class ItemServiceImplIntegrationTest {
 
         assertEquals(itemLogDto1, itemLogDto1WithRequest);
         assertEquals(itemLogDto1.getRequestId(), itemLogDto1WithRequest.getRequestId());
-        assertEquals(1, itemService.getAllItemsByOwnerId(userLogDto2.getId(), 0, 10).size());
+        assertEquals(1, itemService.getAllItemsByOwnerId(userLogDto2.getId(), 0, 10, null).size());
 
         ItemAddDto itemAddDto2 = new ItemAddDto("Книга по психологии", "Счастлив по собственному желанию",
                 true, null);
@@ -79,15 +85,37 @@ public class ItemServiceImplIntegrationTest {
         assertEquals(commentInItemLogDto.getText(), itemLogDto2WithBookingAndComment.getComments().get(0).getText());
         assertEquals(commentInItemLogDto.getAuthorName(), itemLogDto2WithBookingAndComment.getComments().get(0).getAuthorName());
         assertEquals(commentInItemLogDto.getCreated(), itemLogDto2WithBookingAndComment.getComments().get(0).getCreated());
-        assertEquals(2, itemService.getAllItemsByOwnerId(userLogDto2.getId(), 0, 10).size());
+        assertEquals(1, itemLogDto2WithBookingAndComment.getCommentCount());
+        assertEquals(2, itemService.getAllItemsByOwnerId(userLogDto2.getId(), 0, 10, null).size());
 
         ItemAddDto itemAddDto3 = new ItemAddDto("Синтезатор", "CASIO",
                 true, null);
         ItemLogDto itemLogDto3 = itemService.addItem(itemAddDto3, userLogDto1.getId());
         assertEquals(itemLogDto3, itemService.getItemById(itemLogDto3.getId(), userLogDto1.getId()));
-        assertEquals(Collections.emptyList(), itemService.getItemsBySearchQuery("что-то", 0, 10));
-        assertEquals(1, itemService.getAllItemsByOwnerId(userLogDto1.getId(), 0, 10).size());
+        assertEquals(Collections.emptyList(), itemService.getItemsBySearchQuery("что-то", null, null, 0, 10, null));
+        assertEquals(1, itemService.getAllItemsByOwnerId(userLogDto1.getId(), 0, 10, null).size());
         itemService.deleteItemById(itemLogDto3.getId());
-        assertEquals(0, itemService.getAllItemsByOwnerId(userLogDto1.getId(), 0, 10).size());
+        assertEquals(0, itemService.getAllItemsByOwnerId(userLogDto1.getId(), 0, 10, null).size());
+    }
+
+    @Test
+    public void shouldNotIndexItemWhenSaveIsRolledBack() {
+        UserLogDto requester = userService.addUser(new UserAddDto("requester name", "requester@email.com"));
+        UserLogDto owner = userService.addUser(new UserAddDto("owner name", "owner@email.com"));
+        ItemRequestLogDto request = itemRequestService.addItemRequest(new ItemRequestAddDto("Нужна палатка"),
+                requester.getId());
+        assertEquals(Collections.emptyList(), itemRequestService.getMatchingItemRequests(owner.getId(), 0, 10));
+
+        // вещь сохранена в транзакции, которая откатывается: в индекс она попасть не должна
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemService.addItem(new ItemAddDto("Палатка", "Трёхместная", true, null), owner.getId());
+            status.setRollbackOnly();
+        });
+        assertEquals(Collections.emptyList(), itemRequestService.getMatchingItemRequests(owner.getId(), 0, 10));
+        assertEquals(0, itemService.getAllItemsByOwnerId(owner.getId(), 0, 10, null).size());
+
+        itemService.addItem(new ItemAddDto("Палатка", "Трёхместная", true, null), owner.getId());
+        assertEquals(List.of(request.getId()), itemRequestService.getMatchingItemRequests(owner.getId(), 0, 10)
+                .stream().map(ItemRequestLogDto::getId).collect(Collectors.toList()));
     }
-}
\ No newline at end of file
+}
@@ -8,24 +8,34 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.availability.AvailabilityInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.EntityNotAvailableException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.IncorrectTimeDateException;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.ItemCommentsCache;
 import ru.practicum.shareit.item.comment.dto.CommentAddDto;
 import ru.practicum.shareit.item.comment.dto.CommentInItemLogDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityLogDto;
 import ru.practicum.shareit.item.dto.ItemLogDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSort;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.matching.ItemRequestMatchingIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -38,6 +48,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,10 +64,24 @@ class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    private ItemOwnerPageLoader itemOwnerPageLoader;
+    @Mock
+    private ItemRequestMatchingIndex itemRequestMatchingIndex;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private ItemCommentsCache itemCommentsCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @BeforeEach
     public void setUp() {
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository,
+                itemRequestRepository, itemAvailabilityIndex, itemOwnerPageLoader, itemRequestMatchingIndex,
+                archivedBookingRepository, itemCommentsCache, transactionManager);
     }
 
     @Test
@@ -67,7 +92,7 @@ class ItemServiceImplTest {
                 LocalDateTime.now(), Collections.emptyList());
         ItemAddDto itemAddDto = new ItemAddDto("item name", "item description", true, itemRequest.getId());
         Item item = new Item(1L, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), itemRequest);
+                null, null, Collections.emptyList(), itemRequest, 0);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
@@ -103,7 +128,7 @@ class ItemServiceImplTest {
         User owner = new User(ownerId, "user name", "user@email.com");
         ItemAddDto itemAddDto = new ItemAddDto("item name", "item description", true, null);
         Item item = new Item(1L, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
@@ -125,10 +150,10 @@ class ItemServiceImplTest {
                 "itemUpdateDto description", false, ownerId);
         User owner = new User(ownerId, "user name", "user@email.com");
         Item itemBeforeUpdate = new Item(itemId, "item name", "item description",
-                true, owner, null, null, Collections.emptyList(), null);
+                true, owner, null, null, Collections.emptyList(), null, 0);
         ItemLogDto expectedItemLogDto = new ItemLogDto(itemId, "itemUpdateDto name",
                 "itemUpdateDto description", false, ownerId, null,
-                null, Collections.emptyList(), null);
+                null, Collections.emptyList(), null, 0);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(itemBeforeUpdate));
@@ -170,7 +195,7 @@ class ItemServiceImplTest {
                 "itemUpdateDto description", false, ownerId);
         User owner = new User(ownerId, "user name", "user@email.com");
         Item item = new Item(itemId, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
 
         when(itemRepository.findById(ownerId)).thenReturn(Optional.of(item));
         when(userRepository.findById(ownerId)).thenReturn(Optional.empty());
@@ -195,7 +220,7 @@ class ItemServiceImplTest {
         User owner = new User(ownerId, "user name", "user@email.com");
         User wrongOwner = new User(wrongOwnerId, "wrongOwner name", "wrongOwner@email.com");
         Item itemBeforeUpdate = new Item(itemId, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
 
         when(itemRepository.findById(ownerId)).thenReturn(Optional.of(itemBeforeUpdate));
         when(userRepository.findById(wrongOwnerId)).thenReturn(Optional.of(wrongOwner));
@@ -217,7 +242,7 @@ class ItemServiceImplTest {
         ItemUpdateDto itemUpdateDto = new ItemUpdateDto(itemId, "itemUpdateDto name", null, null, ownerId);
         User owner = new User(ownerId, "user name", "user@email.com");
         Item item = new Item(itemId, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
@@ -244,7 +269,7 @@ class ItemServiceImplTest {
                 null, ownerId);
         User owner = new User(ownerId, "user name", "user@email.com");
         Item item = new Item(itemId, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
@@ -270,7 +295,7 @@ class ItemServiceImplTest {
         ItemUpdateDto itemUpdateDto = new ItemUpdateDto(itemId, null, null, false, ownerId);
         User owner = new User(ownerId, "user name", "user@email.com");
         Item item = new Item(itemId, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
@@ -299,7 +324,7 @@ class ItemServiceImplTest {
         LocalDateTime endNextBooking = LocalDateTime.now().plusDays(2);
         User owner = new User(ownerId, "user name", "user@email.com");
         Item item = new Item(itemId, "item name", "item description", true, owner,
-                null, null, Collections.emptyList(), null);
+                null, null, Collections.emptyList(), null, 0);
         Booking lastBooking = new Booking(1L, startLastBooking, endLastBooking, item, owner, BookingStatus.PAST);
         Booking nextBooking = new Booking(2L, startNextBooking, endNextBooking, item, owner, BookingStatus.PAST);
 
@@ -331,7 +356,7 @@ class ItemServiceImplTest {
         long wrongOwnerId = 2L;
         User owner = new User(ownerId, "user name", "user@email.com");
         Item item = new Item(itemId, "item name", "item description", true, owner, null, null,
-                Collections.emptyList(), null);
+                Collections.emptyList(), null, 0);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
 
@@ -375,9 +400,9 @@ class ItemServiceImplTest {
         Pageable pageable = PageRequest.of(0, size, sort);
         User targetOwner = new User(ownerId, "user name", "user@email.com");
         Item item1 = new Item(1L, "item1 name", "item1 description",
-                true, targetOwner, null, null, Collections.emptyList(), null);
+                true, targetOwner, null, null, Collections.emptyList(), null, 0);
         Item item2 = new Item(3L, "item3 name", "item3 description",
-                true, targetOwner, null, null, Collections.emptyList(), null);
+                true, targetOwner, null, null, Collections.emptyList(), null, 0);
         List<Item> items = List.of(item1, item2);
 
         LocalDateTime startBooking1 = LocalDateTime.now().minusDays(3);
@@ -393,11 +418,11 @@ class ItemServiceImplTest {
         when(bookingRepository.findAllByItemIdInAndStatusNot(anyList(),
                 any(BookingStatus.class))).thenReturn(bookings);
 
-        List<ItemLogDto> result = itemService.getAllItemsByOwnerId(ownerId, from, size);
+        List<ItemLogDto> result = itemService.getAllItemsByOwnerId(ownerId, from, size, null);
         item1.setLastBooking(booking1);
         item1.setNextBooking(booking2);
 
-        assertEquals(ItemMapper.mapToListItemLogDto(items), result);
+        assertEquals(ItemMapper.mapToListItemLogDto(items, Collections.emptyMap()), result);
 
         verify(userRepository, times(1)).findById(ownerId);
         verify(itemRepository, times(1)).findByOwnerId(ownerId, pageable);
@@ -410,7 +435,7 @@ class ItemServiceImplTest {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(itemRepository.findByOwnerId(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
 
-        List<ItemLogDto> result = itemService.getAllItemsByOwnerId(1L, 0, 2);
+        List<ItemLogDto> result = itemService.getAllItemsByOwnerId(1L, 0, 2, null);
 
         assertEquals(Collections.emptyList(), result);
 
@@ -420,6 +445,35 @@ class ItemServiceImplTest {
                 any(BookingStatus.class));
     }
 
+    @Test
+    public void shouldSortOwnerItemsByCommentCountWhenRequested() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(itemRepository.findByOwnerId(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        itemService.getAllItemsByOwnerId(1L, 20, 10, ItemSort.COMMENTS);
+
+        verify(itemRepository, times(1)).findByOwnerId(1L, PageRequest.of(2, 10,
+                Sort.by(Sort.Order.desc("commentCount"), Sort.Order.asc("id"))));
+    }
+
+    @Test
+    public void shouldDelegateToOwnerPageLoaderWhenParallelModeEnabled() {
+        long ownerId = 1L;
+        User owner = new User(ownerId, "user name", "user@email.com");
+        Item item = new Item(1L, "item name", "item description", true, owner,
+                null, null, Collections.emptyList(), null, 0);
+        List<ItemLogDto> expected = List.of(ItemMapper.mapToItemLogDto(item));
+
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(itemRepository.findByOwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemOwnerPageLoader.isParallel()).thenReturn(true);
+        when(itemOwnerPageLoader.load(List.of(item))).thenReturn(expected);
+
+        assertEquals(expected, itemService.getAllItemsByOwnerId(ownerId, 0, 10, null));
+
+        verify(bookingRepository, never()).findAllByItemIdInAndStatusNot(anyList(), any(BookingStatus.class));
+    }
+
     @Test
     public void shouldThrowEntityNotFoundExceptionWhenGetAllItemsByEmptyOwnerId() {
         long ownerId = 1L;
@@ -427,7 +481,7 @@ class ItemServiceImplTest {
         when(userRepository.findById(ownerId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class, () ->
-                itemService.getAllItemsByOwnerId(ownerId, 0, 2));
+                itemService.getAllItemsByOwnerId(ownerId, 0, 2, null));
 
         assertEquals("Владелец с id 1 не найден", exception.getMessage());
 
@@ -439,12 +493,41 @@ class ItemServiceImplTest {
 
     @Test
     public void shouldReturnEmptyListWhenGetAllBySearchQueryIfTextEmptyOrNull() {
-        assertEquals(Collections.emptyList(), itemService.getItemsBySearchQuery("    ", 0, 10));
+        assertEquals(Collections.emptyList(), itemService.getItemsBySearchQuery("    ", null, null, 0, 10, null));
         verify(itemRepository, never()).getItemsBySearchQuery(anyString(), any(Pageable.class));
-        assertEquals(Collections.emptyList(), itemService.getItemsBySearchQuery(null, 0, 10));
+        assertEquals(Collections.emptyList(), itemService.getItemsBySearchQuery(null, null, null, 0, 10, null));
         verify(itemRepository, never()).getItemsBySearchQuery(anyString(), any(Pageable.class));
     }
 
+    @Test
+    public void shouldSearchOnlyAvailableItemsWhenPeriodIsSet() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+        Item item = new Item(1L, "item name", "item description", true, new User(1L, "user name", "user@email.com"),
+                null, null, Collections.emptyList(), null, 0);
+
+        when(itemRepository.getAvailableItemsBySearchQuery(eq("item"), eq(start), eq(end),
+                eq(BookingStatus.APPROVED), any(Pageable.class))).thenReturn(List.of(item));
+
+        List<ItemLogDto> result = itemService.getItemsBySearchQuery("item", start, end, 0, 10, null);
+
+        assertEquals(ItemMapper.mapToListItemLogDto(List.of(item), Collections.emptyMap()), result);
+        verify(itemRepository, never()).getItemsBySearchQuery(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldThrowIncorrectTimeDateExceptionWhenSearchIfPeriodIsIncomplete() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(IncorrectTimeDateException.class, () ->
+                itemService.getItemsBySearchQuery("item", start, null, 0, 10, null));
+        assertThrows(IncorrectTimeDateException.class, () ->
+                itemService.getItemsBySearchQuery("item", start, start, 0, 10, null));
+
+        verify(itemRepository, never()).getAvailableItemsBySearchQuery(anyString(), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(BookingStatus.class), any(Pageable.class));
+    }
+
     @Test
     public void shouldAddComment() {
         long itemId = 1L;
@@ -452,11 +535,11 @@ class ItemServiceImplTest {
         LocalDateTime created = LocalDateTime.now();
         User author = new User(authorId, "user name", "user@email.com");
         Item item = new Item(itemId, "item name", "item description", true, author, null,
-                null, Collections.emptyList(), null);
+                null, Collections.emptyList(), null, 0);
         CommentAddDto commentAddDto = new CommentAddDto("Хорошая вещь");
         Comment comment = new Comment(1L, "Хорошая вещь", itemId, author, created);
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(item));
         when(userRepository.findById(authorId)).thenReturn(Optional.of(author));
         when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(),
                 any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(true);
@@ -466,11 +549,40 @@ class ItemServiceImplTest {
 
         assertEquals(CommentMapper.mapToCommentInItemLogDto(comment), result);
 
-        verify(itemRepository, times(1)).findById(itemId);
+        verify(itemRepository, times(1)).findForUpdateById(itemId);
         verify(userRepository, times(1)).findById(authorId);
         verify(bookingRepository, times(1)).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(),
                 anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
         verify(commentRepository, times(1)).save(any(Comment.class));
+        assertEquals(1, item.getCommentCount());
+        verify(itemCommentsCache, times(1)).evict(itemId);
+    }
+
+    @Test
+    public void shouldReturnItemCommentsBeforeGivenId() {
+        long itemId = 1L;
+        User author = new User(1L, "user name", "user@email.com");
+        Comment comment = new Comment(4L, "Хорошая вещь", itemId, author, LocalDateTime.now());
+
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, 5L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment));
+
+        List<CommentInItemLogDto> result = itemService.getItemComments(itemId, 5L, 2);
+
+        assertEquals(List.of(CommentMapper.mapToCommentInItemLogDto(comment)), result);
+        verify(commentRepository, never()).findByItemIdOrderByIdDesc(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldThrowEntityNotFoundExceptionWhenGetItemCommentsIfItemNotExist() {
+        when(itemRepository.existsById(anyLong())).thenReturn(false);
+
+        Exception exception = assertThrows(EntityNotFoundException.class, () ->
+                itemService.getItemComments(1L, null, 10));
+        assertEquals("Вещи с id 1 не существует", exception.getMessage());
+
+        verify(commentRepository, never()).findByItemIdOrderByIdDesc(anyLong(), any(Pageable.class));
     }
 
     @Test
@@ -479,13 +591,13 @@ class ItemServiceImplTest {
         long authorId = 1L;
         CommentAddDto commentAddDto = new CommentAddDto("Хорошая вещь");
 
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findForUpdateById(anyLong())).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class, () ->
                 itemService.addComment(commentAddDto, authorId, itemId));
         assertEquals("Вещи с id 1 не существует", exception.getMessage());
 
-        verify(itemRepository, times(1)).findById(itemId);
+        verify(itemRepository, times(1)).findForUpdateById(itemId);
         verify(userRepository, never()).findById(authorId);
         verify(bookingRepository, never()).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(),
                 anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
@@ -498,22 +610,48 @@ class ItemServiceImplTest {
         long authorId = 1L;
         CommentAddDto commentAddDto = new CommentAddDto("Хорошая вещь");
         Item item = new Item(itemId, "item name", "item description", true, new User(), null,
-                null, Collections.emptyList(), null);
+                null, Collections.emptyList(), null, 0);
 
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class, () ->
                 itemService.addComment(commentAddDto, authorId, itemId));
         assertEquals("Пользователя с id 1 не существует", exception.getMessage());
 
-        verify(itemRepository, times(1)).findById(itemId);
+        verify(itemRepository, times(1)).findForUpdateById(itemId);
         verify(userRepository, times(1)).findById(authorId);
         verify(bookingRepository, never()).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(),
                 anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
         verify(commentRepository, never()).save(any(Comment.class));
     }
 
+    @Test
+    public void shouldAddCommentWhenBookingIsArchived() {
+        long itemId = 1L;
+        long authorId = 1L;
+        User author = new User(authorId, "user name", "user@email.com");
+        Item item = new Item(itemId, "item name", "item description", true, author, null,
+                null, Collections.emptyList(), null, 0);
+        Comment comment = new Comment(1L, "Брал давно", itemId, author, LocalDateTime.now());
+
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(item));
+        when(userRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(false);
+        when(archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(true);
+        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+
+        CommentInItemLogDto result = itemService.addComment(new CommentAddDto("Брал давно"), authorId, itemId);
+
+        assertEquals(CommentMapper.mapToCommentInItemLogDto(comment), result);
+
+        verify(archivedBookingRepository, times(1)).existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(authorId),
+                eq(itemId), eq(BookingStatus.APPROVED), any(LocalDateTime.class));
+        assertEquals(1, item.getCommentCount());
+    }
+
     @Test
     public void shouldThrowEntityNotFoundExceptionWhenAddCommentIfItemBooked() {
         long itemId = 1L;
@@ -521,9 +659,9 @@ class ItemServiceImplTest {
         User author = new User(authorId, "user name", "user@email.com");
         CommentAddDto commentAddDto = new CommentAddDto("Хорошая вещь");
         Item item = new Item(itemId, "item name", "item description", true, author, null,
-                null, Collections.emptyList(), null);
+                null, Collections.emptyList(), null, 0);
 
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findForUpdateById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(author));
         when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(),
                 anyLong(), any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(false);
@@ -532,14 +670,60 @@ class ItemServiceImplTest {
                 itemService.addComment(commentAddDto, authorId, itemId));
         assertEquals("Вы еще не арендовали эту вещь", exception.getMessage());
 
-        verify(itemRepository, times(1)).findById(itemId);
+        verify(itemRepository, times(1)).findForUpdateById(itemId);
         verify(userRepository, times(1)).findById(authorId);
         verify(bookingRepository, times(1)).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(),
                 anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
         verify(commentRepository, never()).save(any(Comment.class));
     }
 
-}
+    @Test
+    public void shouldReturnItemAvailability() {
+        long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 0, 0);
+        List<AvailabilityInterval> busy = List.of(new AvailabilityInterval(from.plusHours(2), from.plusHours(5)));
+        List<AvailabilityInterval> free = List.of(new AvailabilityInterval(from, from.plusHours(2)),
+                new AvailabilityInterval(from.plusHours(5), to));
+
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(itemAvailabilityIndex.getBusyIntervals(itemId, from, to)).thenReturn(busy);
+        when(itemAvailabilityIndex.getFreeIntervals(busy, from, to)).thenReturn(free);
+
+        ItemAvailabilityLogDto result = itemService.getItemAvailability(itemId, from, to);
+
+        assertEquals(itemId, result.getItemId());
+        assertEquals(List.of(new AvailabilityIntervalDto(from.plusHours(2), from.plusHours(5))), result.getBusy());
+        assertEquals(2, result.getFree().size());
+
+        verify(itemRepository, times(1)).existsById(itemId);
+        verify(itemAvailabilityIndex, times(1)).getBusyIntervals(itemId, from, to);
+    }
 
+    @Test
+    public void shouldThrowIncorrectTimeDateExceptionWhenGetItemAvailabilityIfToIsBeforeFrom() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 2, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(IncorrectTimeDateException.class, () -> itemService.getItemAvailability(1L, from, to));
+
+        verify(itemRepository, never()).existsById(anyLong());
+        verify(itemAvailabilityIndex, never()).getBusyIntervals(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    public void shouldThrowEntityNotFoundExceptionWhenGetItemAvailabilityIfItemNotExist() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 0, 0);
 
+        when(itemRepository.existsById(1L)).thenReturn(false);
 
+        Exception exception = assertThrows(EntityNotFoundException.class, () ->
+                itemService.getItemAvailability(1L, from, to));
+        assertEquals("Вещи с id 1 не существует", exception.getMessage());
+
+        verify(itemAvailabilityIndex, never()).getBusyIntervals(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+    }
+}
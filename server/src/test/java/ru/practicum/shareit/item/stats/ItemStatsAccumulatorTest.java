@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.stats.model.ItemStats;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemStatsAccumulatorTest {
+    private ItemStatsAccumulator accumulator;
+    @Mock
+    private ItemStatsRepository itemStatsRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        accumulator = new ItemStatsAccumulator(itemStatsRepository, transactionManager);
+    }
+
+    @Test
+    public void shouldAddPendingCountsToExistingAndNewRows() {
+        ItemStats existing = new ItemStats(1L, 10, false);
+        accumulator.bookingApproved(1L);
+        accumulator.bookingApproved(1L);
+        accumulator.bookingApproved(2L);
+
+        when(itemStatsRepository.findAllForUpdateByItemIdIn(Set.of(1L, 2L))).thenReturn(List.of(existing));
+
+        assertEquals(2, accumulator.flush());
+
+        verify(itemStatsRepository, times(1)).saveAll(List.of(new ItemStats(1L, 12, false),
+                new ItemStats(2L, 1)));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    public void shouldResetCountersOnlyAfterSuccessfulFlush() {
+        accumulator.bookingApproved(1L);
+        when(itemStatsRepository.findAllForUpdateByItemIdIn(Set.of(1L)))
+                .thenThrow(new IllegalStateException("БД недоступна"))
+                .thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> accumulator.flush());
+        assertEquals(1, accumulator.pendingItems());
+        assertEquals(1, accumulator.flush());
+        assertEquals(0, accumulator.flush());
+
+        verify(itemStatsRepository, times(1)).saveAll(List.of(new ItemStats(1L, 1)));
+    }
+
+    @Test
+    public void shouldFlushPendingCountsOnShutdown() {
+        accumulator.bookingApproved(3L);
+        when(itemStatsRepository.findAllForUpdateByItemIdIn(Set.of(3L))).thenReturn(List.of());
+
+        accumulator.destroy();
+
+        verify(itemStatsRepository, times(1)).saveAll(List.of(new ItemStats(3L, 1)));
+    }
+
+    @Test
+    public void shouldDropFlushedCountersAndCountNewApprovals() {
+        accumulator.bookingApproved(1L);
+        accumulator.bookingApproved(2L);
+        when(itemStatsRepository.findAllForUpdateByItemIdIn(anySet())).thenReturn(List.of());
+
+        assertEquals(2, accumulator.flush());
+        assertEquals(0, accumulator.pendingItems());
+
+        accumulator.bookingApproved(1L);
+        assertEquals(1, accumulator.pendingItems());
+        assertEquals(1, accumulator.flush());
+        assertEquals(0, accumulator.pendingItems());
+
+        verify(itemStatsRepository, times(1)).saveAll(List.of(new ItemStats(1L, 1)));
+    }
+}
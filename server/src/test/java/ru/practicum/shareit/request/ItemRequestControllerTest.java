@@ -115,4 +115,22 @@ public class ItemRequestControllerTest {
 
         verify(itemRequestService, times(1)).getItemRequestById(1L, 1L);
     }
+
+    @Test
+    public void shouldReturnMatchingItemRequests() throws Exception {
+        ItemRequestLogDto itemRequestLogDto = new ItemRequestLogDto(2L, "нужна дрель",
+                LocalDateTime.now(), Collections.emptyList());
+
+        when(itemRequestService.getMatchingItemRequests(1L, 0, 10)).thenReturn(List.of(itemRequestLogDto));
+
+        mockMvc.perform(get("/requests/matching")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[0].description", is(itemRequestLogDto.getDescription())));
+
+        verify(itemRequestService, times(1)).getMatchingItemRequests(1L, 0, 10);
+    }
 }
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestMatchingIndexTest {
+    private static final long OWNER_ID = 1L;
+    private static final long REQUESTER_ID = 2L;
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemRequestMatchingIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ItemRequestMatchingIndex(itemRequestRepository, itemRepository);
+    }
+
+    @Test
+    public void shouldRankRequestsByCommonTermsWithOwnerItems() {
+        when(itemRequestRepository.findAllIndexedTexts()).thenReturn(List.of(
+                new IndexedText(10L, REQUESTER_ID, "Нужна аккумуляторная дрель"),
+                new IndexedText(11L, REQUESTER_ID, "Ищу палатку"),
+                new IndexedText(12L, REQUESTER_ID, "Дрели нет?")));
+        when(itemRepository.findAllIndexedTexts()).thenReturn(List.of(
+                new IndexedText(100L, OWNER_ID, "Дрель аккумуляторная Makita")));
+
+        assertEquals(List.of(10L, 12L), index.match(OWNER_ID, 0, 10));
+        assertEquals(List.of(12L), index.match(OWNER_ID, 1, 10));
+    }
+
+    @Test
+    public void shouldUpdateScoresIncrementally() {
+        when(itemRequestRepository.findAllIndexedTexts()).thenReturn(List.of(
+                new IndexedText(10L, REQUESTER_ID, "Ищу палатку")));
+        when(itemRepository.findAllIndexedTexts()).thenReturn(Collections.emptyList());
+        assertTrue(index.match(OWNER_ID, 0, 10).isEmpty());
+
+        index.itemSaved(100L, OWNER_ID, "Палатка", "трёхместная");
+        index.requestSaved(11L, REQUESTER_ID, "Нужна трёхместная палатка");
+        assertEquals(List.of(11L, 10L), index.match(OWNER_ID, 0, 10));
+
+        index.itemSaved(100L, OWNER_ID, "Спальник", null);
+        assertTrue(index.match(OWNER_ID, 0, 10).isEmpty());
+
+        index.itemSaved(101L, OWNER_ID, "Палатка", "двухместная");
+        index.itemDeleted(101L);
+        assertTrue(index.match(OWNER_ID, 0, 10).isEmpty());
+
+        verify(itemRequestRepository, times(1)).findAllIndexedTexts();
+    }
+
+    @Test
+    public void shouldNotMatchOwnRequests() {
+        when(itemRequestRepository.findAllIndexedTexts()).thenReturn(List.of(
+                new IndexedText(10L, OWNER_ID, "Нужна дрель")));
+        when(itemRepository.findAllIndexedTexts()).thenReturn(List.of(
+                new IndexedText(100L, OWNER_ID, "Дрель")));
+
+        assertTrue(index.match(OWNER_ID, 0, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldApplyChangeCommittedWhileLoading() throws InterruptedException {
+        Thread[] writer = new Thread[1];
+        when(itemRequestRepository.findAllIndexedTexts()).thenAnswer(invocation -> {
+            // запрос закоммичен после чтения таблицы, но до окончания загрузки
+            writer[0] = new Thread(() -> index.requestSaved(11L, REQUESTER_ID, "Нужна палатка"));
+            writer[0].start();
+            while (writer[0].getState() != Thread.State.WAITING && writer[0].isAlive()) {
+                Thread.onSpinWait();
+            }
+            return List.of(new IndexedText(10L, REQUESTER_ID, "Ищу палатку"));
+        });
+        when(itemRepository.findAllIndexedTexts()).thenReturn(List.of(
+                new IndexedText(100L, OWNER_ID, "Палатка")));
+
+        index.match(OWNER_ID, 0, 10);
+        writer[0].join();
+
+        assertEquals(List.of(11L, 10L), index.match(OWNER_ID, 0, 10));
+    }
+
+    @Test
+    public void shouldNormalizeTerms() {
+        assertEquals(Set.of("аккуму", "дрел", "makita", "18v"),
+                ItemRequestMatchingIndex.terms("Аккумуляторная дрель, Makita 18V"));
+        assertEquals(ItemRequestMatchingIndex.terms("дрели палатку"), ItemRequestMatchingIndex.terms("дрель палатка"));
+    }
+}
@@ -6,10 +6,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestAddDto;
 import ru.practicum.shareit.request.dto.ItemRequestLogDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.ItemRequestMatchingIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -30,10 +36,15 @@ class ItemRequestServiceImplTest {
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestMatchingIndex itemRequestMatchingIndex;
 
     @BeforeEach
     public void setUp() {
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemRepository,
+                itemRequestMatchingIndex);
     }
 
     @Test
@@ -180,4 +191,62 @@ class ItemRequestServiceImplTest {
         verify(userRepository, times(1)).findById(requesterId);
         verify(itemRequestRepository, never()).findByRequesterIdOrderByCreatedDesc(anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnMatchingItemRequestsInIndexOrder() {
+        long ownerId = 1L;
+        User owner = new User(ownerId, "owner", "owner@email.com");
+        User requester = new User(2L, "user2", "user2@email.com");
+        ItemRequest itemRequest1 = new ItemRequest(1L, "нужна дрель", requester,
+                LocalDateTime.of(2023, 10, 25, 22, 23), Collections.emptyList());
+        ItemRequest itemRequest2 = new ItemRequest(2L, "нужна дрель и шуруповерт", requester,
+                LocalDateTime.of(2023, 10, 26, 22, 23), Collections.emptyList());
+
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(itemRequestMatchingIndex.match(ownerId, 0, 10)).thenReturn(List.of(2L, 1L));
+        when(itemRequestRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(itemRequest1, itemRequest2));
+
+        List<ItemRequestLogDto> result = itemRequestService.getMatchingItemRequests(ownerId, 0, 10);
+
+        assertEquals(ItemRequestMapper.mapToListItemRequestLogDto(List.of(itemRequest2, itemRequest1)), result);
+    }
+
+    @Test
+    public void shouldNotLoadItemRequestsWhenNothingMatches() {
+        long ownerId = 1L;
+
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(new User(ownerId, "owner", "owner@email.com")));
+        when(itemRequestMatchingIndex.match(ownerId, 0, 10)).thenReturn(Collections.emptyList());
+
+        assertTrue(itemRequestService.getMatchingItemRequests(ownerId, 0, 10).isEmpty());
+
+        verify(itemRequestRepository, never()).findAllById(any());
+    }
+
+    @Test
+    public void shouldLoadItemsOfAllRequestsOnPageInOneQuery() {
+        long requesterId = 1L;
+        User requester = new User(requesterId, "user1", "user1@email.com");
+        User owner = new User(2L, "user2", "user2@email.com");
+        ItemRequest itemRequest1 = new ItemRequest(1L, "itemRequest1 description", owner,
+                LocalDateTime.of(2023, 10, 28, 22, 23), null);
+        ItemRequest itemRequest2 = new ItemRequest(2L, "itemRequest2 description", owner,
+                LocalDateTime.of(2023, 10, 25, 22, 23), null);
+        Item item1 = new Item(1L, "item1", "item1 description", true, requester, null, null, null, itemRequest1, 0);
+        Item item2 = new Item(2L, "item2", "item2 description", true, requester, null, null, null, itemRequest1, 0);
+        Sort sort = Sort.by(Sort.Order.desc("created"));
+
+        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
+        when(itemRequestRepository.findAllByRequesterIdNot(requesterId, OffsetPageRequest.of(5, 10, sort)))
+                .thenReturn(List.of(itemRequest1, itemRequest2));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(item1, item2));
+
+        List<ItemRequestLogDto> result = itemRequestService.getAllItemRequests(requesterId, 5, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(ItemMapper.mapToListItemInRequestLogDto(List.of(item1, item2)), result.get(0).getItems());
+        assertEquals(Collections.emptyList(), result.get(1).getItems());
+
+        verify(itemRepository, times(1)).findAllByItemRequestIdIn(any());
+    }
+}
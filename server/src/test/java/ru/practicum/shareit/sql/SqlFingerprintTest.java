@@ -0,0 +1,24 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlFingerprintTest {
+    @Test
+    public void shouldCollapseInListsAndWhitespace() {
+        assertEquals("select c.id from comments c where c.item_id in (?) order by c.id",
+                SqlFingerprint.of("select c.id\n    from comments c\n    where c.item_id in (?, ?,\n ?)\n" +
+                        "    order by c.id"));
+        assertEquals(SqlFingerprint.of("select * from items where id in (?)"),
+                SqlFingerprint.of("select * from items where id in (?, ?, ?, ?)"));
+    }
+
+    @Test
+    public void shouldReplaceLiteralsButKeepAliases() {
+        assertEquals("select booking0_.id from bookings booking0_ where booking0_.status = ? " +
+                        "and booking0_.item_id = ? limit ?",
+                SqlFingerprint.of("select booking0_.id from bookings booking0_ where booking0_.status = 'it''s' " +
+                        "and booking0_.item_id = -12 limit 10"));
+    }
+}
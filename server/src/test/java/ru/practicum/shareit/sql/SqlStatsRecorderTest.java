@@ -0,0 +1,124 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.sql.dto.SqlFingerprintStatsDto;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlStatsRecorderTest {
+    private static final long MS = 1_000_000;
+
+    private final SqlStatsRecorder recorder = new SqlStatsRecorder(2, Duration.ofMinutes(5), Duration.ofSeconds(1));
+
+    @Test
+    public void shouldGroupStatementsByFingerprint() {
+        recorder.record("select * from items where id in (?, ?)", 2 * MS, 2);
+        recorder.record("select * from items where id in (?)", 4 * MS, 1);
+
+        List<SqlFingerprintStatsDto> top = recorder.top(10);
+
+        assertEquals(1, top.size());
+        assertEquals("select * from items where id in (?)", top.get(0).getFingerprint());
+        assertEquals(2, top.get(0).getCount());
+        assertEquals(6.0, top.get(0).getTotalMs());
+        assertEquals(1.5, top.get(0).getMeanRows());
+        assertEquals(2, top.get(0).getMaxRows());
+        assertEquals(4.0, top.get(0).getMaxMs());
+    }
+
+    @Test
+    public void shouldEvictRarestFingerprintWhenFull() {
+        recorder.record("select * from users", MS, 1);
+        recorder.record("select * from users", MS, 1);
+        recorder.record("select * from items", MS, 1);
+        recorder.record("select * from bookings", 10 * MS, 1);
+
+        List<SqlFingerprintStatsDto> top = recorder.top(10);
+
+        assertEquals(2, top.size());
+        assertEquals("select * from bookings", top.get(0).getFingerprint());
+        // счётчик вытесненного наследуется и учитывается как возможная ошибка
+        assertEquals(2, top.get(0).getCount());
+        assertEquals(1, top.get(0).getCountError());
+        assertEquals("select * from users", top.get(1).getFingerprint());
+    }
+
+    @Test
+    public void shouldNotLoseRecordsUnderContention() throws Exception {
+        int threads = 8;
+        int iterations = 1000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String sql = t % 2 == 0 ? "select * from users" : "select * from items";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        recorder.record(sql, MS, 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<SqlFingerprintStatsDto> top = recorder.top(10);
+        assertEquals(2, top.size());
+        for (SqlFingerprintStatsDto stats : top) {
+            assertEquals(threads / 2 * iterations, stats.getCount());
+            assertEquals(0, stats.getCountError());
+        }
+    }
+
+    @Test
+    public void shouldRecordRowsReadThroughDataSource() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(statement.executeUpdate()).thenReturn(3);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        Connection wrapped = new StatementRecordingDataSource(target, recorder).getConnection();
+        PreparedStatement query = wrapped.prepareStatement("select * from items where owner_id = ?");
+        ResultSet rows = query.executeQuery();
+        while (rows.next()) {
+            assertNotSame(resultSet, rows);
+        }
+        rows.close();
+        wrapped.prepareStatement("update items set available = ? where owner_id = ?").executeUpdate();
+
+        List<SqlFingerprintStatsDto> top = recorder.top(10);
+        assertEquals(2, top.size());
+        for (SqlFingerprintStatsDto stats : top) {
+            assertEquals(1, stats.getCount());
+            assertEquals(stats.getFingerprint().startsWith("select") ? 2 : 3, stats.getMaxRows());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import ru.practicum.shareit.booking.dto.BookingAddDto;
+import ru.practicum.shareit.booking.dto.BookingLogDto;
+import ru.practicum.shareit.item.dto.ItemAddDto;
+import ru.practicum.shareit.item.dto.ItemLogDto;
+import ru.practicum.shareit.request.dto.ItemRequestAddDto;
+import ru.practicum.shareit.request.dto.ItemRequestLogDto;
+import ru.practicum.shareit.user.dto.UserAddDto;
+import ru.practicum.shareit.user.dto.UserLogDto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Контроллерные тесты подменяют сервисы и до Hibernate не доходят, поэтому бюджеты эндпоинтов
+// проверяются здесь, на настоящей БД: с несколькими вещами и бронированиями на странице
+// N+1 выходит за бюджет, который от размера страницы не зависит.
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class StatementBudgetIntegrationTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper mapper;
+    @Value("${shareit.sql.statement-budget.default}")
+    private int defaultBudget;
+
+    @Test
+    public void shouldStayWithinStatementBudgets() throws Exception {
+        long ownerId = create(post("/users"), new UserAddDto("owner", "budget-owner@email.com"),
+                UserLogDto.class).getId();
+        long bookerId = create(post("/users"), new UserAddDto("booker", "budget-booker@email.com"),
+                UserLogDto.class).getId();
+        long requestId = create(post("/requests").header(USER_HEADER, bookerId),
+                new ItemRequestAddDto("Нужна дрель"), ItemRequestLogDto.class).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long firstItemId = 0;
+        long bookingId = 0;
+        for (int i = 0; i < 5; i++) {
+            long itemId = create(post("/items").header(USER_HEADER, ownerId),
+                    new ItemAddDto("Дрель " + i, "Аккумуляторная дрель", true, i == 0 ? requestId : null),
+                    ItemLogDto.class).getId();
+            firstItemId = i == 0 ? itemId : firstItemId;
+            bookingId = create(post("/bookings").header(USER_HEADER, bookerId),
+                    new BookingAddDto(itemId, start.plusDays(i), start.plusDays(i).plusHours(1)),
+                    BookingLogDto.class).getId();
+        }
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId).header(USER_HEADER, ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+
+        expectWithinBudget(get("/bookings").header(USER_HEADER, bookerId));
+        expectWithinBudget(get("/bookings").header(USER_HEADER, bookerId).param("state", "PAST"));
+        expectWithinBudget(get("/bookings/owner").header(USER_HEADER, ownerId));
+        expectWithinBudget(get("/bookings/owner").header(USER_HEADER, ownerId).param("state", "FUTURE"));
+        expectWithinBudget(get("/bookings/{bookingId}", bookingId).header(USER_HEADER, bookerId));
+        expectWithinBudget(get("/items").header(USER_HEADER, ownerId));
+        expectWithinBudget(get("/items/search").header(USER_HEADER, bookerId).param("text", "дрель"));
+        expectWithinBudget(get("/items/{itemId}", firstItemId).header(USER_HEADER, ownerId));
+        expectWithinBudget(get("/requests").header(USER_HEADER, bookerId));
+        expectWithinBudget(get("/requests/all").header(USER_HEADER, ownerId));
+        expectWithinBudget(get("/requests/matching").header(USER_HEADER, ownerId));
+        expectWithinBudget(get("/requests/{requestId}", requestId).header(USER_HEADER, ownerId));
+        expectWithinBudget(get("/users/{userId}", ownerId));
+    }
+
+    private <T> T create(MockHttpServletRequestBuilder request, Object body, Class<T> type) throws Exception {
+        MvcResult result = mockMvc.perform(request
+                        .content(mapper.writeValueAsString(body))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andReturn();
+        // вставка всегда идёт в БД: счётчик подключён к Hibernate
+        assertTrue(Integer.parseInt(result.getResponse().getHeader(StatementBudgetResponseAdvice.HEADER)) > 0);
+        return mapper.readValue(result.getResponse().getContentAsString(), type);
+    }
+
+    private void expectWithinBudget(MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+    }
+
+    private ResultMatcher withinStatementBudget() {
+        return result -> {
+            StatementBudget budget = ((HandlerMethod) result.getHandler()).getMethodAnnotation(StatementBudget.class);
+            int limit = budget != null ? budget.value() : defaultBudget;
+            int count = Integer.parseInt(result.getResponse().getHeader(StatementBudgetResponseAdvice.HEADER));
+            assertTrue(count <= limit, count + " SQL-запросов при бюджете " + limit);
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceContextTest {
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    public void shouldParseValidTraceparent() {
+        TraceContext context = TraceContext.parse(TRACEPARENT);
+
+        assertNotNull(context);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.getTraceId());
+        assertEquals("00f067aa0ba902b7", context.getSpanId());
+        assertTrue(context.isSampled());
+        assertEquals(TRACEPARENT, context.toTraceparent());
+        assertFalse(TraceContext.parse(TRACEPARENT.substring(0, 54) + "0").isSampled());
+    }
+
+    @Test
+    public void shouldRejectMalformedTraceparent() {
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse(""));
+        assertNull(TraceContext.parse(TRACEPARENT.toUpperCase()));
+        assertNull(TraceContext.parse("ff" + TRACEPARENT.substring(2)));
+        assertNull(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01"));
+        assertNull(TraceContext.parse(TRACEPARENT.replace('-', '_')));
+    }
+
+    @Test
+    public void shouldKeepTraceAndSamplingInChild() {
+        TraceContext root = TraceContext.newRoot(true);
+        TraceContext child = root.child();
+
+        assertEquals(root.getTraceId(), child.getTraceId());
+        assertNotEquals(root.getSpanId(), child.getSpanId());
+        assertTrue(child.isSampled());
+        assertEquals(child.getSpanId(), TraceContext.parse(child.toTraceparent()).getSpanId());
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingTest {
+    @Test
+    public void shouldNotOpenSpansOutsideTrace() {
+        assertFalse(Tracing.isActive());
+        assertNull(Tracing.startChild("service", "service"));
+
+        Tracing.recordDatabaseCall(1000);
+    }
+
+    @Test
+    public void shouldNestSpansAndAttributeDatabaseTime() {
+        Span root = Tracing.startRoot("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7", "GET");
+        Span service = Tracing.startChild("ItemServiceImpl.getItem", "service");
+        Span repository = Tracing.startChild("ItemRepository.findById", "repository");
+        Tracing.recordDatabaseCall(3000);
+        Tracing.end(repository, null);
+        Tracing.recordDatabaseCall(2000);
+        Tracing.end(service, new IllegalStateException());
+        Tracing.endRoot(root, null);
+
+        assertFalse(Tracing.isActive());
+        assertEquals(List.of(root, service, repository), root.getTrace());
+        assertEquals("00f067aa0ba902b7", root.getParentSpanId());
+        assertEquals(root.getSpanId(), service.getParentSpanId());
+        assertEquals(service.getSpanId(), repository.getParentSpanId());
+        assertEquals(1, repository.getDbCalls());
+        assertEquals(3000, repository.getDbNanos());
+        assertEquals(2, service.getDbCalls());
+        assertEquals(5000, root.getDbNanos());
+        assertEquals("IllegalStateException", service.getError());
+        assertTrue(root.getDurationNanos() >= service.getDurationNanos());
+    }
+
+    @Test
+    public void shouldCloseSpansLeftOpenWhenRootEnds() {
+        Span root = Tracing.startRoot("4bf92f3577b34da6a3ce929d0e0e4736", null, "GET");
+        Span serialization = Tracing.startChild("serialize ItemDto", "serialization");
+
+        Tracing.endRoot(root, null);
+
+        assertFalse(Tracing.isActive());
+        assertTrue(serialization.getDurationNanos() >= 0);
+    }
+
+    @Test
+    public void shouldFollowIncomingSamplingDecision() {
+        Sampler sampler = new Sampler(1);
+
+        assertTrue(sampler.isSampled(null));
+        assertFalse(sampler.isSampled(TraceContext.newRoot(false)));
+        sampler.setRate(0);
+        assertFalse(sampler.isSampled(null));
+        assertTrue(sampler.isSampled(TraceContext.newRoot(true)));
+        assertThrows(IllegalArgumentException.class, () -> sampler.setRate(1.5));
+    }
+
+    @Test
+    public void shouldRecordSpanForServiceCallInsideTrace() {
+        ProxyFactory factory = new ProxyFactory(new SampleService());
+        factory.addAdvice(new TracingMethodInterceptor());
+        SampleService service = (SampleService) factory.getProxy();
+
+        assertEquals("ok", service.call());
+
+        Span root = Tracing.startRoot("4bf92f3577b34da6a3ce929d0e0e4736", null, "GET");
+        assertEquals("ok", service.call());
+        Tracing.endRoot(root, null);
+
+        assertEquals(2, root.getTrace().size());
+        Span span = root.getTrace().get(1);
+        assertEquals("SampleService.call", span.getName());
+        assertEquals("service", span.getKind());
+        assertTrue(TracingMethodInterceptor.isTraced(SampleService.class));
+        assertFalse(TracingMethodInterceptor.isTraced(String.class));
+    }
+
+    @Service
+    public static class SampleService {
+        public String call() {
+            return "ok";
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -9,6 +11,9 @@ import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserAddDto;
 import ru.practicum.shareit.user.dto.UserLogDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -19,6 +24,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceImplIntegrationTest {
     @Autowired
     private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     public void integrationTest() {
@@ -47,4 +54,23 @@ public class UserServiceImplIntegrationTest {
                 () ->  userService.getUserById(150L));
         assertEquals("пользователя с id 150 не существует", exception1.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReadUserFromSecondLevelCache() {
+        UserLogDto userLogDto = userService.addUser(new UserAddDto("user name", "user@email.com"));
+        // вставка с IDENTITY не кладёт сущность в кэш: его заполняет первое чтение
+        userService.getUserById(userLogDto.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        userService.getUserById(userLogDto.getId());
+        userService.getUserById(userLogDto.getId());
+
+        assertEquals(2, statistics.getDomainDataRegionStatistics(User.class.getName()).getHitCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        userService.updateUser(new UserUpdateDto("new name", null), userLogDto.getId());
+
+        assertEquals("new name", userService.getUserById(userLogDto.getId()).getName());
+    }
+}
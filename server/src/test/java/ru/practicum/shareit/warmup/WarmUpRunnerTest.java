@@ -0,0 +1,86 @@
+package ru.practicum.shareit.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.FieldSet;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpRunnerTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ItemService itemService;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private ItemRequestService itemRequestService;
+
+    private WarmUpRunner runner(int iterations, Duration timeout) {
+        return new WarmUpRunner(userRepository, itemService, bookingService, itemRequestService,
+                new ObjectMapper().findAndRegisterModules(), new MappingJackson2SmileHttpMessageConverter(),
+                iterations, 5, timeout);
+    }
+
+    @Test
+    public void shouldRunReadPathsForSampleUsers() throws Exception {
+        when(userRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new User(1L, "name", "user@email.com"))));
+
+        runner(2, Duration.ofSeconds(10)).run(null);
+
+        verify(itemService, times(2)).getAllItemsByOwnerId(1L, 0, 20, ItemSort.ID);
+        verify(bookingService, times(2)).getAllUserBookings(BookingStatus.ALL, 1L, 0, 20, FieldSet.ALL);
+        verify(bookingService, times(2)).getAllItemBookingsUser(1L, BookingStatus.ALL, 0, 20, FieldSet.ALL);
+        verify(itemRequestService, times(2)).getAllItemRequests(1L, 0, 20);
+        verify(itemService, never()).getItemById(anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldWarmUpRemainingPathsWhenOnePathFails() throws Exception {
+        when(userRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(itemService.getAllItemsByOwnerId(anyLong(), anyInt(), anyInt(), any()))
+                .thenThrow(new EntityNotFoundException("Пользователя с id 0 не существует"));
+
+        runner(3, Duration.ofSeconds(10)).run(null);
+
+        verify(itemService, times(3)).getAllItemsByOwnerId(0L, 0, 20, ItemSort.ID);
+        verify(bookingService, times(3)).getAllUserBookings(BookingStatus.ALL, 0L, 0, 20, FieldSet.ALL);
+        verify(bookingService, times(3)).getAllItemBookingsUser(0L, BookingStatus.ALL, 0, 20, FieldSet.ALL);
+        verify(itemRequestService, times(3)).getAllItemRequestsByUserId(0L);
+        verify(itemRequestService, times(3)).getAllItemRequests(0L, 0, 20);
+        verify(itemService, times(3)).getItemsBySearchQuery("дрель", null, null, 0, 20, ItemSort.BOOKINGS);
+        verify(itemService, never()).getItemById(anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldStopWhenTimeoutExpires() {
+        when(userRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> runner(Integer.MAX_VALUE, Duration.ofMillis(200)).run(null));
+    }
+}